@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.HashMap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.getlime.security.powerauth.sdk.PowerAuthSDK;
+
+/**
+ * The {@code ActivationStateCache} class keeps an in-memory snapshot of activation state for each
+ * configured PowerAuth instance. The snapshot is created on demand and must be invalidated by
+ * every operation that may change the activation state, such as activation create, commit, remove
+ * or status fetch.
+ */
+class ActivationStateCache {
+
+    /**
+     * Immutable snapshot of the activation state.
+     */
+    static class Snapshot {
+        final boolean hasValidActivation;
+        final boolean canStartActivation;
+        final boolean hasPendingActivation;
+        final @Nullable String activationIdentifier;
+        final @Nullable String activationFingerprint;
+
+        Snapshot(@NonNull PowerAuthSDK sdk) {
+            this.hasValidActivation = sdk.hasValidActivation();
+            this.canStartActivation = sdk.canStartActivation();
+            this.hasPendingActivation = sdk.hasPendingActivation();
+            this.activationIdentifier = sdk.getActivationIdentifier();
+            this.activationFingerprint = sdk.getActivationFingerprint();
+        }
+
+        /**
+         * Convert snapshot into map that can be passed to JavaScript.
+         * @return Map with all flags and identifiers.
+         */
+        @NonNull
+        WritableMap toWritableMap() {
+            final WritableMap map = Arguments.createMap();
+            map.putBoolean("hasValidActivation", hasValidActivation);
+            map.putBoolean("canStartActivation", canStartActivation);
+            map.putBoolean("hasPendingActivation", hasPendingActivation);
+            map.putString("activationIdentifier", activationIdentifier);
+            map.putString("activationFingerprint", activationFingerprint);
+            return map;
+        }
+    }
+
+    private final HashMap<String, Snapshot> snapshots = new HashMap<>();
+
+    /**
+     * Get snapshot of activation state for given instance. If there's no snapshot in the cache,
+     * then the new one is created from the provided SDK instance.
+     * @param instanceId PowerAuth instance identifier.
+     * @param sdk PowerAuthSDK instance.
+     * @return Snapshot of activation state.
+     */
+    @NonNull
+    synchronized Snapshot getSnapshot(@NonNull String instanceId, @NonNull PowerAuthSDK sdk) {
+        Snapshot snapshot = snapshots.get(instanceId);
+        if (snapshot == null) {
+            snapshot = new Snapshot(sdk);
+            snapshots.put(instanceId, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Get snapshot of activation state for given instance, only if it's already cached.
+     * @param instanceId PowerAuth instance identifier.
+     * @return Cached snapshot or null if there's no such snapshot in the cache.
+     */
+    @Nullable
+    synchronized Snapshot getCachedSnapshot(@NonNull String instanceId) {
+        return snapshots.get(instanceId);
+    }
+
+    /**
+     * Invalidate cached snapshot for given instance.
+     * @param instanceId PowerAuth instance identifier.
+     */
+    synchronized void invalidate(@NonNull String instanceId) {
+        snapshots.remove(instanceId);
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Defines compression applied to the data before ECIES encryption and reversed after decryption.
+ * The compression is never detected from the data. The request compression is configured by
+ * the application and sent to the server in {@link #HTTP_HEADER} header. The server echoes the
+ * compression applied to the response in the same header, and the response without such header
+ * is not compressed. In general, the compression is always declared together with the data, and data
+ * without such declaration is not compressed.
+ * <p>
+ * Compression before encryption makes the length of the ciphertext depend on the content of the
+ * plaintext. If the attacker can influence part of the compressed data and observe the length of
+ * the ciphertext, then the attacker can guess secrets stored in the same data, as in the CRIME and
+ * BREACH attacks. Don't enable compression for data that mixes secrets, such as tokens or personal
+ * data, with values controlled by a third party.
+ */
+enum Compression {
+    /**
+     * Data is not compressed.
+     */
+    NONE,
+    /**
+     * Data is compressed with DEFLATE algorithm in zlib format.
+     */
+    DEFLATE,
+    /**
+     * Data is compressed with GZIP.
+     */
+    GZIP;
+
+    /**
+     * Name of HTTP header that carries the compression of the request body, and the compression
+     * of the response body in the response.
+     */
+    static final String HTTP_HEADER = "X-PowerAuth-Compression";
+
+    /**
+     * Convert compression string into this enumeration.
+     * @param compression Specified compression. If `null` then `NONE` is returned.
+     * @return Enumeration with compression.
+     * @throws WrapperException In case of unknown compression is specified.
+     */
+    @NonNull
+    static Compression fromString(@Nullable String compression) throws WrapperException {
+        if (compression == null || "NONE".equals(compression)) {
+            return NONE;
+        } else if ("DEFLATE".equals(compression)) {
+            return DEFLATE;
+        } else if ("GZIP".equals(compression)) {
+            return GZIP;
+        }
+        throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid compression specified");
+    }
+
+    /**
+     * Convert value of {@link #HTTP_HEADER} response header into this enumeration.
+     * @param headerValue Value of header or null if response has no such header.
+     * @return Enumeration with compression, {@code NONE} if header is not present.
+     * @throws WrapperException In case of unknown compression in the header.
+     */
+    @NonNull
+    static Compression fromResponseHeader(@Nullable String headerValue) throws WrapperException {
+        try {
+            return fromString(headerValue != null ? headerValue.trim() : null);
+        } catch (WrapperException e) {
+            throw new WrapperException(Errors.EC_ENCRYPTION_ERROR, "Unsupported compression in response");
+        }
+    }
+
+    /**
+     * Compress data.
+     * @param data Data to compress.
+     * @return Compressed data or the same data if compression is {@link #NONE}.
+     * @throws WrapperException In case of failure.
+     */
+    @NonNull
+    byte[] compress(@NonNull byte[] data) throws WrapperException {
+        if (this == NONE) {
+            return data;
+        }
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (OutputStream stream = this == GZIP ? new GZIPOutputStream(output) : new DeflaterOutputStream(output)) {
+            stream.write(data);
+        } catch (IOException e) {
+            throw new WrapperException(Errors.EC_ENCRYPTION_ERROR, "Failed to compress data", e);
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Decompress data. The data must be compressed with this compression, otherwise the function fails.
+     * @param data Data to decompress.
+     * @return Decompressed data.
+     * @throws WrapperException In case of failure or if decompressed data exceeds {@link Constants#MAX_DECOMPRESSED_SIZE}.
+     */
+    @NonNull
+    byte[] decompress(@NonNull byte[] data) throws WrapperException {
+        if (this == NONE) {
+            return data;
+        }
+        final ByteArrayOutputStream output = new ByteArrayOutputStream((int) Math.min((long) data.length * 4, Constants.MAX_DECOMPRESSED_SIZE));
+        try (InputStream stream = this == GZIP
+                ? new GZIPInputStream(new ByteArrayInputStream(data))
+                : new InflaterInputStream(new ByteArrayInputStream(data))) {
+            final byte[] buffer = new byte[8 * 1024];
+            int count;
+            while ((count = stream.read(buffer)) > 0) {
+                if (output.size() + count > Constants.MAX_DECOMPRESSED_SIZE) {
+                    throw new WrapperException(Errors.EC_ENCRYPTION_ERROR, "Decompressed data is too large");
+                }
+                output.write(buffer, 0, count);
+            }
+        } catch (IOException e) {
+            throw new WrapperException(Errors.EC_ENCRYPTION_ERROR, "Failed to decompress data", e);
+        }
+        return output.toByteArray();
+    }
+}
@@ -49,10 +49,33 @@ class Constants {
      * Time interval in milliseconds to keep decryptor object valid in memory.
      */
     static final int DECRYPTOR_KEY_KEEP_ALIVE_TIME  = 5 * 60 * 1_000;
+    /**
+     * Time interval in milliseconds to keep native data object valid in memory.
+     */
+    static final int NATIVE_DATA_KEEP_ALIVE_TIME    = 5 * 60 * 1_000;
+    /**
+     * Maximum size in bytes of decompressed data.
+     */
+    static final int MAX_DECOMPRESSED_SIZE          = 32 * 1024 * 1024;
     /**
      * Upper limit for Unicode Code Point.
      */
     static final int CODEPOINT_MAX                  = 0x10FFFF;
+    /**
+     * Size of chunk in bytes used for file I/O. The value must be divisible by 3, so the data
+     * encoded to Base64 in chunks doesn't contain padding characters in the middle.
+     */
+    static final int FILE_CHUNK_SIZE                = 48 * 1024;
+    /**
+     * Maximum size in bytes of file encrypted or decrypted with file encryption functions. ECIES
+     * encryption in the native SDK requires the whole data in memory, so the files are not streamed.
+     */
+    static final int MAX_FILE_SIZE                  = 16 * 1024 * 1024;
+    /**
+     * Maximum size in bytes of file with the encrypted response. The limit covers the Base64
+     * encoded data of {@link #MAX_FILE_SIZE} size and the rest of the JSON document.
+     */
+    static final int MAX_ENCRYPTED_FILE_SIZE        = MAX_FILE_SIZE / 3 * 4 + 64 * 1024;
 
     // Fallback strings
 
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The {@code CryptogramEnvelope} class parses JSON document with the response cryptogram, typically
+ * read from a file. Unlike a general JSON parser, Base64 encoded values are decoded directly from
+ * the bytes of the document, so the encrypted data is never materialized as a Java string. Members
+ * with other names are skipped.
+ * <p>
+ * The parser unescapes string values in place, so the content of the document is modified.
+ */
+class CryptogramEnvelope {
+
+    private static final byte[] NAME_ENCRYPTED_DATA = "encryptedData".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NAME_MAC = "mac".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NAME_COMPRESSION = "compression".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Maximum nesting of skipped values.
+     */
+    private static final int MAX_DEPTH = 64;
+
+    /**
+     * Decoded encrypted data or null if not present in the document.
+     */
+    final @Nullable byte[] encryptedData;
+    /**
+     * Decoded MAC or null if not present in the document.
+     */
+    final @Nullable byte[] mac;
+    /**
+     * Compression of the encrypted data or null if not present in the document.
+     */
+    final @Nullable String compression;
+
+    private CryptogramEnvelope(@Nullable byte[] encryptedData, @Nullable byte[] mac, @Nullable String compression) {
+        this.encryptedData = encryptedData;
+        this.mac = mac;
+        this.compression = compression;
+    }
+
+    /**
+     * Parse JSON document with the response cryptogram.
+     * @param json UTF-8 encoded JSON document. The content of array is modified by the parser.
+     * @return Parsed envelope.
+     * @throws WrapperException In case that document is not valid JSON object, or the values are not valid Base64 strings.
+     */
+    @NonNull
+    static CryptogramEnvelope parse(@NonNull byte[] json) throws WrapperException {
+        final Parser parser = new Parser(json);
+        byte[] encryptedData = null;
+        byte[] mac = null;
+        String compression = null;
+        parser.expect('{');
+        if (!parser.consume('}')) {
+            do {
+                final int nameStart = parser.position();
+                final int nameEnd = parser.readString();
+                parser.expect(':');
+                if (parser.equals(nameStart, nameEnd, NAME_ENCRYPTED_DATA)) {
+                    encryptedData = parser.readBase64();
+                } else if (parser.equals(nameStart, nameEnd, NAME_MAC)) {
+                    mac = parser.readBase64();
+                } else if (parser.equals(nameStart, nameEnd, NAME_COMPRESSION)) {
+                    compression = parser.readAscii();
+                } else {
+                    parser.skipValue(0);
+                }
+            } while (parser.consume(','));
+            parser.expect('}');
+        }
+        parser.expectEnd();
+        return new CryptogramEnvelope(encryptedData, mac, compression);
+    }
+
+    /**
+     * Simple parser working directly with bytes of the document.
+     */
+    private static class Parser {
+
+        private final @NonNull byte[] json;
+        private int position;
+
+        Parser(@NonNull byte[] json) {
+            this.json = json;
+        }
+
+        /**
+         * @return Position of the next value, after the whitespace is skipped.
+         */
+        int position() {
+            skipWhitespace();
+            return position + 1;
+        }
+
+        /**
+         * Consume the expected character.
+         * @param c Expected character.
+         * @throws WrapperException In case that other character is found.
+         */
+        void expect(char c) throws WrapperException {
+            if (!consume(c)) {
+                throw failure();
+            }
+        }
+
+        /**
+         * Consume character if it's the next character in the document.
+         * @param c Character to consume.
+         * @return true if the character was consumed.
+         */
+        boolean consume(char c) {
+            skipWhitespace();
+            if (position < json.length && json[position] == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Verify that there's only whitespace after the parsed value.
+         * @throws WrapperException In case that document contains more data.
+         */
+        void expectEnd() throws WrapperException {
+            skipWhitespace();
+            if (position != json.length) {
+                throw failure();
+            }
+        }
+
+        /**
+         * Read string and unescape it in place. The unescaped string starts right after the opening quote.
+         * @return Position right after the last character of unescaped string.
+         * @throws WrapperException In case that string is not valid.
+         */
+        int readString() throws WrapperException {
+            expect('"');
+            int write = position;
+            while (position < json.length) {
+                final byte b = json[position++];
+                if (b == '"') {
+                    return write;
+                }
+                if (b == '\\') {
+                    json[write++] = readEscape();
+                } else if ((b & 0xFF) < 0x20) {
+                    throw failure();
+                } else {
+                    json[write++] = b;
+                }
+            }
+            throw failure();
+        }
+
+        /**
+         * Read string value and decode it from Base64.
+         * @return Decoded bytes.
+         * @throws WrapperException In case that value is not valid Base64 string.
+         */
+        @NonNull
+        byte[] readBase64() throws WrapperException {
+            final int start = position();
+            final int end = readString();
+            final AsciiSequence value = new AsciiSequence(json, start, end);
+            final byte[] result = new byte[DataCodec.decodedLength(DataFormat.BASE64, value)];
+            DataCodec.decode(DataFormat.BASE64, value, result, 0);
+            return result;
+        }
+
+        /**
+         * Read string value that contains only ASCII characters.
+         * @return String value.
+         * @throws WrapperException In case that value is not valid ASCII string.
+         */
+        @NonNull
+        String readAscii() throws WrapperException {
+            final int start = position();
+            final int end = readString();
+            for (int i = start; i < end; i++) {
+                if (json[i] < 0) {
+                    throw failure();
+                }
+            }
+            return new String(json, start, end - start, StandardCharsets.US_ASCII);
+        }
+
+        /**
+         * Skip any value.
+         * @param depth Current nesting level.
+         * @throws WrapperException In case that value is not valid, or nesting is too deep.
+         */
+        void skipValue(int depth) throws WrapperException {
+            if (depth > MAX_DEPTH) {
+                throw failure();
+            }
+            skipWhitespace();
+            if (position >= json.length) {
+                throw failure();
+            }
+            final byte b = json[position];
+            if (b == '"') {
+                readString();
+            } else if (b == '{') {
+                position++;
+                if (!consume('}')) {
+                    do {
+                        readString();
+                        expect(':');
+                        skipValue(depth + 1);
+                    } while (consume(','));
+                    expect('}');
+                }
+            } else if (b == '[') {
+                position++;
+                if (!consume(']')) {
+                    do {
+                        skipValue(depth + 1);
+                    } while (consume(','));
+                    expect(']');
+                }
+            } else {
+                // Number, true, false or null.
+                final int start = position;
+                while (position < json.length && isLiteralCharacter(json[position])) {
+                    position++;
+                }
+                if (start == position) {
+                    throw failure();
+                }
+            }
+        }
+
+        /**
+         * Compare unescaped string with the expected ASCII name.
+         * @param start Start of the string.
+         * @param end End of the string.
+         * @param name Expected name.
+         * @return true if string is equal to the name.
+         */
+        boolean equals(int start, int end, @NonNull byte[] name) {
+            return end - start == name.length && Arrays.equals(Arrays.copyOfRange(json, start, end), name);
+        }
+
+        private byte readEscape() throws WrapperException {
+            if (position >= json.length) {
+                throw failure();
+            }
+            final byte b = json[position++];
+            switch (b) {
+                case '"': case '\\': case '/': return b;
+                case 'b': return '\b';
+                case 'f': return '\f';
+                case 'n': return '\n';
+                case 'r': return '\r';
+                case 't': return '\t';
+                case 'u': {
+                    if (position + 4 > json.length) {
+                        throw failure();
+                    }
+                    int value = 0;
+                    for (int i = 0; i < 4; i++) {
+                        final int digit = Character.digit(json[position++], 16);
+                        if (digit < 0) {
+                            throw failure();
+                        }
+                        value = (value << 4) | digit;
+                    }
+                    // Only ASCII characters are expected in the envelope. Other characters are
+                    // replaced with a byte that is not valid in any name or Base64 value.
+                    return value < 0x80 ? (byte) value : (byte) 0xFF;
+                }
+                default:
+                    throw failure();
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length) {
+                final byte b = json[position];
+                if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                    break;
+                }
+                position++;
+            }
+        }
+
+        private static boolean isLiteralCharacter(byte b) {
+            return (b >= '0' && b <= '9') || (b >= 'a' && b <= 'z') || b == '-' || b == '+' || b == '.' || b == 'E';
+        }
+
+        @NonNull
+        private static WrapperException failure() {
+            return new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid cryptogram document");
+        }
+    }
+
+    /**
+     * Read-only view on ASCII bytes, so they can be decoded without creating a string.
+     */
+    private static class AsciiSequence implements CharSequence {
+
+        private final @NonNull byte[] bytes;
+        private final int start;
+        private final int end;
+
+        AsciiSequence(@NonNull byte[] bytes, int start, int end) {
+            this.bytes = bytes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public int length() {
+            return end - start;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[start + index] & 0xFF);
+        }
+
+        @NonNull
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            return new AsciiSequence(bytes, start + from, start + to);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return new String(bytes, start, end - start, StandardCharsets.US_ASCII);
+        }
+    }
+}
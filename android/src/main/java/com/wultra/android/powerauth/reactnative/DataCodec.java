@@ -0,0 +1,507 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The {@code DataCodec} class implements conversions between bytes and strings for all data
+ * formats that represent bytes as a string. Unlike the system codecs, it can decode into
+ * caller-provided buffers and it computes the exact output size before the conversion, so the
+ * result is never copied into a smaller array. Strings are encoded through a per-thread pooled
+ * buffer that is cleared after each use. For large data, {@link Base64Encoder} allows to encode
+ * data in chunks.
+ * <p>
+ * The BASE64 decoder accepts the same input as {@code android.util.Base64} with the default flags,
+ * which was used to decode BASE64 strings before, so the padding is optional, unused trailing bits
+ * are ignored and characters outside of the alphabet are skipped. The decoders for other formats
+ * accept only canonical input. HEX accepts only ASCII hexadecimal digits. BASE64URL may be padded,
+ * but the padding must be complete and the unused trailing bits must be zero, so each byte sequence
+ * has exactly one accepted encoding. Whitespace is ignored.
+ */
+final class DataCodec {
+
+    private DataCodec() {
+    }
+
+    /**
+     * Maximum size of buffer kept in the per-thread pool.
+     */
+    private static final int POOLED_BUFFER_MAX_SIZE = 64 * 1024;
+
+    private static final byte[] BASE64_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] BASE64URL_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX_ALPHABET = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte INVALID = -1;
+    private static final byte SKIP = -2;
+
+    private static final byte[] BASE64_VALUES = createBase64Values(BASE64_ALPHABET);
+    private static final byte[] BASE64URL_VALUES = createBase64Values(BASE64URL_ALPHABET);
+    private static final byte[] HEX_VALUES = createHexValues();
+
+    private static final ThreadLocal<byte[]> pooledBuffer = new ThreadLocal<>();
+
+    // Public interface
+
+    /**
+     * Encode bytes into string.
+     * @param format Data format. Only UTF8, BASE64, BASE64URL and HEX formats are supported.
+     * @param data Bytes to encode.
+     * @param offset Offset to the first byte to encode.
+     * @param length Number of bytes to encode.
+     * @return Encoded string.
+     * @throws WrapperException In case that format is not supported.
+     */
+    @NonNull
+    static String encode(@NonNull DataFormat format, @NonNull byte[] data, int offset, int length) throws WrapperException {
+        if (format == DataFormat.UTF8) {
+            return new String(data, offset, length, StandardCharsets.UTF_8);
+        }
+        final int encodedLength = encodedLength(format, length);
+        final byte[] buffer = obtainBuffer(encodedLength);
+        try {
+            encode(format, data, offset, length, buffer, 0);
+            return new String(buffer, 0, encodedLength, StandardCharsets.US_ASCII);
+        } finally {
+            Arrays.fill(buffer, 0, encodedLength, (byte) 0);
+        }
+    }
+
+    /**
+     * Encode bytes into ASCII characters stored in caller-provided buffer. The function doesn't
+     * support UTF8 format.
+     * @param format Data format. Only BASE64, BASE64URL and HEX formats are supported.
+     * @param data Bytes to encode.
+     * @param offset Offset to the first byte to encode.
+     * @param length Number of bytes to encode.
+     * @param out Output buffer. Use {@link #encodedLength(DataFormat, int)} to determine required size.
+     * @param outOffset Offset in the output buffer.
+     * @return Number of bytes written to the output buffer.
+     * @throws WrapperException In case that format is not supported.
+     */
+    static int encode(@NonNull DataFormat format, @NonNull byte[] data, int offset, int length, @NonNull byte[] out, int outOffset) throws WrapperException {
+        switch (format) {
+            case BASE64:
+                return encodeBase64(data, offset, length, out, outOffset, BASE64_ALPHABET, true);
+            case BASE64URL:
+                return encodeBase64(data, offset, length, out, outOffset, BASE64URL_ALPHABET, false);
+            case HEX:
+                return encodeHex(data, offset, length, out, outOffset);
+            default:
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Data format is not supported by codec");
+        }
+    }
+
+    /**
+     * Calculate length of encoded data. The function doesn't support UTF8 format.
+     * @param format Data format. Only BASE64, BASE64URL and HEX formats are supported.
+     * @param length Number of bytes to encode.
+     * @return Number of characters produced by the encoder.
+     * @throws WrapperException In case that format is not supported.
+     */
+    static int encodedLength(@NonNull DataFormat format, int length) throws WrapperException {
+        switch (format) {
+            case BASE64:
+                return ((length + 2) / 3) * 4;
+            case BASE64URL:
+                return (length / 3) * 4 + (length % 3 == 0 ? 0 : length % 3 + 1);
+            case HEX:
+                return length * 2;
+            default:
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Data format is not supported by codec");
+        }
+    }
+
+    /**
+     * Decode string into a new array of bytes with exact size.
+     * @param format Data format. Only UTF8, BASE64, BASE64URL and HEX formats are supported.
+     * @param value String to decode.
+     * @return Decoded bytes.
+     * @throws WrapperException In case that format is not supported or the string is not valid.
+     */
+    @NonNull
+    static byte[] decode(@NonNull DataFormat format, @NonNull CharSequence value) throws WrapperException {
+        final byte[] result = new byte[decodedLength(format, value)];
+        decode(format, value, result, 0);
+        return result;
+    }
+
+    /**
+     * Decode string into caller-provided buffer.
+     * @param format Data format. Only UTF8, BASE64, BASE64URL and HEX formats are supported.
+     * @param value String to decode.
+     * @param out Output buffer. Use {@link #decodedLength(DataFormat, CharSequence)} to determine required size.
+     * @param outOffset Offset in the output buffer.
+     * @return Number of bytes written to the output buffer.
+     * @throws WrapperException In case that format is not supported or the string is not valid.
+     */
+    static int decode(@NonNull DataFormat format, @NonNull CharSequence value, @NonNull byte[] out, int outOffset) throws WrapperException {
+        switch (format) {
+            case UTF8:
+                return encodeUtf8(value, out, outOffset);
+            case BASE64:
+                return decodeBase64(value, out, outOffset, BASE64_VALUES, true);
+            case BASE64URL:
+                return decodeBase64(value, out, outOffset, BASE64URL_VALUES, false);
+            case HEX:
+                return decodeHex(value, out, outOffset);
+            default:
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Data format is not supported by codec");
+        }
+    }
+
+    /**
+     * Calculate exact length of decoded string.
+     * @param format Data format. Only UTF8, BASE64, BASE64URL and HEX formats are supported.
+     * @param value String to decode.
+     * @return Number of decoded bytes.
+     * @throws WrapperException In case that format is not supported or the string is not valid.
+     */
+    static int decodedLength(@NonNull DataFormat format, @NonNull CharSequence value) throws WrapperException {
+        switch (format) {
+            case UTF8:
+                return utf8Length(value);
+            case BASE64:
+                return base64DecodedLength(value, BASE64_VALUES, true);
+            case BASE64URL:
+                return base64DecodedLength(value, BASE64URL_VALUES, false);
+            case HEX:
+                if ((value.length() & 1) != 0) {
+                    throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Failed to decode HEX encoded data.");
+                }
+                return value.length() / 2;
+            default:
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Data format is not supported by codec");
+        }
+    }
+
+    // Streaming
+
+    /**
+     * The {@code Base64Encoder} class allows to encode large data into Base64 in chunks. The
+     * encoder keeps up to two bytes between calls, so the chunks may have an arbitrary size.
+     */
+    static final class Base64Encoder {
+
+        private final byte[] alphabet;
+        private final boolean padding;
+        private final byte[] carry = new byte[3];
+        private int carryLength;
+
+        /**
+         * Construct encoder for given format.
+         * @param format Data format. Only BASE64 and BASE64URL formats are supported.
+         * @throws WrapperException In case that format is not supported.
+         */
+        Base64Encoder(@NonNull DataFormat format) throws WrapperException {
+            if (format == DataFormat.BASE64) {
+                alphabet = BASE64_ALPHABET;
+                padding = true;
+            } else if (format == DataFormat.BASE64URL) {
+                alphabet = BASE64URL_ALPHABET;
+                padding = false;
+            } else {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Data format is not supported by streaming encoder");
+            }
+        }
+
+        /**
+         * Calculate maximum number of characters produced by one {@link #update(byte[], int, int, byte[], int)}
+         * or {@link #finish(byte[], int)} call.
+         * @param length Number of bytes provided to the encoder.
+         * @return Maximum number of produced characters.
+         */
+        static int maxOutputLength(int length) {
+            return ((length + 2) / 3 + 1) * 4;
+        }
+
+        /**
+         * Encode next chunk of data.
+         * @param data Bytes to encode.
+         * @param offset Offset to the first byte to encode.
+         * @param length Number of bytes to encode.
+         * @param out Output buffer. Use {@link #maxOutputLength(int)} to determine required size.
+         * @param outOffset Offset in the output buffer.
+         * @return Number of bytes written to the output buffer.
+         */
+        int update(@NonNull byte[] data, int offset, int length, @NonNull byte[] out, int outOffset) {
+            int written = 0;
+            if (carryLength > 0) {
+                while (carryLength < 3 && length > 0) {
+                    carry[carryLength++] = data[offset++];
+                    length--;
+                }
+                if (carryLength < 3) {
+                    return 0;
+                }
+                written = encodeBase64(carry, 0, 3, out, outOffset, alphabet, padding);
+                carryLength = 0;
+            }
+            final int full = (length / 3) * 3;
+            written += encodeBase64(data, offset, full, out, outOffset + written, alphabet, padding);
+            for (int i = full; i < length; i++) {
+                carry[carryLength++] = data[offset + i];
+            }
+            return written;
+        }
+
+        /**
+         * Encode remaining bytes and finish the encoding.
+         * @param out Output buffer.
+         * @param outOffset Offset in the output buffer.
+         * @return Number of bytes written to the output buffer.
+         */
+        int finish(@NonNull byte[] out, int outOffset) {
+            final int written = encodeBase64(carry, 0, carryLength, out, outOffset, alphabet, padding);
+            Arrays.fill(carry, (byte) 0);
+            carryLength = 0;
+            return written;
+        }
+    }
+
+    // Private implementation
+
+    /**
+     * Get buffer from the per-thread pool, or allocate a new one if pooled buffer is too small.
+     * The caller must clear the used part of the buffer once it's no longer needed.
+     * @param size Required size.
+     * @return Buffer with at least required size.
+     */
+    @NonNull
+    private static byte[] obtainBuffer(int size) {
+        byte[] buffer = pooledBuffer.get();
+        if (buffer != null && buffer.length >= size) {
+            return buffer;
+        }
+        buffer = new byte[size];
+        if (size <= POOLED_BUFFER_MAX_SIZE) {
+            pooledBuffer.set(buffer);
+        }
+        return buffer;
+    }
+
+    private static byte[] createBase64Values(@NonNull byte[] alphabet) {
+        final byte[] values = new byte[128];
+        Arrays.fill(values, INVALID);
+        for (int i = 0; i < alphabet.length; i++) {
+            values[alphabet[i]] = (byte) i;
+        }
+        values[' '] = SKIP;
+        values['\t'] = SKIP;
+        values['\r'] = SKIP;
+        values['\n'] = SKIP;
+        return values;
+    }
+
+    private static byte[] createHexValues() {
+        final byte[] values = new byte[128];
+        Arrays.fill(values, INVALID);
+        for (int i = 0; i < 10; i++) {
+            values['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            values['a' + i] = (byte) (10 + i);
+            values['A' + i] = (byte) (10 + i);
+        }
+        return values;
+    }
+
+    private static int encodeBase64(byte[] data, int offset, int length, byte[] out, int outOffset, byte[] alphabet, boolean padding) {
+        int o = outOffset;
+        int i = offset;
+        final int full = offset + (length / 3) * 3;
+        while (i < full) {
+            final int v = ((data[i] & 0xFF) << 16) | ((data[i + 1] & 0xFF) << 8) | (data[i + 2] & 0xFF);
+            out[o++] = alphabet[v >>> 18];
+            out[o++] = alphabet[(v >>> 12) & 0x3F];
+            out[o++] = alphabet[(v >>> 6) & 0x3F];
+            out[o++] = alphabet[v & 0x3F];
+            i += 3;
+        }
+        final int remaining = offset + length - i;
+        if (remaining == 1) {
+            final int v = (data[i] & 0xFF) << 16;
+            out[o++] = alphabet[v >>> 18];
+            out[o++] = alphabet[(v >>> 12) & 0x3F];
+            if (padding) {
+                out[o++] = '=';
+                out[o++] = '=';
+            }
+        } else if (remaining == 2) {
+            final int v = ((data[i] & 0xFF) << 16) | ((data[i + 1] & 0xFF) << 8);
+            out[o++] = alphabet[v >>> 18];
+            out[o++] = alphabet[(v >>> 12) & 0x3F];
+            out[o++] = alphabet[(v >>> 6) & 0x3F];
+            if (padding) {
+                out[o++] = '=';
+            }
+        }
+        return o - outOffset;
+    }
+
+    private static int base64DecodedLength(CharSequence value, byte[] values, boolean lenient) throws WrapperException {
+        int count = 0;
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c == '=') {
+                break;
+            }
+            final byte v = c < 128 ? values[c] : INVALID;
+            if (v == SKIP || (v == INVALID && lenient)) {
+                continue;
+            }
+            count++;
+        }
+        if ((count & 3) == 1) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Failed to decode Base64 encoded data.");
+        }
+        return (count / 4) * 3 + ((count & 3) == 0 ? 0 : (count & 3) - 1);
+    }
+
+    private static int decodeBase64(CharSequence value, byte[] out, int outOffset, byte[] values, boolean lenient) throws WrapperException {
+        int o = outOffset;
+        int accumulator = 0;
+        int count = 0;
+        int paddingCount = 0;
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c == '=') {
+                paddingCount++;
+                continue;
+            }
+            final byte v = c < 128 ? values[c] : INVALID;
+            if (v == SKIP || (v == INVALID && lenient)) {
+                continue;
+            }
+            if (v == INVALID || paddingCount > 0) {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Failed to decode Base64 encoded data.");
+            }
+            accumulator = (accumulator << 6) | v;
+            if (++count == 4) {
+                out[o++] = (byte) (accumulator >> 16);
+                out[o++] = (byte) (accumulator >> 8);
+                out[o++] = (byte) accumulator;
+                accumulator = 0;
+                count = 0;
+            }
+        }
+        // The padding is optional, but if present, then it must complete the last group. In strict
+        // mode, the unused bits must be zero.
+        final int expectedPadding = count == 0 ? 0 : 4 - count;
+        final boolean validPadding = paddingCount == expectedPadding || paddingCount == 0;
+        final boolean validBits = lenient
+                || (count == 2 && (accumulator & 0x0F) == 0)
+                || (count == 3 && (accumulator & 0x03) == 0)
+                || count == 0;
+        if (count == 1 || !validPadding || !validBits) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Failed to decode Base64 encoded data.");
+        }
+        if (count == 2) {
+            out[o++] = (byte) (accumulator >> 4);
+        } else if (count == 3) {
+            out[o++] = (byte) (accumulator >> 10);
+            out[o++] = (byte) (accumulator >> 2);
+        }
+        return o - outOffset;
+    }
+
+    private static int encodeHex(byte[] data, int offset, int length, byte[] out, int outOffset) {
+        int o = outOffset;
+        for (int i = offset; i < offset + length; i++) {
+            final int v = data[i] & 0xFF;
+            out[o++] = HEX_ALPHABET[v >>> 4];
+            out[o++] = HEX_ALPHABET[v & 0x0F];
+        }
+        return o - outOffset;
+    }
+
+    private static int decodeHex(CharSequence value, byte[] out, int outOffset) throws WrapperException {
+        final int length = value.length();
+        if ((length & 1) != 0) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Failed to decode HEX encoded data.");
+        }
+        int o = outOffset;
+        for (int i = 0; i < length; i += 2) {
+            final int hi = hexValue(value.charAt(i));
+            final int lo = hexValue(value.charAt(i + 1));
+            if (hi < 0 || lo < 0) {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Failed to decode HEX encoded data.");
+            }
+            out[o++] = (byte) ((hi << 4) | lo);
+        }
+        return o - outOffset;
+    }
+
+    private static int hexValue(char c) {
+        return c < 128 ? HEX_VALUES[c] : INVALID;
+    }
+
+    private static int utf8Length(CharSequence value) {
+        int result = 0;
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                result += 1;
+            } else if (c < 0x800) {
+                result += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                result += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // Malformed surrogate is replaced with '?', the same way as String.getBytes() does.
+                result += 1;
+            } else {
+                result += 3;
+            }
+        }
+        return result;
+    }
+
+    private static int encodeUtf8(CharSequence value, byte[] out, int outOffset) {
+        int o = outOffset;
+        final int length = value.length();
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < 0x80) {
+                out[o++] = (byte) c;
+            } else if (c < 0x800) {
+                out[o++] = (byte) (0xC0 | (c >> 6));
+                out[o++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                final int cp = Character.toCodePoint(c, value.charAt(++i));
+                out[o++] = (byte) (0xF0 | (cp >> 18));
+                out[o++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                out[o++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                out[o++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                out[o++] = '?';
+            } else {
+                out[o++] = (byte) (0xE0 | (c >> 12));
+                out[o++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                out[o++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return o - outOffset;
+    }
+}
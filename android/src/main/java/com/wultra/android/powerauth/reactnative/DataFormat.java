@@ -16,9 +16,8 @@
 
 package com.wultra.android.powerauth.reactnative;
 
-import android.util.Base64;
-
-import java.nio.charset.StandardCharsets;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 /**
  * Defines data format used for encode bytes into the string.
@@ -31,7 +30,24 @@ public enum DataFormat {
     /**
      * Application provides data in form of Base64 encoded string.
      */
-    BASE64;
+    BASE64,
+    /**
+     * Application provides data in form of Base64 encoded string with URL-safe alphabet and without padding.
+     */
+    BASE64URL,
+    /**
+     * Application provides data in form of hexadecimal string.
+     */
+    HEX,
+    /**
+     * Application provides identifier of native data object stored in the object register.
+     */
+    HANDLE,
+    /**
+     * Application provides data in form of JSON string. The decrypted data in this format is
+     * parsed natively and provided to the application as an object.
+     */
+    JSON;
 
     /**
      * Convert format string into this enumeration.
@@ -46,6 +62,14 @@ public enum DataFormat {
             return UTF8;
         } else if ("BASE64".equals(format)) {
             return BASE64;
+        } else if ("BASE64URL".equals(format)) {
+            return BASE64URL;
+        } else if ("HEX".equals(format)) {
+            return HEX;
+        } else if ("HANDLE".equals(format)) {
+            return HANDLE;
+        } else if ("JSON".equals(format)) {
+            return JSON;
         }
         throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid data format specified");
     }
@@ -57,24 +81,13 @@ public enum DataFormat {
      * @throws WrapperException In case of failure.
      */
     byte[] decodeBytes(String value) throws WrapperException {
-        final byte[] result;
-        if (value != null) {
-            if (this == UTF8) {
-                result = value.getBytes(StandardCharsets.UTF_8);
-                if (result == null) {
-                    throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Failed to convert string into UTF8 encoded data");
-                }
-            } else {
-                try {
-                    result = Base64.decode(value, Base64.NO_WRAP);
-                } catch (IllegalArgumentException e) {
-                    throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Failed to decode Base64 encoded data.", e);
-                }
-            }
-        } else {
-            result = new byte[0];
+        if (value == null) {
+            return new byte[0];
         }
-        return result;
+        if (this == HANDLE) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Native data handle is not supported");
+        }
+        return DataCodec.decode(this == JSON ? UTF8 : this, value);
     }
 
     /**
@@ -87,14 +100,60 @@ public enum DataFormat {
         if (value == null || value.length == 0) {
             return "";
         }
-        if (this == UTF8) {
-            try {
-                return new String(value, StandardCharsets.UTF_8);
-            } catch (Throwable t) {
-                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Failed to create string from UTF-8 encoded data", t);
+        if (this == HANDLE) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Native data handle is not supported");
+        }
+        return DataCodec.encode(this == JSON ? UTF8 : this, value, 0, value.length);
+    }
+
+    /**
+     * Decode bytes from application provided string with using this data format. If format is
+     * {@link #HANDLE}, then a copy of bytes of native data object is returned, so the data stays
+     * valid even if the native data object is released during the operation.
+     * @param value String with encoded bytes or identifier of native data object.
+     * @param register Object register.
+     * @return Decoded bytes.
+     * @throws WrapperException In case of failure.
+     */
+    byte[] decodeBytes(String value, @NonNull ObjectRegister register) throws WrapperException {
+        if (this == HANDLE) {
+            return NativeData.copyBytes(register, value);
+        }
+        return decodeBytes(value);
+    }
+
+    /**
+     * Encode bytes into this data format. If format is {@link #HANDLE}, then the bytes are
+     * registered as a new native data object that takes ownership of the array.
+     * @param value Bytes to encode.
+     * @param register Object register.
+     * @param tag Tag for the new native data object, typically PowerAuth instance identifier.
+     * @return Encoded bytes or identifier of native data object.
+     * @throws WrapperException In case of failure.
+     */
+    String encodeBytes(byte[] value, @NonNull ObjectRegister register, @Nullable String tag) throws WrapperException {
+        if (this == HANDLE) {
+            return NativeData.register(register, value != null ? value : new byte[0], tag);
+        }
+        return encodeBytes(value);
+    }
+
+    /**
+     * Encode bytes into value that can be passed to JavaScript. Unlike {@link #encodeBytes(byte[], ObjectRegister, String)},
+     * the {@link #JSON} format produces parsed object instead of string.
+     * @param value Bytes to encode.
+     * @param register Object register.
+     * @param tag Tag for the new native data object, typically PowerAuth instance identifier.
+     * @return Encoded bytes, identifier of native data object or parsed JSON.
+     * @throws WrapperException In case of failure.
+     */
+    Object encodeValue(byte[] value, @NonNull ObjectRegister register, @Nullable String tag) throws WrapperException {
+        if (this == JSON) {
+            if (value == null || value.length == 0) {
+                return null;
             }
-        } else {
-            return Base64.encodeToString(value, Base64.NO_WRAP);
+            return JsonConverter.parse(value);
         }
+        return encodeBytes(value, register, tag);
     }
 }
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import com.facebook.react.bridge.Promise;
+
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * The {@code EncryptedRequest} class executes HTTP request with already encrypted body and decrypts
+ * the response. The request is validated in {@link #prepare(String, String, Map)} before any
+ * key material is created, so an invalid URL, method or header can't leave the decryptor in memory.
+ * Once {@link #execute(OkHttpClient, String, String, String, Decryptor, ResultEncoder, Promise)}
+ * is called, the request owns the decryptor and destroys it in all cases.
+ */
+class EncryptedRequest {
+
+    private static final MediaType JSON_MEDIA_TYPE = MediaType.parse("application/json; charset=utf-8");
+
+    /**
+     * Decryptor of the response.
+     */
+    interface Decryptor {
+        /**
+         * Decrypt the response cryptogram.
+         * @param encryptedData Base64 encoded encrypted data.
+         * @param mac Base64 encoded MAC.
+         * @return Decrypted data or null in case of failure.
+         */
+        @Nullable
+        byte[] decryptResponse(@Nullable String encryptedData, @Nullable String mac);
+
+        /**
+         * Destroy the key material kept in the decryptor.
+         */
+        void destroy();
+    }
+
+    /**
+     * Encoder that converts decrypted response into value returned to JavaScript.
+     */
+    interface ResultEncoder {
+        /**
+         * Encode decrypted response.
+         * @param data Decrypted response data.
+         * @param headers Headers of HTTP response.
+         * @return Value to resolve the promise with.
+         * @throws Throwable In case of failure.
+         */
+        @Nullable
+        Object encode(@NonNull byte[] data, @NonNull Headers headers) throws Throwable;
+    }
+
+    private final @NonNull Request.Builder builder;
+    private final @NonNull String method;
+
+    private EncryptedRequest(@NonNull Request.Builder builder, @NonNull String method) {
+        this.builder = builder;
+        this.method = method;
+    }
+
+    /**
+     * Validate URL, method and headers of the request.
+     * @param url Request URL.
+     * @param method HTTP method or null for POST.
+     * @param headers Additional request headers or null.
+     * @return Prepared request.
+     * @throws WrapperException In case that URL, method or header is invalid.
+     */
+    @NonNull
+    static EncryptedRequest prepare(@Nullable String url, @Nullable String method, @Nullable Map<String, String> headers) throws WrapperException {
+        if (url == null) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "url parameter is missing");
+        }
+        final String requestMethod = method != null ? method : "POST";
+        final Request.Builder builder = new Request.Builder();
+        try {
+            builder.url(url);
+        } catch (IllegalArgumentException e) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid url parameter", e);
+        }
+        try {
+            // The body is always present, so this also rejects methods that can't have a body.
+            builder.method(requestMethod, RequestBody.create(JSON_MEDIA_TYPE, ""));
+        } catch (IllegalArgumentException e) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid method parameter", e);
+        }
+        if (headers != null) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                try {
+                    builder.header(header.getKey(), header.getValue());
+                } catch (IllegalArgumentException | NullPointerException e) {
+                    throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid header in request", e);
+                }
+            }
+        }
+        return new EncryptedRequest(builder, requestMethod);
+    }
+
+    /**
+     * Execute the request and resolve the promise with decrypted response. The decryptor is
+     * destroyed once the request is finished or failed.
+     * @param client HTTP client.
+     * @param body JSON with encrypted request.
+     * @param headerKey Name of encryption header.
+     * @param headerValue Value of encryption header.
+     * @param decryptor Decryptor of the response.
+     * @param encoder Encoder of the decrypted response.
+     * @param promise Promise to resolve or reject.
+     */
+    void execute(@NonNull OkHttpClient client, @NonNull String body, @NonNull String headerKey, @NonNull String headerValue, @NonNull Decryptor decryptor, @NonNull ResultEncoder encoder, @NonNull Promise promise) {
+        final Request request;
+        try {
+            request = builder
+                    .method(method, RequestBody.create(JSON_MEDIA_TYPE, body))
+                    .header(headerKey, headerValue)
+                    .build();
+        } catch (Throwable t) {
+            decryptor.destroy();
+            Errors.rejectPromise(promise, t);
+            return;
+        }
+        client.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                decryptor.destroy();
+                Errors.rejectPromise(promise, e);
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                try {
+                    final ResponseBody responseBody = response.body();
+                    final String responseString = responseBody != null ? responseBody.string() : "";
+                    if (!response.isSuccessful()) {
+                        Errors.rejectPromiseWithResponseError(promise, response.code(), responseString);
+                        return;
+                    }
+                    final JSONObject responseJson = new JSONObject(responseString);
+                    final byte[] decryptedData = decryptor.decryptResponse(
+                            responseJson.optString("encryptedData", null),
+                            responseJson.optString("mac", null));
+                    if (decryptedData == null) {
+                        throw new WrapperException(Errors.EC_ENCRYPTION_ERROR, "Failed to decrypt response");
+                    }
+                    promise.resolve(encoder.encode(decryptedData, response.headers()));
+                } catch (Throwable t) {
+                    Errors.rejectPromise(promise, t);
+                } finally {
+                    response.close();
+                    decryptor.destroy();
+                }
+            }
+        });
+    }
+}
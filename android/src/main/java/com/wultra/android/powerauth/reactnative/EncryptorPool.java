@@ -0,0 +1,235 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import android.os.SystemClock;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.getlime.security.powerauth.core.EciesEncryptor;
+
+/**
+ * The {@code EncryptorPool} class keeps ECIES encryptors reusable per PowerAuth instance and
+ * scope. The encryptor is created once and then lent to all callers, so the keychain is not
+ * accessed for each new JavaScript encryptor. It's safe to share the encryptor, because the
+ * request encryption is synchronized in the core.
+ * <p>
+ * All encryptors for the instance must be retired when the activation changes or when the
+ * instance is deconfigured. The retired encryptor is destroyed once the last lease is released.
+ * The encryptor that is not lent for {@link Constants#ENCRYPTOR_KEY_KEEP_ALIVE_TIME} is evicted
+ * from the pool and destroyed, so the key material doesn't stay in memory longer than without
+ * the pool.
+ */
+class EncryptorPool {
+
+    /**
+     * Interface that creates a new encryptor when there's no such encryptor in the pool.
+     */
+    interface Factory {
+        /**
+         * Create a new encryptor.
+         * @return New encryptor instance.
+         * @throws Throwable In case of failure.
+         */
+        @NonNull
+        EciesEncryptor createEncryptor() throws Throwable;
+    }
+
+    /**
+     * Encryptor lent from the pool.
+     */
+    static class Lease {
+        final @NonNull EciesEncryptor encryptor;
+        private final @NonNull EncryptorPool pool;
+        private final @NonNull Entry entry;
+        private boolean released;
+
+        private Lease(@NonNull EncryptorPool pool, @NonNull Entry entry) {
+            this.encryptor = entry.encryptor;
+            this.pool = pool;
+            this.entry = entry;
+        }
+
+        /**
+         * Give the encryptor back to the pool. It's safe to call this method multiple times.
+         */
+        void release() {
+            synchronized (pool) {
+                if (!released) {
+                    released = true;
+                    pool.giveBack(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Encryptor stored in the pool with its reference counter.
+     */
+    private static class Entry {
+        final @NonNull String instanceId;
+        final @NonNull EciesEncryptor encryptor;
+        int refCount;
+        boolean retired;
+        long idleSince;
+
+        Entry(@NonNull String instanceId, @NonNull EciesEncryptor encryptor) {
+            this.instanceId = instanceId;
+            this.encryptor = encryptor;
+        }
+    }
+
+    private final HashMap<String, Entry> entries = new HashMap<>();
+    private @Nullable Timer evictionTimer;
+    private boolean evictionScheduled;
+    private int retireCounter;
+
+    /**
+     * Borrow encryptor for given instance and scope. If there's no such encryptor in the pool,
+     * then the new one is created with the provided factory. The factory is called outside of
+     * the pool's lock, because the creation requires access to the keychain.
+     * @param instanceId PowerAuth instance identifier.
+     * @param activationScope If true, then encryptor for activation scope is requested.
+     * @param factory Factory that creates a new encryptor.
+     * @return Lease with encryptor. The lease must be released once the encryptor is no longer used.
+     * @throws Throwable In case that factory failed to create the encryptor.
+     */
+    @NonNull
+    Lease acquire(@NonNull String instanceId, boolean activationScope, @NonNull Factory factory) throws Throwable {
+        final String key = instanceId + (activationScope ? ":ACTIVATION" : ":APPLICATION");
+        final int counter;
+        synchronized (this) {
+            final Entry entry = entries.get(key);
+            if (entry != null) {
+                entry.refCount++;
+                return new Lease(this, entry);
+            }
+            counter = retireCounter;
+        }
+        final EciesEncryptor encryptor = factory.createEncryptor();
+        final Entry newEntry = new Entry(instanceId, encryptor);
+        synchronized (this) {
+            final Entry entry = entries.get(key);
+            if (entry != null) {
+                // Other thread created the same encryptor in the meantime.
+                entry.refCount++;
+                encryptor.destroy();
+                return new Lease(this, entry);
+            }
+            if (counter == retireCounter) {
+                entries.put(key, newEntry);
+            } else {
+                // Some instance was retired during the creation, so the encryptor may be created
+                // for the previous activation. Don't share it, and destroy it after the use.
+                newEntry.retired = true;
+            }
+            newEntry.refCount++;
+            return new Lease(this, newEntry);
+        }
+    }
+
+    /**
+     * Retire all encryptors created for given instance. Encryptors that are not lent are destroyed
+     * immediately, others once their last lease is released.
+     * @param instanceId PowerAuth instance identifier.
+     */
+    synchronized void retire(@NonNull String instanceId) {
+        retireCounter++;
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (instanceId.equals(entry.instanceId)) {
+                iterator.remove();
+                entry.retired = true;
+                if (entry.refCount == 0) {
+                    entry.encryptor.destroy();
+                }
+            }
+        }
+    }
+
+    /**
+     * Decrease reference counter of the entry and destroy the encryptor if the entry is retired
+     * and no longer used.
+     * @param entry Entry to give back.
+     */
+    private void giveBack(@NonNull Entry entry) {
+        entry.refCount--;
+        if (entry.refCount == 0) {
+            if (entry.retired) {
+                entry.encryptor.destroy();
+            } else {
+                entry.idleSince = SystemClock.elapsedRealtime();
+                if (!evictionScheduled) {
+                    scheduleEviction(Constants.ENCRYPTOR_KEY_KEEP_ALIVE_TIME);
+                }
+            }
+        }
+    }
+
+    /**
+     * Schedule eviction of idle encryptors. Only one eviction is pending at a time. The method
+     * must be called while holding the pool's lock.
+     * @param delay Delay in milliseconds.
+     */
+    private void scheduleEviction(long delay) {
+        if (evictionTimer == null) {
+            evictionTimer = new Timer("PowerAuthEncryptorPool", true);
+        }
+        evictionTimer.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                evictIdle();
+            }
+        }, delay);
+        evictionScheduled = true;
+    }
+
+    /**
+     * Destroy encryptors that are not lent for longer than the keep alive time. If there are
+     * other idle encryptors, then the next eviction is scheduled when the oldest one expires.
+     * The timer is stopped once there's no idle encryptor in the pool.
+     */
+    private synchronized void evictIdle() {
+        evictionScheduled = false;
+        final long now = SystemClock.elapsedRealtime();
+        long oldestIdleSince = Long.MAX_VALUE;
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            final Entry entry = iterator.next();
+            if (entry.refCount == 0) {
+                if (now - entry.idleSince >= Constants.ENCRYPTOR_KEY_KEEP_ALIVE_TIME) {
+                    iterator.remove();
+                    entry.encryptor.destroy();
+                } else {
+                    oldestIdleSince = Math.min(oldestIdleSince, entry.idleSince);
+                }
+            }
+        }
+        if (oldestIdleSince != Long.MAX_VALUE) {
+            scheduleEviction(oldestIdleSince + Constants.ENCRYPTOR_KEY_KEEP_ALIVE_TIME - now);
+        } else if (evictionTimer != null) {
+            evictionTimer.cancel();
+            evictionTimer = null;
+        }
+    }
+}
@@ -106,6 +106,25 @@ class Errors {
         }
     }
 
+    /**
+     * Reject promise with an error representing a failed HTTP response. The error code and the user
+     * info is the same as if {@code FailedApiException} is reported from the native SDK.
+     *
+     * @param promise Promise to reject.
+     * @param httpStatusCode HTTP status code.
+     * @param responseBody Response body.
+     */
+    static void rejectPromiseWithResponseError(Promise promise, int httpStatusCode, String responseBody) {
+        final WritableMap userInfo = Arguments.createMap();
+        userInfo.putInt("httpStatusCode", httpStatusCode);
+        userInfo.putString("responseBody", responseBody);
+        if (httpStatusCode == 401) {
+            promise.reject(EC_AUTHENTICATION_ERROR, "Unauthorized", userInfo);
+        } else {
+            promise.reject(EC_RESPONSE_ERROR, "HTTP request failed with status code " + httpStatusCode, userInfo);
+        }
+    }
+
     /**
      * Reject promise with given error. The provided error is automatically translated to
      * a proper error code returned to RN, depending on the type of exception.
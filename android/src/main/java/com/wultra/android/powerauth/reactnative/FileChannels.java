@@ -0,0 +1,260 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.ParcelFileDescriptor;
+import android.provider.DocumentsContract;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The {@code FileChannels} class contains helper functions that open file channels for file
+ * URIs provided by the application. Both {@code file://} and {@code content://} URIs are supported.
+ * If URI has no scheme, then it's treated as a path to the file.
+ */
+class FileChannels {
+
+    /**
+     * Writer of the file content.
+     */
+    interface Writer {
+        /**
+         * Write content to the channel.
+         * @param channel Channel to write.
+         * @throws IOException In case of write failure.
+         * @throws WrapperException In case of other failure.
+         */
+        void write(@NonNull FileChannel channel) throws IOException, WrapperException;
+    }
+
+    /**
+     * Open file channel for reading.
+     * @param context Android context.
+     * @param uriString File URI or path.
+     * @return File channel open for reading.
+     * @throws IOException In case that file cannot be opened.
+     * @throws WrapperException In case that URI is not supported.
+     */
+    @NonNull
+    static FileChannel openForReading(@NonNull Context context, @Nullable String uriString) throws IOException, WrapperException {
+        final Uri uri = parseUri(uriString);
+        if ("content".equals(uri.getScheme())) {
+            final ParcelFileDescriptor pfd = context.getContentResolver().openFileDescriptor(uri, "r");
+            if (pfd == null) {
+                throw new IOException("Failed to open content URI");
+            }
+            return new ParcelFileDescriptor.AutoCloseInputStream(pfd).getChannel();
+        }
+        return new FileInputStream(getPath(uri)).getChannel();
+    }
+
+    /**
+     * Open file channel for writing and write the content with the writer. If file already exists,
+     * then its content is replaced. If the writer fails, then the partially written file is deleted.
+     * @param context Android context.
+     * @param uriString File URI or path.
+     * @param writer Writer of the content.
+     * @throws IOException In case that file cannot be opened or written.
+     * @throws WrapperException In case that URI is not supported or writer failed.
+     */
+    static void writeFile(@NonNull Context context, @Nullable String uriString, @NonNull Writer writer) throws IOException, WrapperException {
+        final Uri uri = parseUri(uriString);
+        boolean opened = false;
+        try (FileChannel channel = openForWriting(context, uri)) {
+            opened = true;
+            writer.write(channel);
+        } catch (IOException | WrapperException | RuntimeException e) {
+            if (opened) {
+                deleteQuietly(context, uri);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Open file channel for writing. If file already exists, then its content is truncated.
+     * @param context Android context.
+     * @param uri Parsed file URI.
+     * @return File channel open for writing.
+     * @throws IOException In case that file cannot be opened.
+     * @throws WrapperException In case that URI doesn't contain path.
+     */
+    @NonNull
+    private static FileChannel openForWriting(@NonNull Context context, @NonNull Uri uri) throws IOException, WrapperException {
+        if ("content".equals(uri.getScheme())) {
+            final ParcelFileDescriptor pfd = context.getContentResolver().openFileDescriptor(uri, "wt");
+            if (pfd == null) {
+                throw new IOException("Failed to open content URI");
+            }
+            return new ParcelFileDescriptor.AutoCloseOutputStream(pfd).getChannel();
+        }
+        return new FileOutputStream(getPath(uri)).getChannel();
+    }
+
+    /**
+     * Delete file, ignoring all failures.
+     * @param context Android context.
+     * @param uri Parsed file URI.
+     */
+    private static void deleteQuietly(@NonNull Context context, @NonNull Uri uri) {
+        try {
+            if ("content".equals(uri.getScheme())) {
+                if (DocumentsContract.isDocumentUri(context, uri)) {
+                    DocumentsContract.deleteDocument(context.getContentResolver(), uri);
+                } else {
+                    context.getContentResolver().delete(uri, null, null);
+                }
+            } else {
+                //noinspection ResultOfMethodCallIgnored
+                new File(getPath(uri)).delete();
+            }
+        } catch (Throwable t) {
+            // Nothing to do, the original failure is reported.
+        }
+    }
+
+    /**
+     * Read whole content of the channel until the end of stream. The size reported by the file
+     * channel is used only as a hint for the initial buffer, because the size of pipe or socket
+     * descriptors is zero and a regular file may grow while it's read. Intermediate buffers are
+     * zeroized once they're no longer used.
+     * @param channel Channel to read.
+     * @param maxSize Maximum allowed size of the content.
+     * @return Content of the channel.
+     * @throws IOException In case of read failure.
+     * @throws WrapperException In case that content is larger than {@code maxSize}.
+     */
+    @NonNull
+    static byte[] readFully(@NonNull ReadableByteChannel channel, int maxSize) throws IOException, WrapperException {
+        long sizeHint = 0;
+        if (channel instanceof FileChannel) {
+            try {
+                sizeHint = ((FileChannel) channel).size();
+            } catch (IOException e) {
+                // Size is not available, the buffer will grow.
+            }
+        }
+        if (sizeHint > maxSize) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "File is too large");
+        }
+        byte[] buffer = new byte[sizeHint > 0 ? (int) sizeHint : Math.min(Constants.FILE_CHUNK_SIZE, maxSize)];
+        int length = 0;
+        try {
+            final ByteBuffer probe = ByteBuffer.allocate(1);
+            while (true) {
+                if (length == buffer.length) {
+                    // Buffer is full, so test whether there's more data before the buffer is extended.
+                    probe.clear();
+                    final int count = channel.read(probe);
+                    if (count < 0) {
+                        break;
+                    }
+                    if (count == 0) {
+                        continue;
+                    }
+                    if (length == maxSize) {
+                        throw new WrapperException(Errors.EC_WRONG_PARAMETER, "File is too large");
+                    }
+                    final byte[] newBuffer = new byte[(int) Math.min((long) Math.max(length, Constants.FILE_CHUNK_SIZE) * 2, maxSize)];
+                    System.arraycopy(buffer, 0, newBuffer, 0, length);
+                    Arrays.fill(buffer, (byte) 0);
+                    buffer = newBuffer;
+                    buffer[length++] = probe.get(0);
+                    probe.put(0, (byte) 0);
+                    continue;
+                }
+                final int count = channel.read(ByteBuffer.wrap(buffer, length, buffer.length - length));
+                if (count < 0) {
+                    break;
+                }
+                length += count;
+            }
+        } catch (IOException | WrapperException | RuntimeException e) {
+            Arrays.fill(buffer, (byte) 0);
+            throw e;
+        }
+        if (length == buffer.length) {
+            return buffer;
+        }
+        final byte[] result = Arrays.copyOf(buffer, length);
+        Arrays.fill(buffer, (byte) 0);
+        return result;
+    }
+
+    /**
+     * Write bytes to the channel in chunks with {@link Constants#FILE_CHUNK_SIZE} size.
+     * @param channel Channel to write.
+     * @param data Bytes to write.
+     * @throws IOException In case of write failure.
+     */
+    static void writeFully(@NonNull FileChannel channel, @NonNull byte[] data) throws IOException {
+        int offset = 0;
+        while (offset < data.length) {
+            final ByteBuffer chunk = ByteBuffer.wrap(data, offset, Math.min(Constants.FILE_CHUNK_SIZE, data.length - offset));
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+            offset = chunk.position();
+        }
+    }
+
+    /**
+     * Parse URI string.
+     * @param uriString URI string to parse.
+     * @return Parsed URI.
+     * @throws WrapperException In case that URI is missing or has unsupported scheme.
+     */
+    @NonNull
+    private static Uri parseUri(@Nullable String uriString) throws WrapperException {
+        if (uriString == null || uriString.isEmpty()) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "File URI is missing");
+        }
+        final Uri uri = Uri.parse(uriString);
+        final String scheme = uri.getScheme();
+        if (scheme != null && !"file".equals(scheme) && !"content".equals(scheme)) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Unsupported file URI scheme");
+        }
+        return uri;
+    }
+
+    /**
+     * Get path to file from URI.
+     * @param uri URI with file scheme, or with no scheme.
+     * @return Path to file.
+     * @throws WrapperException In case that URI doesn't contain path.
+     */
+    @NonNull
+    private static String getPath(@NonNull Uri uri) throws WrapperException {
+        final String path = uri.getPath();
+        if (path == null) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "File URI doesn't contain path");
+        }
+        return path;
+    }
+}
@@ -0,0 +1,455 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The {@code JsonConverter} class converts UTF-8 encoded JSON directly into objects that can be
+ * passed to JavaScript, so the application doesn't need to parse JSON string on the JS thread.
+ * The data is processed with a streaming parser, without creating an intermediate JSON string
+ * or {@code JSONObject}.
+ */
+class JsonConverter {
+
+    private static final byte[] DOCUMENT_PREFIX = { '[' };
+    private static final byte[] DOCUMENT_SUFFIX = { ']' };
+
+    /**
+     * Parse JSON into object that can be passed to JavaScript.
+     * @param json UTF-8 encoded JSON.
+     * @return {@code WritableMap}, {@code WritableArray}, {@code String}, {@code Double}, {@code Boolean} or null.
+     * @throws WrapperException In case that JSON is not valid.
+     */
+    @Nullable
+    static Object parse(@NonNull byte[] json) throws WrapperException {
+        try (JsonReader reader = createReader(json)) {
+            final Object value = readValue(reader);
+            finishReader(reader);
+            return value;
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new WrapperException(Errors.EC_RESPONSE_ERROR, "Failed to parse JSON data", e);
+        }
+    }
+
+    /**
+     * Parse JSON object and return only the selected fields. Each field is identified by a path,
+     * where nested object members are separated by dot, for example {@code "data.account.balance"}.
+     * If the member name contains dot or backslash, then such character is escaped with backslash,
+     * so the path {@code "rates.EUR\\.USD"} selects member {@code "EUR.USD"} of {@code "rates"}
+     * object. Values that are not selected are skipped by the parser and never materialized.
+     * <p>
+     * If both parent and child paths are selected, for example {@code "data"} and {@code "data.id"},
+     * then the result contains both values, each under its own path.
+     * @param json UTF-8 encoded JSON.
+     * @param paths Array with paths to fields to select.
+     * @return Map where keys are paths and values are the selected values. Paths that doesn't
+     *         exist in the JSON are not present in the map.
+     * @throws WrapperException In case that JSON is not valid or paths are invalid.
+     */
+    @NonNull
+    static WritableMap parseProjection(@NonNull byte[] json, @NonNull ReadableArray paths) throws WrapperException {
+        final PathNode root = new PathNode();
+        for (int i = 0; i < paths.size(); i++) {
+            final String path = paths.getType(i) == ReadableType.String ? paths.getString(i) : null;
+            if (path == null || path.isEmpty()) {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Projection path is missing or empty");
+            }
+            root.add(path);
+        }
+        final WritableMap result = Arguments.createMap();
+        try (JsonReader reader = createReader(json)) {
+            readProjection(reader, root, result);
+            finishReader(reader);
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new WrapperException(Errors.EC_RESPONSE_ERROR, "Failed to parse JSON data", e);
+        }
+        return result;
+    }
+
+    /**
+     * Node in the tree of projection paths.
+     */
+    private static class PathNode {
+        final HashMap<String, PathNode> children = new HashMap<>();
+        @Nullable String path;
+
+        /**
+         * Add path to the tree.
+         * @param fullPath Path to add.
+         * @throws WrapperException In case that path contains invalid escape sequence.
+         */
+        void add(@NonNull String fullPath) throws WrapperException {
+            PathNode node = this;
+            final StringBuilder name = new StringBuilder();
+            for (int i = 0; i <= fullPath.length(); i++) {
+                final char c = i < fullPath.length() ? fullPath.charAt(i) : '.';
+                if (c == '\\') {
+                    final char escaped = ++i < fullPath.length() ? fullPath.charAt(i) : 0;
+                    if (escaped != '.' && escaped != '\\') {
+                        throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid escape sequence in projection path");
+                    }
+                    name.append(escaped);
+                } else if (c == '.') {
+                    final String key = name.toString();
+                    PathNode child = node.children.get(key);
+                    if (child == null) {
+                        child = new PathNode();
+                        node.children.put(key, child);
+                    }
+                    node = child;
+                    name.setLength(0);
+                } else {
+                    name.append(c);
+                }
+            }
+            node.path = fullPath;
+        }
+    }
+
+    /**
+     * Read JSON value and put selected fields into the result.
+     * @param reader JSON reader.
+     * @param node Current node in the tree of projection paths.
+     * @param result Map with the result.
+     * @throws IOException In case of parser failure.
+     */
+    private static void readProjection(@NonNull JsonReader reader, @NonNull PathNode node, @NonNull WritableMap result) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final PathNode child = node.children.get(reader.nextName());
+            if (child == null) {
+                reader.skipValue();
+            } else if (child.path == null) {
+                readProjection(reader, child, result);
+            } else if (child.children.isEmpty()) {
+                putValue(reader, result, child.path);
+            } else {
+                // Both this value and some of its members are selected. The value is read into
+                // the plain Java objects, because the writable map can be put into the result only once.
+                projectValue(readPlainValue(reader), child, result);
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Put value and its selected members into the result.
+     * @param value Value created by {@link #readPlainValue(JsonReader)}.
+     * @param node Node in the tree of projection paths for the value.
+     * @param result Map with the result.
+     */
+    private static void projectValue(@Nullable Object value, @NonNull PathNode node, @NonNull WritableMap result) {
+        if (node.path != null) {
+            putPlainValue(result, node.path, value);
+        }
+        if (value instanceof Map) {
+            final Map<?, ?> object = (Map<?, ?>) value;
+            for (Map.Entry<String, PathNode> child : node.children.entrySet()) {
+                if (object.containsKey(child.getKey())) {
+                    projectValue(object.get(child.getKey()), child.getValue(), result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read any JSON value.
+     * @param reader JSON reader.
+     * @return {@code WritableMap}, {@code WritableArray}, {@code String}, {@code Double}, {@code Boolean} or null.
+     * @throws IOException In case of parser failure.
+     */
+    @Nullable
+    private static Object readValue(@NonNull JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                final WritableMap map = Arguments.createMap();
+                readObject(reader, map);
+                return map;
+            case BEGIN_ARRAY:
+                final WritableArray array = Arguments.createArray();
+                readArray(reader, array);
+                return array;
+            case STRING:
+                return reader.nextString();
+            case NUMBER:
+                return reader.nextDouble();
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NULL:
+                reader.nextNull();
+                return null;
+            default:
+                throw new IllegalStateException("Unexpected JSON token");
+        }
+    }
+
+    /**
+     * Read any JSON value into plain Java objects.
+     * @param reader JSON reader.
+     * @return {@code Map}, {@code List}, {@code String}, {@code Double}, {@code Boolean} or null.
+     * @throws IOException In case of parser failure.
+     */
+    @Nullable
+    private static Object readPlainValue(@NonNull JsonReader reader) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                final Map<String, Object> map = new LinkedHashMap<>();
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    final String name = reader.nextName();
+                    map.put(name, readPlainValue(reader));
+                }
+                reader.endObject();
+                return map;
+            case BEGIN_ARRAY:
+                final List<Object> list = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    list.add(readPlainValue(reader));
+                }
+                reader.endArray();
+                return list;
+            case STRING:
+                return reader.nextString();
+            case NUMBER:
+                return reader.nextDouble();
+            case BOOLEAN:
+                return reader.nextBoolean();
+            case NULL:
+                reader.nextNull();
+                return null;
+            default:
+                throw new IllegalStateException("Unexpected JSON token");
+        }
+    }
+
+    /**
+     * Convert plain Java object created by {@link #readPlainValue(JsonReader)} and put it into the map.
+     * @param map Map to fill.
+     * @param key Key for the value.
+     * @param value Value to put.
+     */
+    private static void putPlainValue(@NonNull WritableMap map, @NonNull String key, @Nullable Object value) {
+        if (value instanceof Map) {
+            final WritableMap nested = Arguments.createMap();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                putPlainValue(nested, (String) entry.getKey(), entry.getValue());
+            }
+            map.putMap(key, nested);
+        } else if (value instanceof List) {
+            map.putArray(key, toWritableArray((List<?>) value));
+        } else if (value instanceof String) {
+            map.putString(key, (String) value);
+        } else if (value instanceof Double) {
+            map.putDouble(key, (Double) value);
+        } else if (value instanceof Boolean) {
+            map.putBoolean(key, (Boolean) value);
+        } else {
+            map.putNull(key);
+        }
+    }
+
+    /**
+     * Convert list created by {@link #readPlainValue(JsonReader)} into writable array.
+     * @param list List to convert.
+     * @return Writable array.
+     */
+    @NonNull
+    private static WritableArray toWritableArray(@NonNull List<?> list) {
+        final WritableArray array = Arguments.createArray();
+        for (Object value : list) {
+            if (value instanceof Map) {
+                final WritableMap nested = Arguments.createMap();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    putPlainValue(nested, (String) entry.getKey(), entry.getValue());
+                }
+                array.pushMap(nested);
+            } else if (value instanceof List) {
+                array.pushArray(toWritableArray((List<?>) value));
+            } else if (value instanceof String) {
+                array.pushString((String) value);
+            } else if (value instanceof Double) {
+                array.pushDouble((Double) value);
+            } else if (value instanceof Boolean) {
+                array.pushBoolean((Boolean) value);
+            } else {
+                array.pushNull();
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Read JSON object into the map.
+     * @param reader JSON reader.
+     * @param map Map to fill.
+     * @throws IOException In case of parser failure.
+     */
+    private static void readObject(@NonNull JsonReader reader, @NonNull WritableMap map) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            putValue(reader, map, reader.nextName());
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Read JSON array into the array.
+     * @param reader JSON reader.
+     * @param array Array to fill.
+     * @throws IOException In case of parser failure.
+     */
+    private static void readArray(@NonNull JsonReader reader, @NonNull WritableArray array) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            switch (reader.peek()) {
+                case BEGIN_OBJECT:
+                    final WritableMap map = Arguments.createMap();
+                    readObject(reader, map);
+                    array.pushMap(map);
+                    break;
+                case BEGIN_ARRAY:
+                    final WritableArray nested = Arguments.createArray();
+                    readArray(reader, nested);
+                    array.pushArray(nested);
+                    break;
+                case STRING:
+                    array.pushString(reader.nextString());
+                    break;
+                case NUMBER:
+                    array.pushDouble(reader.nextDouble());
+                    break;
+                case BOOLEAN:
+                    array.pushBoolean(reader.nextBoolean());
+                    break;
+                case NULL:
+                    reader.nextNull();
+                    array.pushNull();
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected JSON token");
+            }
+        }
+        reader.endArray();
+    }
+
+    /**
+     * Read JSON value and put it into the map with given key.
+     * @param reader JSON reader.
+     * @param map Map to fill.
+     * @param key Key for the value.
+     * @throws IOException In case of parser failure.
+     */
+    private static void putValue(@NonNull JsonReader reader, @NonNull WritableMap map, @NonNull String key) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                final WritableMap nested = Arguments.createMap();
+                readObject(reader, nested);
+                map.putMap(key, nested);
+                break;
+            case BEGIN_ARRAY:
+                final WritableArray array = Arguments.createArray();
+                readArray(reader, array);
+                map.putArray(key, array);
+                break;
+            case STRING:
+                map.putString(key, reader.nextString());
+                break;
+            case NUMBER:
+                map.putDouble(key, reader.nextDouble());
+                break;
+            case BOOLEAN:
+                map.putBoolean(key, reader.nextBoolean());
+                break;
+            case NULL:
+                reader.nextNull();
+                map.putNull(key);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected JSON token");
+        }
+    }
+
+    /**
+     * Create JSON reader for UTF-8 encoded data. The strict reader accepts only object or array
+     * at the top level, so the document is wrapped into an array to accept scalar values too.
+     * The reader is positioned at the value of the document. Call {@link #finishReader(JsonReader)}
+     * once the value is processed.
+     * @param json UTF-8 encoded JSON.
+     * @return JSON reader.
+     * @throws IOException In case of parser failure or if document is empty.
+     */
+    @NonNull
+    private static JsonReader createReader(@NonNull byte[] json) throws IOException {
+        final InputStream stream = new SequenceInputStream(
+                new SequenceInputStream(new ByteArrayInputStream(DOCUMENT_PREFIX), new ByteArrayInputStream(json)),
+                new ByteArrayInputStream(DOCUMENT_SUFFIX));
+        final JsonReader reader = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        try {
+            reader.beginArray();
+            if (!reader.hasNext()) {
+                throw new IllegalStateException("Empty JSON document");
+            }
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+        return reader;
+    }
+
+    /**
+     * Verify that the reader has no more data after the value of the document.
+     * @param reader JSON reader created with {@link #createReader(byte[])}.
+     * @throws IOException In case of parser failure.
+     */
+    private static void finishReader(@NonNull JsonReader reader) throws IOException {
+        if (reader.hasNext()) {
+            throw new IllegalStateException("Unexpected data after JSON value");
+        }
+        reader.endArray();
+        if (reader.peek() != JsonToken.END_DOCUMENT) {
+            throw new IllegalStateException("Unexpected data after JSON value");
+        }
+    }
+}
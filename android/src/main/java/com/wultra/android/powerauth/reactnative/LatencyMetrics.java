@@ -0,0 +1,252 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The {@code LatencyMetrics} class collects latency histograms of native methods, per method,
+ * per PowerAuth instance and per phase of the call. Each histogram has fixed buckets with
+ * power of two boundaries in microseconds and the recording is lock-free.
+ * <p>
+ * The metrics are collected in debug builds only. The application can change this for both
+ * debug and release builds with {@code PowerAuthSdkRN_metricsEnabled} property in the root
+ * project's {@code ext} block. {@link #ENABLED} is a compile time constant, so if metrics are
+ * disabled, then all recording code is removed by the compiler.
+ */
+class LatencyMetrics {
+
+    /**
+     * If false, then no metrics are collected.
+     */
+    static final boolean ENABLED = BuildConfig.METRICS_ENABLED;
+
+    /**
+     * Time spent in the main thread queue, for methods that are executed on the main thread.
+     */
+    static final int PHASE_QUEUE = 0;
+    /**
+     * Time spent in looking for the native object in the object register.
+     */
+    static final int PHASE_LOOKUP = 1;
+    /**
+     * Time spent in the synchronous work with the native object.
+     */
+    static final int PHASE_WORK = 2;
+    /**
+     * Time spent in resolving or rejecting the promise.
+     */
+    static final int PHASE_RESOLVE = 3;
+    /**
+     * Time from the call in JavaScript until the method was executed on the native modules thread.
+     * The time is measured with millisecond precision, because JavaScript provides only such timestamp.
+     */
+    static final int PHASE_BRIDGE = 4;
+
+    private static final String[] PHASE_NAMES = { "queue", "lookup", "work", "resolve", "bridge" };
+
+    /**
+     * Number of buckets. The bucket {@code i} counts durations from {@code 2^(i-1)} to
+     * {@code 2^i - 1} microseconds, the last bucket counts all longer durations.
+     */
+    static final int BUCKET_COUNT = 26;
+
+    /**
+     * Key used for methods not bound to PowerAuth instance.
+     */
+    private static final String NO_INSTANCE = "";
+
+    /**
+     * Histograms, keyed by method name and instance identifier.
+     */
+    private static final ConcurrentHashMap<String, ConcurrentHashMap<String, Histogram[]>> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * @return Timestamp to use as start of measured phase, or 0 if metrics are disabled.
+     */
+    static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record duration of phase that started at given time.
+     * @param method Name of method.
+     * @param instanceId PowerAuth instance identifier or null if method is not bound to the instance.
+     * @param phase Phase of the call, one of PHASE_* constants.
+     * @param startNanos Timestamp returned from {@link #start()}.
+     * @return Timestamp to use as start of the next phase. The time spent in recording is not included.
+     */
+    static long record(@NonNull String method, @Nullable String instanceId, int phase, long startNanos) {
+        if (!ENABLED) {
+            return 0;
+        }
+        getHistogram(method, instanceId, phase).add((System.nanoTime() - startNanos) / 1000);
+        return System.nanoTime();
+    }
+
+    /**
+     * Record time spent in the bridge and in the native modules queue.
+     * @param method Name of method.
+     * @param instanceId PowerAuth instance identifier or null if method is not bound to the instance.
+     * @param callTimeMillis Time of the call in JavaScript, in milliseconds since epoch.
+     */
+    static void recordBridge(@NonNull String method, @Nullable String instanceId, long callTimeMillis) {
+        if (!ENABLED) {
+            return;
+        }
+        getHistogram(method, instanceId, PHASE_BRIDGE).add((System.currentTimeMillis() - callTimeMillis) * 1000);
+    }
+
+    /**
+     * Remove all histograms collected for PowerAuth instance.
+     * @param instanceId PowerAuth instance identifier.
+     */
+    static void removeInstance(@NonNull String instanceId) {
+        if (!ENABLED) {
+            return;
+        }
+        for (ConcurrentHashMap<String, Histogram[]> instances : histograms.values()) {
+            instances.remove(instanceId);
+        }
+    }
+
+    /**
+     * Create snapshot of all collected histograms.
+     * @param reset If true, then histograms are cleared after the snapshot is created.
+     * @return Map with the snapshot.
+     */
+    @NonNull
+    static WritableMap snapshot(boolean reset) {
+        final WritableMap result = Arguments.createMap();
+        result.putBoolean("enabled", ENABLED);
+        final WritableArray bounds = Arguments.createArray();
+        for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+            bounds.pushDouble(1L << i);
+        }
+        result.putArray("bucketUpperBoundsMicros", bounds);
+        final WritableArray entries = Arguments.createArray();
+        for (Map.Entry<String, ConcurrentHashMap<String, Histogram[]>> methodEntry : histograms.entrySet()) {
+            for (Map.Entry<String, Histogram[]> instanceEntry : methodEntry.getValue().entrySet()) {
+                final Histogram[] phases = instanceEntry.getValue();
+                for (int phase = 0; phase < phases.length; phase++) {
+                    final WritableMap entry = phases[phase].snapshot(reset);
+                    if (entry == null) {
+                        continue;
+                    }
+                    entry.putString("method", methodEntry.getKey());
+                    if (!NO_INSTANCE.equals(instanceEntry.getKey())) {
+                        entry.putString("instanceId", instanceEntry.getKey());
+                    }
+                    entry.putString("phase", PHASE_NAMES[phase]);
+                    entries.pushMap(entry);
+                }
+            }
+        }
+        result.putArray("histograms", entries);
+        return result;
+    }
+
+    // Private methods
+
+    /**
+     * Get or create histogram for method, instance and phase.
+     * @param method Name of method.
+     * @param instanceId PowerAuth instance identifier or null.
+     * @param phase Phase of the call.
+     * @return Histogram.
+     */
+    @NonNull
+    private static Histogram getHistogram(@NonNull String method, @Nullable String instanceId, int phase) {
+        ConcurrentHashMap<String, Histogram[]> instances = histograms.get(method);
+        if (instances == null) {
+            final ConcurrentHashMap<String, Histogram[]> newInstances = new ConcurrentHashMap<>();
+            instances = histograms.putIfAbsent(method, newInstances);
+            if (instances == null) {
+                instances = newInstances;
+            }
+        }
+        final String instanceKey = instanceId != null ? instanceId : NO_INSTANCE;
+        Histogram[] phases = instances.get(instanceKey);
+        if (phases == null) {
+            final Histogram[] newPhases = new Histogram[PHASE_NAMES.length];
+            for (int i = 0; i < newPhases.length; i++) {
+                newPhases[i] = new Histogram();
+            }
+            phases = instances.putIfAbsent(instanceKey, newPhases);
+            if (phases == null) {
+                phases = newPhases;
+            }
+        }
+        return phases[phase];
+    }
+
+    /**
+     * Histogram with fixed buckets.
+     */
+    private static class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+        private final AtomicLong sumMicros = new AtomicLong();
+
+        /**
+         * Add duration to the histogram.
+         * @param micros Duration in microseconds.
+         */
+        void add(long micros) {
+            if (micros < 0) {
+                micros = 0;
+            }
+            final int index = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKET_COUNT - 1);
+            buckets.incrementAndGet(index);
+            sumMicros.addAndGet(micros);
+        }
+
+        /**
+         * Create snapshot of the histogram.
+         * @param reset If true, then histogram is cleared.
+         * @return Map with the snapshot or null if histogram is empty.
+         */
+        @Nullable
+        WritableMap snapshot(boolean reset) {
+            final WritableArray counts = Arguments.createArray();
+            long count = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                final long value = reset ? buckets.getAndSet(i, 0) : buckets.get(i);
+                counts.pushDouble(value);
+                count += value;
+            }
+            final long sum = reset ? sumMicros.getAndSet(0) : sumMicros.get();
+            if (count == 0) {
+                return null;
+            }
+            final WritableMap map = Arguments.createMap();
+            map.putDouble("count", count);
+            map.putDouble("sumMicros", sum);
+            map.putArray("buckets", counts);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The {@code NativeData} class represents bytes stored in the object register and exposed to
+ * JavaScript only by the object identifier, so the data doesn't need to cross the bridge in
+ * form of Base64 encoded string. The bytes are zeroized when object is removed from the register.
+ * <p>
+ * The class is intentionally distinct from {@code ManagedAny<byte[]>}, so the data handle cannot
+ * be accidentally used in place of biometric key and vice versa.
+ * <p>
+ * The data handle can be released from JavaScript or by the register at any time, also while
+ * another operation uses the data. To avoid reading zeroized bytes, operations always work with
+ * a copy of the bytes, created while the object is still valid.
+ */
+class NativeData implements IManagedObject {
+
+    /**
+     * Bytes owned by this object. Access is guarded by the object's monitor.
+     */
+    private final @NonNull byte[] bytes;
+    /**
+     * If true, then bytes are already zeroized.
+     */
+    private boolean released;
+
+    /**
+     * Construct object with bytes. The object takes ownership of the array.
+     * @param bytes Bytes to store.
+     */
+    NativeData(@NonNull byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    @Override
+    public synchronized void cleanup() {
+        released = true;
+        Arrays.fill(bytes, (byte) 0);
+    }
+
+    @NonNull
+    @Override
+    public Object managedInstance() {
+        return this;
+    }
+
+    /**
+     * Register bytes in the object register as a new data handle.
+     * @param register Object register.
+     * @param bytes Bytes to register. The new object takes ownership of the array.
+     * @param tag Optional tag, typically PowerAuth instance identifier.
+     * @return Identifier of the data handle.
+     */
+    @NonNull
+    static String register(@NonNull ObjectRegister register, @NonNull byte[] bytes, @Nullable String tag) {
+        final List<ReleasePolicy> releasePolicy = Collections.singletonList(ReleasePolicy.keepAlive(Constants.NATIVE_DATA_KEEP_ALIVE_TIME));
+        return register.registerObject(new NativeData(bytes), tag, releasePolicy);
+    }
+
+    /**
+     * Copy bytes associated with the data handle. The object is touched in the register, so its
+     * lifetime is prolonged. The returned array is owned by the caller.
+     * @param register Object register.
+     * @param objectId Identifier of the data handle.
+     * @return Copy of bytes associated with the data handle.
+     * @throws WrapperException In case that there's no such data handle in the register or the data is already released.
+     */
+    @NonNull
+    static byte[] copyBytes(@NonNull ObjectRegister register, @Nullable String objectId) throws WrapperException {
+        final NativeData data = find(register, objectId);
+        synchronized (data) {
+            if (data.released) {
+                throw invalidObjectException();
+            }
+            return Arrays.copyOf(data.bytes, data.bytes.length);
+        }
+    }
+
+    /**
+     * Get length of bytes associated with the data handle. The object is touched in the register,
+     * so its lifetime is prolonged.
+     * @param register Object register.
+     * @param objectId Identifier of the data handle.
+     * @return Length of bytes.
+     * @throws WrapperException In case that there's no such data handle in the register or the data is already released.
+     */
+    static int length(@NonNull ObjectRegister register, @Nullable String objectId) throws WrapperException {
+        final NativeData data = find(register, objectId);
+        synchronized (data) {
+            if (data.released) {
+                throw invalidObjectException();
+            }
+            return data.bytes.length;
+        }
+    }
+
+    /**
+     * Verify that the data handle refers to a valid native data object. The object is touched in
+     * the register, so its lifetime is prolonged.
+     * @param register Object register.
+     * @param objectId Identifier of the data handle.
+     * @throws WrapperException In case that there's no such data handle in the register or the data is already released.
+     */
+    static void validate(@NonNull ObjectRegister register, @Nullable String objectId) throws WrapperException {
+        length(register, objectId);
+    }
+
+    // Private methods
+
+    /**
+     * Find native data object in the register.
+     * @param register Object register.
+     * @param objectId Identifier of the data handle.
+     * @return Native data object.
+     * @throws WrapperException In case that there's no such data handle in the register.
+     */
+    @NonNull
+    private static NativeData find(@NonNull ObjectRegister register, @Nullable String objectId) throws WrapperException {
+        final NativeData data = register.touchObject(objectId, NativeData.class);
+        if (data == null) {
+            throw invalidObjectException();
+        }
+        return data;
+    }
+
+    /**
+     * Create exception reported when data handle is no longer valid.
+     * @return Exception to throw.
+     */
+    @NonNull
+    private static WrapperException invalidObjectException() {
+        return new WrapperException(Errors.EC_INVALID_NATIVE_OBJECT, "Native data object is no longer valid");
+    }
+}
@@ -121,6 +121,27 @@ public class ObjectRegister extends BaseJavaModule {
         });
     }
 
+    /**
+     * Register multiple objects with the same tag and release policies in one register operation.
+     * @param objects Objects to register.
+     * @param tag Optional objects' tag.
+     * @param releasePolicies List with release policies.
+     * @return List with identifiers of registered objects, in the same order as the objects.
+     */
+    @NonNull
+    List<String> registerObjects(@NonNull List<? extends IManagedObject> objects, @Nullable String tag, @NonNull List<ReleasePolicy> releasePolicies) {
+        return synchronize(() -> {
+            final List<String> identifiers = new ArrayList<>(objects.size());
+            for (IManagedObject object : objects) {
+                final String identifier = generateIdentifier();
+                register.put(identifier, new RegisterEntry(object, identifier, tag, releasePolicies));
+                identifiers.add(identifier);
+            }
+            scheduleCleanup();
+            return identifiers;
+        });
+    }
+
     /**
      * Register object with application provided identifier.
      * @param object Object to register.
@@ -172,7 +193,7 @@ public class ObjectRegister extends BaseJavaModule {
      */
     @Nullable
     <T> T useObject(@Nullable String objectId, Class<T> expectedClass) {
-        return synchronize(() -> findManagedObject(objectId, expectedClass, OPT_SET_USE));
+        return lookupObject(objectId, expectedClass, OPT_SET_USE);
     }
 
     /**
@@ -184,7 +205,7 @@ public class ObjectRegister extends BaseJavaModule {
      */
     @Nullable
     <T> T findObject(@Nullable String objectId, @NonNull Class<T> expectedClass) {
-        return synchronize(() -> findManagedObject(objectId, expectedClass, OPT_NONE));
+        return lookupObject(objectId, expectedClass, OPT_NONE);
     }
 
     /**
@@ -196,7 +217,7 @@ public class ObjectRegister extends BaseJavaModule {
      */
     @Nullable
     <T> T touchObject(@Nullable String objectId, @NonNull Class<T> expectedClass) {
-        return synchronize(() -> findManagedObject(objectId, expectedClass, OPT_TOUCH));
+        return lookupObject(objectId, expectedClass, OPT_TOUCH);
     }
 
     /**
@@ -205,7 +226,7 @@ public class ObjectRegister extends BaseJavaModule {
      * @return true if register contains such object.
      */
     boolean containsObject(@Nullable String objectId) {
-        return synchronize(() -> findManagedObject(objectId, Object.class, OPT_NONE) != null);
+        return lookupObject(objectId, Object.class, OPT_NONE) != null;
     }
 
     /**
@@ -225,7 +246,7 @@ public class ObjectRegister extends BaseJavaModule {
      */
     @Nullable
     <T> T removeObject(@Nullable String objectId, Class<T> expectedClass) {
-        return synchronize(() -> findManagedObject(objectId, expectedClass, OPT_REMOVE));
+        return lookupObject(objectId, expectedClass, OPT_REMOVE);
     }
 
     /**
@@ -325,6 +346,24 @@ public class ObjectRegister extends BaseJavaModule {
         return null;
     }
 
+    /**
+     * Find object with given identifier in the locked register and do an additional operation with the object.
+     * @param objectId Object identifier.
+     * @param expectedClass Expected class, or null if any object can be returned (in case of remove)
+     * @param options Additional operation that should be performed with the object's entry. Use {@code OPT_*} constants.
+     * @param <T> Expected object's type.
+     * @return instance of object with given identifier or null if no such object exists in register.
+     */
+    @Nullable
+    private <T> T lookupObject(@Nullable String objectId, Class<T> expectedClass, int options) {
+        final Tracer.Backend t = Tracer.begin(Tracer.SECTION_REGISTER_LOOKUP);
+        try {
+            return synchronize(() -> findManagedObject(objectId, expectedClass, options));
+        } finally {
+            t.endSection();
+        }
+    }
+
     @FunctionalInterface
     private interface RemoveFilter {
         /**
@@ -477,7 +516,12 @@ public class ObjectRegister extends BaseJavaModule {
      */
     private void doCleanup() {
         // Remove all invalid objects
-        findAndRemoveObjects(((key, managedObject) -> managedObject.isReadyForRemove()));
+        final Tracer.Backend t = Tracer.begin(Tracer.SECTION_REGISTER_CLEANUP);
+        try {
+            findAndRemoveObjects(((key, managedObject) -> managedObject.isReadyForRemove()));
+        } finally {
+            t.endSection();
+        }
         // Schedule cleanup for the next round
         scheduleCleanup();
     }
@@ -688,6 +732,48 @@ public class ObjectRegister extends BaseJavaModule {
         promise.resolve(debugDumpObjects(instanceId));
     }
 
+    @ReactMethod
+    void getLatencyMetrics(boolean reset, Promise promise) {
+        promise.resolve(LatencyMetrics.snapshot(reset));
+    }
+
+    @ReactMethod
+    void recordBridgeLatency(String method, @Nullable String instanceId, double callTime) {
+        if (method != null) {
+            LatencyMetrics.recordBridge(method, instanceId, (long) callTime);
+        }
+    }
+
+    @ReactMethod
+    void setTraceBackend(String type, int capacity, Promise promise) {
+        try {
+            if ("system".equals(type)) {
+                Tracer.setBackend(Tracer.SYSTEM);
+            } else if ("none".equals(type)) {
+                Tracer.setBackend(Tracer.NONE);
+            } else if ("ringBuffer".equals(type)) {
+                Tracer.setBackend(new Tracer.RingBuffer(capacity));
+            } else if ("default".equals(type)) {
+                Tracer.setBackend(null);
+            } else {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Unknown trace backend");
+            }
+            promise.resolve(null);
+        } catch (Throwable t) {
+            Errors.rejectPromise(promise, t);
+        }
+    }
+
+    @ReactMethod
+    void dumpTrace(boolean clear, Promise promise) {
+        final Tracer.Backend backend = Tracer.getBackend();
+        if (backend instanceof Tracer.RingBuffer) {
+            promise.resolve(((Tracer.RingBuffer) backend).dump(clear));
+        } else {
+            promise.reject(Errors.EC_WRONG_PARAMETER, "Ring buffer trace backend is not active");
+        }
+    }
+
     @ReactMethod
     void debugCommand(String command, ReadableMap options, Promise promise) {
         if (BuildConfig.DEBUG) {
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import android.content.Context;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The {@code PassphraseDictionary} class contains hashes of common passwords and words used by
+ * {@link PassphraseTester}. The words are normalized, so the lookup is case insensitive and common
+ * character substitutions, like {@code p@ssw0rd}, are matched too.
+ * <p>
+ * The built-in dictionary contains only a small list of the most common passwords. The application
+ * should load a real dictionary, for example, a list of breached passwords or a word list of its
+ * language. The dictionary file is UTF-8 encoded text with one word per line, ordered from the most
+ * frequent word. Empty lines and lines starting with {@code #} are ignored.
+ */
+class PassphraseDictionary {
+
+    /**
+     * Minimum length of dictionary word.
+     */
+    static final int MIN_WORD_LENGTH = 3;
+    /**
+     * Maximum length of dictionary word. Longer words are ignored.
+     */
+    static final int MAX_WORD_LENGTH = 32;
+    /**
+     * Maximum number of words in the loaded dictionary.
+     */
+    static final int MAX_WORD_COUNT = 500_000;
+
+    static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private static final String[] commonWords = {
+        "password", "123456", "qwerty", "letmein", "dragon", "monkey", "football", "iloveyou", "admin", "welcome",
+        "login", "princess", "sunshine", "master", "shadow", "baseball", "superman", "trustno1", "hello", "freedom",
+        "whatever", "starwars", "secret", "batman", "michael", "jordan", "jennifer", "hunter", "summer", "charlie",
+        "ashley", "soccer", "killer", "pepper", "ginger", "cheese", "orange", "banana", "computer", "internet",
+        "mustang", "access", "flower", "love", "angel", "tigger", "buster", "matrix", "silver", "cookie",
+        "thomas", "robert", "daniel", "andrew", "joshua", "george", "hockey", "ranger", "harley", "maggie",
+        "taylor", "biteme", "lovely", "purple", "samsung", "google", "apple", "changeme", "default", "test",
+        "guest", "root", "user", "pass", "money", "winter", "spring", "autumn", "monday", "friday",
+        "sunday", "january", "december", "august", "october", "london", "paris", "berlin", "prague", "america",
+        "bitcoin", "pokemon", "minecraft", "naruto", "family", "forever", "blessed", "jesus", "heaven", "soleil",
+        "bonjour", "hallo", "ciao", "amore", "liverpool", "chelsea", "arsenal", "barcelona", "madrid", "player",
+        "gamer", "ninja", "pussy", "sexy", "girl", "boy", "baby", "mother", "father", "sister",
+        "brother", "friend", "dog", "cat", "tiger", "lion", "bear", "eagle", "falcon", "phoenix",
+        "wizard", "knight", "king", "queen", "prince", "star", "moon", "sun", "dream", "magic",
+        "power", "bank", "mobile", "phone", "android", "secure", "security", "private", "heslo", "ahoj",
+        "passwort", "contrasena", "motdepasse", "parola", "haslo", "salasana", "wachtwoord", "senha", "sifre", "jelszo",
+    };
+
+    /**
+     * Dictionary with the built-in list of common words.
+     */
+    static final PassphraseDictionary BUILT_IN = fromWords(commonWords);
+
+    /**
+     * Open addressing hash table with hashes of normalized words. Zero marks an empty slot.
+     */
+    private final long[] hashes;
+    /**
+     * Rank of word stored in the same slot of {@link #hashes}.
+     */
+    private final int[] ranks;
+    /**
+     * Length of the longest word in characters.
+     */
+    final int maxLength;
+
+    private PassphraseDictionary(@NonNull long[] hashes, @NonNull int[] ranks, int maxLength) {
+        this.hashes = hashes;
+        this.ranks = ranks;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Load dictionary from the file.
+     * @param context Android context.
+     * @param source Path or URI to dictionary file. Use {@code asset:///name} to load dictionary
+     *               from application assets.
+     * @return Loaded dictionary.
+     * @throws WrapperException In case that dictionary cannot be loaded.
+     */
+    @NonNull
+    static PassphraseDictionary load(@NonNull Context context, @Nullable String source) throws WrapperException {
+        try {
+            if (source != null && source.startsWith("asset:///")) {
+                try (InputStream stream = context.getAssets().open(source.substring(9))) {
+                    return parse(stream);
+                }
+            } else {
+                try (FileChannel channel = FileChannels.openForReading(context, source)) {
+                    return parse(Channels.newInputStream(channel));
+                }
+            }
+        } catch (IOException e) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Failed to load passphrase dictionary", e);
+        }
+    }
+
+    /**
+     * Parse dictionary from the stream with one word per line.
+     * @param stream Stream with UTF-8 encoded words.
+     * @return Parsed dictionary.
+     * @throws IOException In case of read failure.
+     * @throws WrapperException In case that dictionary is empty or too large.
+     */
+    @NonNull
+    static PassphraseDictionary parse(@NonNull InputStream stream) throws IOException, WrapperException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        long[] wordHashes = new long[1024];
+        int count = 0;
+        int maxLength = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            final String word = line.trim();
+            if (word.isEmpty() || word.startsWith("#")) {
+                continue;
+            }
+            final int length = word.codePointCount(0, word.length());
+            if (length < MIN_WORD_LENGTH || length > MAX_WORD_LENGTH) {
+                continue;
+            }
+            if (count == MAX_WORD_COUNT) {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Passphrase dictionary is too large");
+            }
+            if (count == wordHashes.length) {
+                wordHashes = Arrays.copyOf(wordHashes, count * 2);
+            }
+            wordHashes[count++] = hashWord(word);
+            maxLength = Math.max(maxLength, length);
+        }
+        if (count == 0) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Passphrase dictionary is empty");
+        }
+        return build(wordHashes, count, maxLength);
+    }
+
+    /**
+     * Find rank of word in the dictionary.
+     * @param hash Hash of normalized word, calculated with {@link #hashUpdate(long, int)}.
+     * @return Rank or 0 if there's no such word.
+     */
+    int findRank(long hash) {
+        int slot = hashSlot(hash, hashes.length);
+        while (hashes[slot] != 0) {
+            if (hashes[slot] == hash) {
+                return ranks[slot];
+            }
+            slot = (slot + 1) & (hashes.length - 1);
+        }
+        return 0;
+    }
+
+    /**
+     * Normalize character for dictionary matching. The character is converted to lower case
+     * and common substitutions are reverted.
+     * @param c Unicode code point to normalize.
+     * @return Normalized code point.
+     */
+    static int normalize(int c) {
+        switch (c) {
+            case '@': case '4': return 'a';
+            case '3': return 'e';
+            case '1': case '!': return 'i';
+            case '0': return 'o';
+            case '$': case '5': return 's';
+            case '7': return 't';
+            default: return Character.toLowerCase(c);
+        }
+    }
+
+    /**
+     * Update 64-bit FNV-1a hash with one normalized character.
+     * @param hash Current hash.
+     * @param c Normalized code point.
+     * @return Updated hash.
+     */
+    static long hashUpdate(long hash, int c) {
+        return (hash ^ c) * FNV_PRIME;
+    }
+
+    // Private methods
+
+    /**
+     * Create dictionary from the list of words.
+     * @param words Words ordered from the most frequent.
+     * @return Dictionary.
+     */
+    @NonNull
+    private static PassphraseDictionary fromWords(@NonNull String[] words) {
+        final long[] wordHashes = new long[words.length];
+        int maxLength = 0;
+        for (int i = 0; i < words.length; i++) {
+            wordHashes[i] = hashWord(words[i]);
+            maxLength = Math.max(maxLength, words[i].codePointCount(0, words[i].length()));
+        }
+        return build(wordHashes, words.length, maxLength);
+    }
+
+    /**
+     * Build hash table from hashes of words. If the same normalized word is in the list multiple
+     * times, then the best rank is kept.
+     * @param wordHashes Hashes of words ordered from the most frequent.
+     * @param count Number of hashes.
+     * @param maxLength Length of the longest word.
+     * @return Dictionary.
+     */
+    @NonNull
+    private static PassphraseDictionary build(@NonNull long[] wordHashes, int count, int maxLength) {
+        int size = 16;
+        while (size < count * 2) {
+            size <<= 1;
+        }
+        final long[] hashes = new long[size];
+        final int[] ranks = new int[size];
+        for (int rank = 0; rank < count; rank++) {
+            final long hash = wordHashes[rank];
+            int slot = hashSlot(hash, size);
+            while (hashes[slot] != 0 && hashes[slot] != hash) {
+                slot = (slot + 1) & (size - 1);
+            }
+            if (hashes[slot] == 0) {
+                hashes[slot] = hash;
+                ranks[slot] = rank + 1;
+            }
+        }
+        return new PassphraseDictionary(hashes, ranks, maxLength);
+    }
+
+    /**
+     * Calculate hash of normalized word.
+     * @param word Word to hash.
+     * @return Hash of the word.
+     */
+    private static long hashWord(@NonNull String word) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < word.length(); ) {
+            final int c = word.codePointAt(i);
+            hash = hashUpdate(hash, normalize(c));
+            i += Character.charCount(c);
+        }
+        return hash;
+    }
+
+    /**
+     * Calculate initial slot in hash table for the hash.
+     * @param hash Hash value.
+     * @param size Size of hash table, must be power of two.
+     * @return Slot in hash table.
+     */
+    private static int hashSlot(long hash, int size) {
+        return (int) ((hash * 0x9E3779B97F4A7C15L) >>> 40) & (size - 1);
+    }
+}
@@ -0,0 +1,428 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The {@code PassphraseTester} class estimates strength of alphanumeric passphrase. The passphrase
+ * is split into segments matched by dictionary words, keyboard walks, alphabetical or numeric
+ * sequences and repeated characters. The estimate is the minimal sum of entropy of segments that
+ * cover the whole passphrase, where each character not covered by any pattern costs the entropy
+ * of a random character from the character classes used in the passphrase.
+ * <p>
+ * The passphrase is decoded into Unicode code points, so each non-ASCII character counts as one
+ * character. Dictionary words are matched in {@link PassphraseDictionary} after normalization, while
+ * keyboard walks are matched on raw characters, where shifted symbols are at the same position as
+ * their unshifted keys. The keyboard layout is compiled into a compact table when the class is
+ * loaded, so the test doesn't allocate anything except the scratch buffers that are cleared at the end.
+ */
+class PassphraseTester {
+
+    static final int MIN_LENGTH             = 8;
+
+    static final int ISSUE_TOO_SHORT        = 0x001;
+    static final int ISSUE_COMMON_WORD      = 0x002;
+    static final int ISSUE_KEYBOARD_PATTERN = 0x004;
+    static final int ISSUE_SEQUENCE         = 0x008;
+    static final int ISSUE_REPEATING_CHARS  = 0x010;
+    static final int ISSUE_LOW_VARIETY      = 0x020;
+
+    /**
+     * Result of passphrase test.
+     */
+    static class Result {
+        /**
+         * Estimated entropy in bits.
+         */
+        double entropy;
+        /**
+         * Combination of ISSUE_* constants.
+         */
+        int issues;
+        /**
+         * Number of characters in passphrase.
+         */
+        int length;
+    }
+
+    /**
+     * Test strength of passphrase.
+     * @param passphrase UTF-8 encoded passphrase.
+     * @param dictionary Dictionary of common words.
+     * @return Result of the test.
+     */
+    @NonNull
+    static Result testPassphrase(@NonNull byte[] passphrase, @NonNull PassphraseDictionary dictionary) {
+        final Result result = new Result();
+        final int[] chars = new int[passphrase.length];
+        final int length = decodeUtf8(passphrase, chars);
+        result.length = length;
+        if (length < MIN_LENGTH) {
+            result.issues |= ISSUE_TOO_SHORT;
+        }
+        // Cost of one random character.
+        final int pool = characterPool(chars, length);
+        final double charEntropy = log2(pool);
+        if (pool <= 26 && length > 0) {
+            result.issues |= ISSUE_LOW_VARIETY;
+        }
+        // Minimal entropy for each prefix and the issue found in the last segment of such prefix.
+        final double[] best = new double[length + 1];
+        final int[] bestIssue = new int[length + 1];
+        final int[] bestStart = new int[length + 1];
+        Arrays.fill(best, 1, length + 1, Double.MAX_VALUE);
+        // Relax the prefixes with a random character and with all patterns matched from each
+        // start position. The matched segment always ends after the start, so the prefix
+        // ending at start is already final.
+        final int[] normalized = new int[length];
+        for (int i = 0; i < length; i++) {
+            normalized[i] = PassphraseDictionary.normalize(chars[i]);
+        }
+        for (int start = 0; start < length; start++) {
+            final double base = best[start];
+            relax(start, start + 1, base + charEntropy, 0, best, bestStart, bestIssue);
+            matchDictionary(dictionary, chars, normalized, length, start, base, best, bestStart, bestIssue);
+            matchKeyboard(chars, length, start, base, best, bestStart, bestIssue);
+            matchSequence(chars, length, start, base, best, bestStart, bestIssue);
+            matchRepeat(chars, length, start, charEntropy, base, best, bestStart, bestIssue);
+        }
+        // Collect issues from the optimal cover.
+        for (int end = length; end > 0; end = bestStart[end]) {
+            result.issues |= bestIssue[end];
+        }
+        result.entropy = best[length];
+        Arrays.fill(chars, 0);
+        Arrays.fill(normalized, 0);
+        return result;
+    }
+
+    // Dictionary
+
+    /**
+     * Match dictionary words starting at given position.
+     */
+    private static void matchDictionary(PassphraseDictionary dictionary, int[] chars, int[] normalized, int length, int start, double base, double[] best, int[] bestStart, int[] bestIssue) {
+        long hash = PassphraseDictionary.FNV_OFFSET_BASIS;
+        int upperCount = 0;
+        int substitutions = 0;
+        final int maxEnd = Math.min(length, start + dictionary.maxLength);
+        for (int end = start + 1; end <= maxEnd; end++) {
+            final int c = chars[end - 1];
+            hash = PassphraseDictionary.hashUpdate(hash, normalized[end - 1]);
+            if (Character.isUpperCase(c)) {
+                upperCount++;
+            } else if (normalized[end - 1] != c) {
+                substitutions++;
+            }
+            if (end - start < PassphraseDictionary.MIN_WORD_LENGTH) {
+                continue;
+            }
+            final int rank = dictionary.findRank(hash);
+            if (rank > 0) {
+                double entropy = log2(rank);
+                // Extra cost for capitalization and substituted characters.
+                if (upperCount > 0) {
+                    entropy += (upperCount == 1 && Character.isUpperCase(chars[start])) ? 1 : upperCount;
+                }
+                entropy += substitutions;
+                relax(start, end, base + Math.max(entropy, 1), ISSUE_COMMON_WORD, best, bestStart, bestIssue);
+            }
+        }
+    }
+
+    // Keyboard
+
+    private static final String[] keyboardRows = {
+        "1234567890-=", "qwertyuiop[]", "asdfghjkl;'", "zxcvbnm,./"
+    };
+    /**
+     * Characters typed with shift, at the same positions as in {@link #keyboardRows}. Upper case
+     * letters are converted to lower case before the lookup.
+     */
+    private static final String[] shiftedKeyboardRows = {
+        "!@#$%^&*()_+", "qwertyuiop{}", "asdfghjkl:\"", "zxcvbnm<>?"
+    };
+    /**
+     * Minimum length of keyboard walk.
+     */
+    private static final int KEYBOARD_MIN_LENGTH = 4;
+    /**
+     * Number of keys in {@link #keyboardRows}.
+     */
+    private static final int KEYBOARD_KEYS;
+    /**
+     * Position of ASCII character on keyboard, encoded as {@code row << 8 | column}, or -1 if
+     * character is not on keyboard. Shifted characters have the same position as unshifted ones.
+     */
+    private static final short[] keyPositions = new short[128];
+
+    static {
+        Arrays.fill(keyPositions, (short) -1);
+        int keys = 0;
+        for (int row = 0; row < keyboardRows.length; row++) {
+            final String keysInRow = keyboardRows[row];
+            for (int column = 0; column < keysInRow.length(); column++) {
+                keyPositions[keysInRow.charAt(column)] = (short) ((row << 8) | column);
+                keyPositions[shiftedKeyboardRows[row].charAt(column)] = (short) ((row << 8) | column);
+                keys++;
+            }
+        }
+        KEYBOARD_KEYS = keys;
+    }
+
+    /**
+     * Match keyboard walk starting at given position.
+     */
+    private static void matchKeyboard(int[] chars, int length, int start, double base, double[] best, int[] bestStart, int[] bestIssue) {
+        int end = start + 1;
+        while (end < length && areKeysAdjacent(keyPosition(chars[end - 1]), keyPosition(chars[end]))) {
+            end++;
+        }
+        if (end - start >= KEYBOARD_MIN_LENGTH) {
+            // Starting key and roughly 2 bits for each next step.
+            final double entropy = log2(KEYBOARD_KEYS) + 2 * (end - start - 1);
+            relax(start, end, base + entropy, ISSUE_KEYBOARD_PATTERN, best, bestStart, bestIssue);
+        }
+    }
+
+    /**
+     * Get position of character on keyboard.
+     * @param c Character.
+     * @return Encoded position or -1.
+     */
+    private static int keyPosition(int c) {
+        if (c >= 'A' && c <= 'Z') {
+            c += 'a' - 'A';
+        }
+        return c >= 0 && c < 128 ? keyPositions[c] : -1;
+    }
+
+    /**
+     * Determine whether two keys are adjacent on staggered keyboard.
+     * @param a Position of the first key.
+     * @param b Position of the second key.
+     * @return true if keys are adjacent.
+     */
+    private static boolean areKeysAdjacent(int a, int b) {
+        if (a < 0 || b < 0 || a == b) {
+            return false;
+        }
+        final int rowDiff = (b >> 8) - (a >> 8);
+        final int columnDiff = (b & 0xFF) - (a & 0xFF);
+        if (rowDiff == 0) {
+            return columnDiff == 1 || columnDiff == -1;
+        } else if (rowDiff == 1) {
+            return columnDiff == 0 || columnDiff == -1;
+        } else if (rowDiff == -1) {
+            return columnDiff == 0 || columnDiff == 1;
+        }
+        return false;
+    }
+
+    // Sequence
+
+    /**
+     * Minimum length of sequence.
+     */
+    private static final int SEQUENCE_MIN_LENGTH = 3;
+
+    /**
+     * Match alphabetical or numeric sequence starting at given position.
+     */
+    private static void matchSequence(int[] chars, int length, int start, double base, double[] best, int[] bestStart, int[] bestIssue) {
+        if (start + 1 >= length) {
+            return;
+        }
+        final int delta = chars[start + 1] - chars[start];
+        if (delta != 1 && delta != -1) {
+            return;
+        }
+        int end = start + 2;
+        while (end < length && chars[end] - chars[end - 1] == delta && isSameClass(chars[end], chars[start])) {
+            end++;
+        }
+        if (end - start >= SEQUENCE_MIN_LENGTH && isSameClass(chars[start + 1], chars[start])) {
+            final int first = chars[start];
+            final double startEntropy = (first == 'a' || first == 'A' || first == '0' || first == '1') ? 1 : log2(first >= '0' && first <= '9' ? 10 : 26);
+            final double entropy = startEntropy + log2(end - start) + (delta < 0 ? 1 : 0);
+            relax(start, end, base + entropy, ISSUE_SEQUENCE, best, bestStart, bestIssue);
+        }
+    }
+
+    // Repeat
+
+    /**
+     * Minimum length of repeated characters.
+     */
+    private static final int REPEAT_MIN_LENGTH = 3;
+
+    /**
+     * Match repeated characters starting at given position.
+     */
+    private static void matchRepeat(int[] chars, int length, int start, double charEntropy, double base, double[] best, int[] bestStart, int[] bestIssue) {
+        int end = start + 1;
+        while (end < length && chars[end] == chars[start]) {
+            end++;
+        }
+        if (end - start >= REPEAT_MIN_LENGTH) {
+            final double entropy = charEntropy + log2(end - start);
+            relax(start, end, base + entropy, ISSUE_REPEATING_CHARS, best, bestStart, bestIssue);
+        }
+    }
+
+    // Helper functions
+
+    /**
+     * Decode UTF-8 encoded bytes into Unicode code points. Each malformed sequence is decoded
+     * as one U+FFFD replacement character.
+     * @param bytes UTF-8 encoded bytes.
+     * @param chars Output buffer, must be at least as long as the input.
+     * @return Number of decoded code points.
+     */
+    static int decodeUtf8(@NonNull byte[] bytes, @NonNull int[] chars) {
+        int length = 0;
+        int i = 0;
+        while (i < bytes.length) {
+            final int b = bytes[i] & 0xFF;
+            final int continuationCount;
+            final int minValue;
+            int c;
+            if (b < 0x80) {
+                chars[length++] = b;
+                i++;
+                continue;
+            } else if (b >= 0xC2 && b < 0xE0) {
+                c = b & 0x1F;
+                continuationCount = 1;
+                minValue = 0x80;
+            } else if (b >= 0xE0 && b < 0xF0) {
+                c = b & 0x0F;
+                continuationCount = 2;
+                minValue = 0x800;
+            } else if (b >= 0xF0 && b < 0xF5) {
+                c = b & 0x07;
+                continuationCount = 3;
+                minValue = 0x10000;
+            } else {
+                chars[length++] = 0xFFFD;
+                i++;
+                continue;
+            }
+            int j = 1;
+            while (j <= continuationCount && i + j < bytes.length && (bytes[i + j] & 0xC0) == 0x80) {
+                c = (c << 6) | (bytes[i + j] & 0x3F);
+                j++;
+            }
+            if (j <= continuationCount || c < minValue || c > 0x10FFFF || (c >= 0xD800 && c <= 0xDFFF)) {
+                c = 0xFFFD;
+            }
+            chars[length++] = c;
+            i += j;
+        }
+        return length;
+    }
+
+    /**
+     * Update cover of prefix ending at {@code end} if the new entropy is lower.
+     */
+    private static void relax(int start, int end, double entropy, int issue, double[] best, int[] bestStart, int[] bestIssue) {
+        if (entropy < best[end]) {
+            best[end] = entropy;
+            bestStart[end] = start;
+            bestIssue[end] = issue;
+        }
+    }
+
+    /**
+     * Calculate number of characters in all character classes used in passphrase.
+     * @param chars Characters.
+     * @param length Number of characters.
+     * @return Size of character pool.
+     */
+    private static int characterPool(int[] chars, int length) {
+        boolean lower = false, upper = false, digit = false, symbol = false, other = false;
+        for (int i = 0; i < length; i++) {
+            final int c = chars[i];
+            if (c >= 'a' && c <= 'z') {
+                lower = true;
+            } else if (c >= 'A' && c <= 'Z') {
+                upper = true;
+            } else if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (c < 128) {
+                symbol = true;
+            } else {
+                other = true;
+            }
+        }
+        int pool = 0;
+        if (lower) {
+            pool += 26;
+        }
+        if (upper) {
+            pool += 26;
+        }
+        if (digit) {
+            pool += 10;
+        }
+        if (symbol) {
+            pool += 33;
+        }
+        if (other) {
+            pool += 100;
+        }
+        return Math.max(pool, 1);
+    }
+
+    /**
+     * Determine whether two characters are both lower case letters, upper case letters or digits.
+     * @param a First character.
+     * @param b Second character.
+     * @return true if both characters belong to the same class.
+     */
+    private static boolean isSameClass(int a, int b) {
+        final int aClass = classOf(a);
+        return aClass != 0 && aClass == classOf(b);
+    }
+
+    /**
+     * Get class of character for sequence matching.
+     * @param c Character.
+     * @return 1 for lower case letter, 2 for upper case letter, 3 for digit, otherwise 0.
+     */
+    private static int classOf(int c) {
+        if (c >= 'a' && c <= 'z') {
+            return 1;
+        } else if (c >= 'A' && c <= 'Z') {
+            return 2;
+        } else if (c >= '0' && c <= '9') {
+            return 3;
+        }
+        return 0;
+    }
+
+    /**
+     * @param value Value to process.
+     * @return Binary logarithm of value.
+     */
+    private static double log2(double value) {
+        return Math.log(value) / Math.log(2);
+    }
+}
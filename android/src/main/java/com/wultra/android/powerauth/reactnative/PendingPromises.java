@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import com.facebook.react.bridge.Promise;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The {@code PendingPromises} class allows to coalesce concurrent requests for the same operation
+ * into one native operation. The first caller starts the operation and all other callers with the
+ * same key only wait for its result. Only operations that don't depend on credentials of the caller
+ * can be coalesced, because the waiting callers don't take part in the operation at all.
+ *
+ * @param <K> Type of key identifying the operation.
+ */
+class PendingPromises<K> {
+
+    private final HashMap<K, ArrayList<Promise>> pending = new HashMap<>();
+
+    /**
+     * Add promise waiting for the operation identified by the key.
+     * @param key Key identifying the operation.
+     * @param promise Promise to resolve or reject once the operation is completed.
+     * @return true if this is the first promise for the key and the caller must start the operation.
+     */
+    synchronized boolean add(@NonNull K key, @NonNull Promise promise) {
+        ArrayList<Promise> promises = pending.get(key);
+        if (promises == null) {
+            promises = new ArrayList<>(1);
+            promises.add(promise);
+            pending.put(key, promises);
+            return true;
+        }
+        promises.add(promise);
+        return false;
+    }
+
+    /**
+     * Remove all promises waiting for the operation identified by the key. The function should be
+     * called once the operation is completed.
+     * @param key Key identifying the operation.
+     * @return List of promises waiting for the operation's result.
+     */
+    @NonNull
+    synchronized List<Promise> remove(@NonNull K key) {
+        final ArrayList<Promise> promises = pending.remove(key);
+        return promises != null ? promises : Collections.<Promise>emptyList();
+    }
+}
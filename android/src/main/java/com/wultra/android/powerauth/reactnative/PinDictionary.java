@@ -0,0 +1,179 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The {@code PinDictionary} class provides lookup to a large dictionary of breached PINs stored
+ * in a memory-mapped file. The dictionary contains a sequence of Bloom filters, where each filter
+ * represents one bucket of PINs with similar frequency rank. The lookup is performed in constant
+ * time and doesn't allocate memory.
+ * <p>
+ * The file has the following format, all numbers are big endian:
+ * <pre>
+ * header:
+ *   u8[4]  magic "PAPD"
+ *   u8     version, must be 1
+ *   u8     number of hash functions (1..32)
+ *   u8     number of buckets (1..16)
+ *   u8     reserved, must be 0
+ * bucket (repeated for each bucket, ordered from the most frequent PINs):
+ *   u32    frequency rank of the least frequent PIN in the bucket
+ *   u32    number of bits in the filter (m), must be multiple of 8
+ *   u8[m/8] filter bits, bit i is stored in byte i/8 at position i%8
+ * </pre>
+ * PIN is hashed with 64-bit FNV-1a over its ASCII digits. The hash {@code h} is split into
+ * {@code h1 = h} and {@code h2 = (h >>> 32) | 1} and bit positions are calculated as
+ * {@code ((h1 + i * h2) & 0x7FFFFFFFFFFFFFFF) mod m}, for {@code i} from 0 to number of hash
+ * functions - 1. All arithmetic is 64-bit with overflow.
+ */
+class PinDictionary {
+
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int BUCKET_HEADER_SIZE = 8;
+    private static final int MAX_HASH_COUNT = 32;
+    private static final int MAX_BUCKET_COUNT = 16;
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private final @NonNull ByteBuffer buffer;
+    private final int hashCount;
+    private final int bucketCount;
+    private final int[] bucketRanks;
+    private final int[] bucketOffsets;
+    private final long[] bucketBits;
+
+    /**
+     * Construct dictionary with dictionary data.
+     * @param buffer Buffer with dictionary data.
+     * @throws WrapperException In case that dictionary has invalid format.
+     */
+    private PinDictionary(@NonNull ByteBuffer buffer) throws WrapperException {
+        this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+        final int limit = buffer.limit();
+        if (limit < HEADER_SIZE
+                || buffer.get(0) != 'P' || buffer.get(1) != 'A' || buffer.get(2) != 'P' || buffer.get(3) != 'D'
+                || buffer.get(4) != VERSION || buffer.get(7) != 0) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid PIN dictionary");
+        }
+        hashCount = buffer.get(5) & 0xFF;
+        bucketCount = buffer.get(6) & 0xFF;
+        if (hashCount < 1 || hashCount > MAX_HASH_COUNT || bucketCount < 1 || bucketCount > MAX_BUCKET_COUNT) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid PIN dictionary");
+        }
+        bucketRanks = new int[bucketCount];
+        bucketOffsets = new int[bucketCount];
+        bucketBits = new long[bucketCount];
+        long offset = HEADER_SIZE;
+        for (int i = 0; i < bucketCount; i++) {
+            if (offset + BUCKET_HEADER_SIZE > limit) {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid PIN dictionary");
+            }
+            final int rank = buffer.getInt((int) offset);
+            final long bits = buffer.getInt((int) offset + 4) & 0xFFFFFFFFL;
+            offset += BUCKET_HEADER_SIZE;
+            if (rank <= 0 || bits == 0 || (bits & 7) != 0 || offset + bits / 8 > limit) {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid PIN dictionary");
+            }
+            bucketRanks[i] = rank;
+            bucketOffsets[i] = (int) offset;
+            bucketBits[i] = bits;
+            offset += bits / 8;
+        }
+    }
+
+    /**
+     * Load dictionary from the file.
+     * @param context Android context.
+     * @param source Path or URI to dictionary file. Use {@code asset:///name} to load dictionary
+     *               from application assets. The asset must be stored uncompressed in APK.
+     * @return Loaded dictionary.
+     * @throws WrapperException In case that dictionary cannot be loaded.
+     */
+    @NonNull
+    static PinDictionary load(@NonNull Context context, @Nullable String source) throws WrapperException {
+        final ByteBuffer buffer;
+        try {
+            if (source != null && source.startsWith("asset:///")) {
+                try (AssetFileDescriptor fd = context.getAssets().openFd(source.substring(9));
+                     FileInputStream stream = new FileInputStream(fd.getFileDescriptor())) {
+                    buffer = stream.getChannel().map(FileChannel.MapMode.READ_ONLY, fd.getStartOffset(), fd.getLength());
+                }
+            } else {
+                try (FileChannel channel = FileChannels.openForReading(context, source)) {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            }
+        } catch (IOException e) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Failed to load PIN dictionary", e);
+        }
+        return parse(buffer);
+    }
+
+    /**
+     * Parse dictionary from the buffer.
+     * @param buffer Buffer with dictionary data, typically mapped from file.
+     * @return Parsed dictionary.
+     * @throws WrapperException In case that dictionary has invalid format.
+     */
+    @NonNull
+    static PinDictionary parse(@NonNull ByteBuffer buffer) throws WrapperException {
+        return new PinDictionary(buffer);
+    }
+
+    /**
+     * Get frequency rank of PIN.
+     * @param pin Buffer with PIN.
+     * @param pinLength Length of PIN in the buffer.
+     * @return Frequency rank of the bucket containing PIN or 0 if PIN is not in the dictionary.
+     */
+    int getRank(@NonNull byte[] pin, int pinLength) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < pinLength; i++) {
+            hash ^= pin[i] & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        final long h1 = hash;
+        final long h2 = (hash >>> 32) | 1;
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            final int offset = bucketOffsets[bucket];
+            final long bits = bucketBits[bucket];
+            boolean found = true;
+            for (int i = 0; i < hashCount && found; i++) {
+                final long bit = ((h1 + i * h2) & Long.MAX_VALUE) % bits;
+                found = (buffer.get(offset + (int) (bit >>> 3)) & (1 << (bit & 7))) != 0;
+            }
+            if (found) {
+                return bucketRanks[bucket];
+            }
+        }
+        return 0;
+    }
+}
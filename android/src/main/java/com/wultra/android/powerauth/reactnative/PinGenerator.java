@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The {@code PinGenerator} class generates random PINs that pass all {@link PinTester} checks.
+ * Candidates are generated with {@link SecureRandom} and tested in parallel in the common
+ * fork-join pool.
+ */
+class PinGenerator {
+
+    /**
+     * Maximum number of PINs that can be requested at once.
+     */
+    static final int MAX_COUNT = 100;
+    /**
+     * Maximum number of candidates tested for each requested PIN.
+     */
+    private static final int MAX_ATTEMPTS_PER_PIN = 1000;
+    /**
+     * Number of PINs generated by one task without further splitting.
+     */
+    private static final int TASK_SIZE = 4;
+
+    /**
+     * Generate PINs without any weakness.
+     * @param length Length of PIN.
+     * @param count Number of PINs to generate.
+     * @param pinTester Tester configured with the application's PIN policy and dictionary.
+     * @return List with unique PINs.
+     * @throws WrapperException In case of invalid parameters or if enough PINs cannot be generated.
+     */
+    @NonNull
+    static List<String> suggestPins(int length, int count, @NonNull PinTester pinTester) throws WrapperException {
+        if (length < PinTester.PIN_MIN_LENGTH || length > PinTester.PIN_MAX_LENGTH) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid PIN length");
+        }
+        if (count < 1 || count > MAX_COUNT) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid number of PINs");
+        }
+        // Generate a few more PINs than requested, so duplicates can be dropped.
+        final List<String> generated = ForkJoinPool.commonPool().invoke(new GenerateTask(length, count + count / 4 + 1, pinTester));
+        final LinkedHashSet<String> unique = new LinkedHashSet<>(generated);
+        if (unique.size() < count) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Not enough strong PINs with requested length");
+        }
+        final List<String> result = new ArrayList<>(count);
+        for (String pin : unique) {
+            if (result.size() == count) {
+                break;
+            }
+            result.add(pin);
+        }
+        return result;
+    }
+
+    /**
+     * Task that generates PINs, or splits the work into two subtasks.
+     */
+    private static class GenerateTask extends RecursiveTask<List<String>> {
+        private final int length;
+        private final int count;
+        private final PinTester pinTester;
+
+        GenerateTask(int length, int count, PinTester pinTester) {
+            this.length = length;
+            this.count = count;
+            this.pinTester = pinTester;
+        }
+
+        @Override
+        protected List<String> compute() {
+            if (count > TASK_SIZE) {
+                final GenerateTask first = new GenerateTask(length, count / 2, pinTester);
+                final GenerateTask second = new GenerateTask(length, count - count / 2, pinTester);
+                first.fork();
+                final List<String> result = second.compute();
+                result.addAll(first.join());
+                return result;
+            }
+            final SecureRandom random = new SecureRandom();
+            final byte[] candidate = new byte[length];
+            final List<String> result = new ArrayList<>(count);
+            for (int attempt = 0; attempt < count * MAX_ATTEMPTS_PER_PIN && result.size() < count; attempt++) {
+                for (int i = 0; i < length; i++) {
+                    candidate[i] = (byte) ('0' + random.nextInt(10));
+                }
+                if (pinTester.testPin(candidate, length) == PinTester.RES_OK) {
+                    result.add(new String(candidate, 0, length, StandardCharsets.US_ASCII));
+                }
+            }
+            Arrays.fill(candidate, (byte) 0);
+            return result;
+        }
+    }
+}
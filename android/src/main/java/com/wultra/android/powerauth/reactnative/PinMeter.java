@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import androidx.annotation.NonNull;
+import io.getlime.security.powerauth.core.Password;
+
+/**
+ * The {@code PinMeter} class evaluates strength of PIN while it's typed into {@code Password}
+ * object. The meter doesn't keep any copy of typed characters. The PIN is tested inside
+ * {@code Password.validatePasswordComplexity()}, so the plaintext exists only in the temporary
+ * buffer provided by the password object. Each edit applied to the password invalidates the result,
+ * and the result is cached until the next edit, so the repeated reads of the strength between edits
+ * don't test the PIN again.
+ * <p>
+ * The meter is guarded by the lock of the password object it's attached to.
+ */
+class PinMeter {
+
+    /**
+     * Marker for result that is not evaluated yet.
+     */
+    private static final int RESULT_NONE = -1;
+
+    private int result = RESULT_NONE;
+    private int pinLength;
+    private int frequencyRank;
+    private PinTester resultTester;
+
+    /**
+     * Invalidate the result after the password was changed.
+     */
+    void invalidate() {
+        result = RESULT_NONE;
+        resultTester = null;
+    }
+
+    /**
+     * Evaluate strength of PIN stored in the password. The result is cached until the next edit or
+     * until the application changes PIN policy or dictionary, which replaces the tester.
+     * @param password Password object this meter is attached to. The caller must hold its lock.
+     * @param pinTester Tester configured with the application's PIN policy and dictionary.
+     * @return Combination of {@code PinTester.RES_*} constants.
+     */
+    int getResult(@NonNull Password password, @NonNull PinTester pinTester) {
+        if (result == RESULT_NONE || resultTester != pinTester) {
+            final int[] rank = new int[1];
+            final int resultAndLength = password.validatePasswordComplexity(passwordBytes -> {
+                final int testResult = pinTester.testPin(passwordBytes);
+                if ((testResult & PinTester.RES_FREQUENTLY_USED) != 0) {
+                    rank[0] = pinTester.lookupRank(passwordBytes, passwordBytes.length);
+                }
+                return testResult | ((passwordBytes.length & 0xFFF) << 16);
+            });
+            result = resultAndLength & 0xFFFF;
+            pinLength = resultAndLength >> 16;
+            frequencyRank = rank[0];
+            resultTester = pinTester;
+        }
+        return result;
+    }
+
+    /**
+     * @return Length of PIN evaluated in the last {@link #getResult(Password, PinTester)} call.
+     */
+    int getPinLength() {
+        return pinLength;
+    }
+
+    /**
+     * @return Frequency rank of PIN evaluated in the last {@link #getResult(Password, PinTester)} call,
+     *         or 0 if PIN is not in the dictionary.
+     */
+    int getFrequencyRank() {
+        return frequencyRank;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import android.content.Context;
+import android.view.Gravity;
+import android.view.View;
+import android.widget.Button;
+import android.widget.GridLayout;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.getlime.security.powerauth.core.Password;
+
+/**
+ * The {@code PinPadView} class is a native PIN pad that appends digits directly into
+ * {@code Password} object stored in the object register. The typed digits never leave
+ * the native code, the view only reports the password length to its listener. Edits are also
+ * reported to PIN meter attached to the password, if there's such meter.
+ */
+class PinPadView extends GridLayout {
+
+    /**
+     * Listener that receives changes of the password.
+     */
+    interface Listener {
+        /**
+         * Called when password's length changed.
+         * @param view PIN pad view.
+         * @param password Password object.
+         * @param length Length of password after the edit.
+         */
+        void onLengthChange(@NonNull PinPadView view, @NonNull Password password, int length);
+
+        /**
+         * Called when password reached the maximum length.
+         * @param view PIN pad view.
+         * @param password Password object.
+         * @param length Length of password after the edit.
+         */
+        void onComplete(@NonNull PinPadView view, @NonNull Password password, int length);
+    }
+
+    private static final String BACKSPACE_LABEL = "\u232B";
+
+    private final @Nullable ObjectRegister objectRegister;
+    private final @Nullable PowerAuthPasswordModule passwordModule;
+    private @Nullable Listener listener;
+    private @Nullable String passwordObjectId;
+    private int maxLength;
+
+    PinPadView(@NonNull Context context, @Nullable ObjectRegister objectRegister, @Nullable PowerAuthPasswordModule passwordModule) {
+        super(context);
+        this.objectRegister = objectRegister;
+        this.passwordModule = passwordModule;
+        setColumnCount(3);
+        // Ignore touches when the view is obscured by another window.
+        setFilterTouchesWhenObscured(true);
+        for (int digit = 1; digit <= 9; digit++) {
+            addKey(String.valueOf(digit), createDigitListener(digit));
+        }
+        addKey("", null);
+        addKey("0", createDigitListener(0));
+        addKey(BACKSPACE_LABEL, v -> removeLastDigit());
+    }
+
+    /**
+     * Set listener that receives changes of the password.
+     * @param listener Listener or null.
+     */
+    void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Set identifier of password object that receives typed digits.
+     * @param passwordObjectId Password object identifier.
+     */
+    void setPasswordObjectId(@Nullable String passwordObjectId) {
+        this.passwordObjectId = passwordObjectId;
+    }
+
+    /**
+     * Set maximum number of digits. If zero, then the length is not limited.
+     * @param maxLength Maximum number of digits.
+     */
+    void setMaxLength(int maxLength) {
+        this.maxLength = Math.max(0, maxLength);
+    }
+
+    // Private methods
+
+    private void addKey(@NonNull String label, @Nullable View.OnClickListener onClick) {
+        final Button button = new Button(getContext());
+        button.setText(label);
+        button.setGravity(Gravity.CENTER);
+        button.setFilterTouchesWhenObscured(true);
+        if (onClick != null) {
+            button.setOnClickListener(onClick);
+        } else {
+            button.setEnabled(false);
+            button.setVisibility(View.INVISIBLE);
+        }
+        final LayoutParams params = new LayoutParams(GridLayout.spec(GridLayout.UNDEFINED, 1f), GridLayout.spec(GridLayout.UNDEFINED, 1f));
+        params.width = 0;
+        params.height = 0;
+        addView(button, params);
+    }
+
+    @NonNull
+    private View.OnClickListener createDigitListener(int digit) {
+        return v -> appendDigit(digit);
+    }
+
+    private void appendDigit(int digit) {
+        final Password password = findPassword();
+        if (password == null) {
+            return;
+        }
+        final int length;
+        // The password can be edited from JavaScript at the same time, so the length check
+        // and the edit must be done while holding the password's monitor.
+        synchronized (password) {
+            if (maxLength > 0 && password.length() >= maxLength) {
+                return;
+            }
+            if (passwordModule != null) {
+                passwordModule.addCharacter(password, '0' + digit);
+            } else {
+                password.addCharacter('0' + digit);
+            }
+            length = password.length();
+        }
+        notifyChange(password, length);
+    }
+
+    private void removeLastDigit() {
+        final Password password = findPassword();
+        if (password == null) {
+            return;
+        }
+        final int length;
+        synchronized (password) {
+            if (password.length() == 0) {
+                return;
+            }
+            if (passwordModule != null) {
+                passwordModule.removeLastCharacter(password);
+            } else {
+                password.removeLastCharacter();
+            }
+            length = password.length();
+        }
+        notifyChange(password, length);
+    }
+
+    private void notifyChange(@NonNull Password password, int length) {
+        final Listener listener = this.listener;
+        if (listener != null) {
+            listener.onLengthChange(this, password, length);
+            if (maxLength > 0 && length == maxLength) {
+                listener.onComplete(this, password, length);
+            }
+        }
+    }
+
+    @Nullable
+    private Password findPassword() {
+        if (objectRegister == null) {
+            return null;
+        }
+        return objectRegister.touchObject(passwordObjectId, Password.class);
+    }
+}
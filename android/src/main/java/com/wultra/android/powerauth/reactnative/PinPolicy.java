@@ -0,0 +1,209 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The {@code PinPolicy} class is a compiled form of PIN policy provided by the application.
+ * The policy determines which {@link PinTester} checks are evaluated, thresholds used by the
+ * checks and which issues make the PIN weak. Checks that are not enabled in the policy are
+ * not evaluated at all.
+ * <p>
+ * The policy is provided as a map with the following optional keys:
+ * <ul>
+ *     <li>{@code checks} - array with issues to evaluate. All issues are evaluated by default.</li>
+ *     <li>{@code minUniqueDigits} - minimum number of unique digits. By default 3 for PINs up
+ *         to 7 digits and 4 for longer PINs.</li>
+ *     <li>{@code maxPatternDigits} - maximum number of digits in patterns. By default 2 for PINs
+ *         up to 5 digits, 3 for 6 digits, 4 for 7 and 8 digits and half of length for longer PINs.</li>
+ *     <li>{@code weakRules} - array of rules with {@code maxLength} and {@code issues} keys. The first
+ *         rule with {@code maxLength} greater or equal to PIN length, or without {@code maxLength},
+ *         determines issues that make the PIN weak.</li>
+ * </ul>
+ * Issues are identified by the same strings as reported by {@code testPin}.
+ */
+class PinPolicy {
+
+    /**
+     * Value for thresholds that use the default length-dependent value.
+     */
+    private static final int DEFAULT_THRESHOLD = -1;
+
+    /**
+     * Default policy.
+     */
+    static final PinPolicy DEFAULT = new PinPolicy(
+            PinTester.RES_NOT_UNIQUE | PinTester.RES_REPEATING_CHARS | PinTester.RES_HAS_PATTERN | PinTester.RES_POSSIBLY_DATE | PinTester.RES_FREQUENTLY_USED,
+            DEFAULT_THRESHOLD,
+            DEFAULT_THRESHOLD,
+            new int[] { 4, 6, Integer.MAX_VALUE },
+            new int[] {
+                    PinTester.RES_FREQUENTLY_USED | PinTester.RES_NOT_UNIQUE,
+                    PinTester.RES_FREQUENTLY_USED | PinTester.RES_NOT_UNIQUE | PinTester.RES_REPEATING_CHARS,
+                    PinTester.RES_FREQUENTLY_USED | PinTester.RES_NOT_UNIQUE | PinTester.RES_REPEATING_CHARS | PinTester.RES_HAS_PATTERN
+            });
+
+    /**
+     * Combination of RES_* flags that are evaluated.
+     */
+    final int checks;
+    private final int minUniqueDigits;
+    private final int maxPatternDigits;
+    private final int[] weakMaxLengths;
+    private final int[] weakMasks;
+
+    private PinPolicy(int checks, int minUniqueDigits, int maxPatternDigits, @NonNull int[] weakMaxLengths, @NonNull int[] weakMasks) {
+        this.checks = checks;
+        this.minUniqueDigits = minUniqueDigits;
+        this.maxPatternDigits = maxPatternDigits;
+        this.weakMaxLengths = weakMaxLengths;
+        this.weakMasks = weakMasks;
+    }
+
+    /**
+     * Determine whether the check is evaluated.
+     * @param check RES_* flag representing the check.
+     * @return true if check is evaluated.
+     */
+    boolean isEnabled(int check) {
+        return (checks & check) != 0;
+    }
+
+    /**
+     * @return true if policy uses the default thresholds, so precomputed results can be used.
+     */
+    boolean hasDefaultThresholds() {
+        return minUniqueDigits == DEFAULT_THRESHOLD && maxPatternDigits == DEFAULT_THRESHOLD;
+    }
+
+    /**
+     * Get minimum number of unique digits for PIN with given length.
+     * @param pinLength Length of PIN.
+     * @return Minimum number of unique digits.
+     */
+    int getMinUniqueDigits(int pinLength) {
+        if (minUniqueDigits != DEFAULT_THRESHOLD) {
+            return minUniqueDigits;
+        }
+        return pinLength <= 7 ? 3 : 4;
+    }
+
+    /**
+     * Get maximum number of digits in patterns for PIN with given length.
+     * @param pinLength Length of PIN.
+     * @return Maximum number of digits in patterns.
+     */
+    int getMaxPatternDigits(int pinLength) {
+        if (maxPatternDigits != DEFAULT_THRESHOLD) {
+            return maxPatternDigits;
+        }
+        if (pinLength <= 5) {
+            return 2;
+        } else if (pinLength <= 6) {
+            return 3;
+        } else if (pinLength <= 8) {
+            return 4;
+        }
+        return pinLength / 2;
+    }
+
+    /**
+     * Determine whether PIN with the result should be reported as weak.
+     * @param result Combination of RES_* constants.
+     * @param pinLength Length of PIN.
+     * @return true if PIN is weak.
+     */
+    boolean isWeak(int result, int pinLength) {
+        for (int i = 0; i < weakMaxLengths.length; i++) {
+            if (pinLength <= weakMaxLengths[i]) {
+                return (result & weakMasks[i]) != 0;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compile policy from the map provided by the application.
+     * @param map Map with policy.
+     * @return Compiled policy.
+     * @throws WrapperException In case that policy is invalid.
+     */
+    @NonNull
+    static PinPolicy compile(@NonNull ReadableMap map) throws WrapperException {
+        final int checks = map.hasKey("checks") ? parseIssues(map.getArray("checks")) : DEFAULT.checks;
+        final int minUniqueDigits = map.hasKey("minUniqueDigits") ? map.getInt("minUniqueDigits") : DEFAULT_THRESHOLD;
+        final int maxPatternDigits = map.hasKey("maxPatternDigits") ? map.getInt("maxPatternDigits") : DEFAULT_THRESHOLD;
+        if ((minUniqueDigits != DEFAULT_THRESHOLD && (minUniqueDigits < 1 || minUniqueDigits > 10))
+                || (maxPatternDigits != DEFAULT_THRESHOLD && maxPatternDigits < 0)) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid threshold in PIN policy");
+        }
+        if (!map.hasKey("weakRules")) {
+            return new PinPolicy(checks, minUniqueDigits, maxPatternDigits, DEFAULT.weakMaxLengths, DEFAULT.weakMasks);
+        }
+        final ReadableArray rules = map.getArray("weakRules");
+        if (rules == null) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid weak rules in PIN policy");
+        }
+        final int[] weakMaxLengths = new int[rules.size()];
+        final int[] weakMasks = new int[rules.size()];
+        for (int i = 0; i < rules.size(); i++) {
+            final ReadableMap rule = rules.getMap(i);
+            if (rule == null || !rule.hasKey("issues")) {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid weak rule in PIN policy");
+            }
+            weakMaxLengths[i] = rule.hasKey("maxLength") ? rule.getInt("maxLength") : Integer.MAX_VALUE;
+            // Issues that are not evaluated can never make the PIN weak.
+            weakMasks[i] = parseIssues(rule.getArray("issues")) & checks;
+        }
+        return new PinPolicy(checks, minUniqueDigits, maxPatternDigits, weakMaxLengths, weakMasks);
+    }
+
+    /**
+     * Convert array of issue names into combination of RES_* flags.
+     * @param issues Array of issue names.
+     * @return Combination of RES_* flags.
+     * @throws WrapperException In case of unknown issue.
+     */
+    private static int parseIssues(@Nullable ReadableArray issues) throws WrapperException {
+        if (issues == null) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Missing issues in PIN policy");
+        }
+        int flags = 0;
+        for (int i = 0; i < issues.size(); i++) {
+            final String issue = issues.getString(i);
+            if ("NOT_UNIQUE".equals(issue)) {
+                flags |= PinTester.RES_NOT_UNIQUE;
+            } else if ("REPEATING_CHARS".equals(issue)) {
+                flags |= PinTester.RES_REPEATING_CHARS;
+            } else if ("PATTERN_FOUND".equals(issue)) {
+                flags |= PinTester.RES_HAS_PATTERN;
+            } else if ("POSSIBLY_DATE".equals(issue)) {
+                flags |= PinTester.RES_POSSIBLY_DATE;
+            } else if ("FREQUENTLY_USED".equals(issue)) {
+                flags |= PinTester.RES_FREQUENTLY_USED;
+            } else {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Unknown issue in PIN policy");
+            }
+        }
+        return flags;
+    }
+}
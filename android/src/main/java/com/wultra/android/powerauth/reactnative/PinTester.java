@@ -19,6 +19,7 @@ package com.wultra.android.powerauth.reactnative;
 import java.util.Calendar;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 /**
  * The {@code PinTester} class implements PIN strength validation. The implementation is based on
@@ -30,9 +31,58 @@ class PinTester {
      * Current year.
      */
     private final int currentYear;
+    /**
+     * Policy used by this tester.
+     */
+    private final @NonNull PinPolicy policy;
+    /**
+     * Optional dictionary of breached PINs.
+     */
+    private final @Nullable PinDictionary dictionary;
+
+    /**
+     * Construct tester with the policy and without dictionary of breached PINs.
+     * @param policy Policy to use.
+     */
+    PinTester(@NonNull PinPolicy policy) {
+        this(policy, null);
+    }
 
-    PinTester() {
+    /**
+     * Construct tester with the policy and dictionary of breached PINs.
+     * @param policy Policy to use.
+     * @param dictionary Dictionary of breached PINs or null if no dictionary is loaded.
+     */
+    PinTester(@NonNull PinPolicy policy, @Nullable PinDictionary dictionary) {
         this.currentYear = Calendar.getInstance().get(Calendar.YEAR);
+        this.policy = policy;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * @return Policy used by this tester.
+     */
+    @NonNull
+    PinPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * @return Dictionary of breached PINs or null if no dictionary is loaded.
+     */
+    @Nullable
+    PinDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Get frequency rank of PIN from the dictionary of breached PINs.
+     * @param pin Buffer with PIN.
+     * @param pinLength Length of PIN in the buffer.
+     * @return Frequency rank or 0 if PIN is not in the dictionary or if no dictionary is loaded.
+     */
+    int lookupRank(@NonNull byte[] pin, int pinLength) {
+        return dictionary != null ? dictionary.getRank(pin, pinLength) : 0;
     }
 
     static final int PIN_MIN_LENGTH         = 4;
@@ -55,45 +105,84 @@ class PinTester {
      * @return Combination of RES_* constants.
      */
     int testPin(@NonNull byte[] pin) {
-        int result = isValidPIN(pin);
+        return testPin(pin, pin != null ? pin.length : 0);
+    }
+
+    /**
+     * Test strength of PIN stored at the beginning of provided buffer. The function allows
+     * to test PIN kept in a reusable buffer that is longer than the PIN.
+     * @param pin Buffer with PIN to test.
+     * @param pinLength Length of PIN in the buffer.
+     * @return Combination of RES_* constants.
+     */
+    int testPin(@NonNull byte[] pin, int pinLength) {
+        int result = isValidPIN(pin, pinLength);
         if (result != RES_OK) {
             return result;
         }
-        if (isFrequentlyUsed(pin)) {
+        // Use precomputed result for common PIN lengths, if available and if computed
+        // with the same thresholds.
+        result = policy.hasDefaultThresholds() ? PinWeaknessTable.lookup(pin, pinLength) : -1;
+        if (result < 0) {
+            result = testDateIndependent(pin, pinLength, policy);
+        } else {
+            result &= policy.checks;
+        }
+        if (policy.isEnabled(RES_FREQUENTLY_USED)) {
+            // Check the optional dictionary of breached PINs.
+            if ((result & RES_FREQUENTLY_USED) == 0 && lookupRank(pin, pinLength) > 0) {
+                result |= RES_FREQUENTLY_USED;
+            }
+        }
+        if (policy.isEnabled(RES_POSSIBLY_DATE) && !isDateOK(pin, pinLength)) {
+            result |= RES_POSSIBLY_DATE;
+        }
+        return result;
+    }
+
+    /**
+     * Run all checks that doesn't depend on the current date on a valid PIN. Only checks
+     * enabled in the policy are evaluated.
+     * @param pin Buffer with valid PIN.
+     * @param pinLength Length of PIN in the buffer.
+     * @param policy Policy that determines checks and thresholds.
+     * @return Combination of RES_* constants, except {@link #RES_POSSIBLY_DATE}.
+     */
+    int testDateIndependent(@NonNull byte[] pin, int pinLength, @NonNull PinPolicy policy) {
+        int result = RES_OK;
+        if (policy.isEnabled(RES_FREQUENTLY_USED) && isFrequentlyUsed(pin, pinLength)) {
             result |= RES_FREQUENTLY_USED;
         }
-        if (!isUniqueOK(pin)) {
+        if (policy.isEnabled(RES_NOT_UNIQUE) && !isUniqueOK(pin, pinLength, policy)) {
             result |= RES_NOT_UNIQUE;
         }
-        if (!isRepeatingOK(pin)) {
+        if (policy.isEnabled(RES_REPEATING_CHARS) && !isRepeatingOK(pin, pinLength)) {
             result |= RES_REPEATING_CHARS;
         }
-        if (!isPatternOK(pin)) {
+        if (policy.isEnabled(RES_HAS_PATTERN) && !isPatternOK(pin, pinLength, policy)) {
             result |= RES_HAS_PATTERN;
         }
-        if (!isDateOK(pin)) {
-            result |= RES_POSSIBLY_DATE;
-        }
         return result;
     }
 
     /**
      * Test whether byte array contains only digits and has a right length.
      * @param pin PIN to test.
+     * @param pinLength Length of PIN.
      * @return RES_OK if PIN is valid, otherwise RES_* error code.
      */
-    private int isValidPIN(byte[] pin) {
-        if (pin == null) {
+    private int isValidPIN(byte[] pin, int pinLength) {
+        if (pin == null || pinLength > pin.length) {
             return RES_WRONG_INPUT;
         }
-        if (pin.length < PIN_MIN_LENGTH) {
+        if (pinLength < PIN_MIN_LENGTH) {
             return RES_TOO_SHORT;
         }
-        if (pin.length > PIN_MAX_LENGTH) {
+        if (pinLength > PIN_MAX_LENGTH) {
             return RES_WRONG_INPUT;
         }
-        for (byte b : pin) {
-            if (b < '0' || b > '9') {
+        for (int i = 0; i < pinLength; i++) {
+            if (pin[i] < '0' || pin[i] > '9') {
                 return RES_WRONG_INPUT;
             }
         }
@@ -123,16 +212,82 @@ class PinTester {
         "2222222", "13131313", "012345678", "7894561230", "42069", "007007", "5555555", "10041004", "123698745", "1234567891"
     };
 
+    /**
+     * Maximum length of PIN in {@link #mostUsedPins}.
+     */
+    private static final int MOST_USED_MAX_LENGTH = 10;
+
+    /**
+     * Open addressing hash table with {@link #mostUsedPins}. Each PIN is stored as its numeric
+     * value combined with its length, so PINs with leading zeros are distinguished. Zero marks
+     * an empty slot.
+     */
+    private static final long[] mostUsedPinsTable = createMostUsedPinsTable();
+
+    /**
+     * Create hash table with {@link #mostUsedPins}.
+     * @return Hash table with keys.
+     */
+    @NonNull
+    private static long[] createMostUsedPinsTable() {
+        int size = 16;
+        while (size < mostUsedPins.length * 2) {
+            size <<= 1;
+        }
+        final long[] table = new long[size];
+        for (String s : mostUsedPins) {
+            final long key = mostUsedPinKey(s.length(), Long.parseLong(s));
+            int slot = mostUsedPinSlot(key, size);
+            while (table[slot] != 0 && table[slot] != key) {
+                slot = (slot + 1) & (size - 1);
+            }
+            table[slot] = key;
+        }
+        return table;
+    }
+
+    /**
+     * Create key to hash table with most used PINs.
+     * @param length Length of PIN.
+     * @param value Numeric value of PIN.
+     * @return Key to the hash table.
+     */
+    private static long mostUsedPinKey(int length, long value) {
+        return (value << 4) | length;
+    }
+
+    /**
+     * Calculate initial slot in hash table for the key.
+     * @param key Key to the hash table.
+     * @param size Size of hash table, must be power of two.
+     * @return Slot in hash table.
+     */
+    private static int mostUsedPinSlot(long key, int size) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & (size - 1);
+    }
+
     /**
      * Test if the PIN is among the most used ones.
      * @param pin PIN to test.
+     * @param pinLength Length of PIN.
      * @return true if PIN is frequently used.
      */
-    private boolean isFrequentlyUsed(@NonNull byte[] pin) {
-        for (String s: mostUsedPins) {
-            if (compareStrPin(pin, s)) {
+    private boolean isFrequentlyUsed(@NonNull byte[] pin, int pinLength) {
+        if (pinLength > MOST_USED_MAX_LENGTH) {
+            return false;
+        }
+        long value = 0;
+        for (int i = 0; i < pinLength; i++) {
+            value = value * 10 + (pin[i] - '0');
+        }
+        final long key = mostUsedPinKey(pinLength, value);
+        final long[] table = mostUsedPinsTable;
+        int slot = mostUsedPinSlot(key, table.length);
+        while (table[slot] != 0) {
+            if (table[slot] == key) {
                 return true;
             }
+            slot = (slot + 1) & (table.length - 1);
         }
         return false;
     }
@@ -143,33 +298,28 @@ class PinTester {
      * Test if given pin has enough unique digits inside.
      * For example for pin 1122 returns false, it only contains 2 unique digits.
      * @param pin PIN to test.
+     * @param pinLength Length of PIN.
+     * @param policy Policy with the minimum number of unique digits.
      * @return true if the are enough unique digits.
      */
-    private boolean isUniqueOK(@NonNull byte[] pin) {
-        return uniqueDigitsCount(pin) >= (pin.length <= 7 ? 3 : 4);
+    private boolean isUniqueOK(@NonNull byte[] pin, int pinLength, @NonNull PinPolicy policy) {
+        return uniqueDigitsCount(pin, pinLength) >= policy.getMinUniqueDigits(pinLength);
     }
 
     /**
      * Calculates how many different digits are in the array.
      * For example in array {1,5,6,5} there are 3 unique integer 1,5,6.
      * @param pin PIN to test.
+     * @param pinLength Length of PIN.
      * @return Number of unique digits in PIN.
      */
-    private int uniqueDigitsCount(@NonNull byte[] pin) {
-        final int digitsCount = pin.length;
-        // The first assumption is that all digits are unique.
-        int uniqueDigits = digitsCount;
-        // Verify every digit with the following digits.
-        for (int i = 0; i < digitsCount; i++) {
-            for (int u = i + 1; u < digitsCount; u++) {
-                // If the same digits are found, mark this digit as not unique
-                if (pin[i] == pin[u]) {
-                    uniqueDigits--;
-                    break;
-                }
-            }
+    private int uniqueDigitsCount(@NonNull byte[] pin, int pinLength) {
+        // Mark each digit found in PIN in a bit mask and count the marked digits.
+        int digitsMask = 0;
+        for (int i = 0; i < pinLength; i++) {
+            digitsMask |= 1 << (pin[i] - '0');
         }
-        return uniqueDigits;
+        return Integer.bitCount(digitsMask);
     }
 
     // Repeating chars
@@ -177,35 +327,47 @@ class PinTester {
     /**
      * Searches for repeating digits in the pin. For example, 692692 is repeating.
      * @param pin PIN to test.
+     * @param pinLength Length of PIN.
      * @return true if there are enough unique digits.
      */
-    private boolean isRepeatingOK(@NonNull byte[] pin) {
+    private boolean isRepeatingOK(@NonNull byte[] pin, int pinLength) {
         // this is the biggest length of a possible repeating pattern
-        final int maxLength = pin.length / 2;
+        final int maxLength = pinLength / 2;
+        if (maxLength < 2) {
+            return true;
+        }
 
         // How many groups can be tested
         final int maxGroups = PIN_MAX_LENGTH / 2;
 
+        // Prepare tables, so any two groups can be compared in constant time.
+        final MatchTables tables = matchTables.get();
+        tables.prepare(pin, pinLength);
+        final int stride = pinLength + 1;
+        final byte[] forward = tables.forward;
+        final byte[] reverse = tables.reverse;
+
         // how many digits were found that are in patterns
         int digitsRepeating = 0;
 
-        // groups that were tested
+        // starts of groups that were tested, all groups with the current length are stored
+        // behind the firstGroup index
         int groupsTestedCount = 0;
-        final Range[] groupsTested = new Range[maxGroups];
+        final int[] groupsTested = tables.testedGroups;
 
         // start searching for patterns with various lengths
         for (int length = 2; length <= maxLength; length++) {
+            final int firstGroup = groupsTestedCount;
 
             // start searching for parts of the pin that could be repeated
             // following comments will be explaining searching in pin "12312" for length 2
             int start = 0;
-            while (start + length <= pin.length - length) {
+            while (start + length <= pinLength - length) {
                 boolean groupWasTested = false;
                 // check if this group was already tested
-                for (int group = 0; group < groupsTestedCount; group++) {
-
+                for (int group = firstGroup; group < groupsTestedCount; group++) {
                     // if the group was already tested, skip it
-                    if (groupsTested[group].length == length && arrayEquals(pin, start, pin, groupsTested[group].start, length)) {
+                    if (forward[start * stride + groupsTested[group]] >= length) {
                         groupWasTested = true;
                         break;
                     }
@@ -217,17 +379,16 @@ class PinTester {
                 if (groupsTestedCount >= maxGroups) {
                     return false;
                 }
-                groupsTested[groupsTestedCount] = new Range(start, length);
-                groupsTestedCount++;
+                groupsTested[groupsTestedCount++] = start;
 
                 boolean lastRepeatingFound = false;
 
                 // now start moving after the first group to search for repeating patterns
                 int searchStart = start + length;
-                while (searchStart + length <= pin.length) {
+                while (searchStart + length <= pinLength) {
                     // now check if the two groups are equals
                     // for the first loop {3,1}, they won't. for second {1,2}, they will. Also, we're checking for inverted order of the second group to potentially match {1,2,3,2,1}
-                    if (arrayEquals(pin, start, pin, searchStart, length) || arrayEqualsInv(pin, start, pin, searchStart, length)) {
+                    if (forward[start * stride + searchStart] >= length || reverse[start * stride + searchStart + length] >= length) {
                         // we found a repeating pattern! save how many digits are part of this pattern
                         digitsRepeating += length;
                         // move searchStart behind this pattern we just found
@@ -247,28 +408,84 @@ class PinTester {
             }
         }
 
-        return digitsRepeating <= uniqueDigitsCount(pin);
+        return digitsRepeating <= uniqueDigitsCount(pin, pinLength);
     }
 
-    private static class Range {
-        final int start;
-        final int length;
-        Range(int start, int length) {
-            this.start = start;
-            this.length = length;
+    /**
+     * Scratch tables used in {@link #isRepeatingOK(byte[], int)}. The tables are reused between
+     * the tests on the same thread, so the tester can be used from multiple threads at once.
+     */
+    private static final ThreadLocal<MatchTables> matchTables = new ThreadLocal<MatchTables>() {
+        @Override
+        protected MatchTables initialValue() {
+            return new MatchTables();
         }
-    }
+    };
 
+    /**
+     * Tables that allow to compare any two groups of digits in PIN in constant time.
+     */
+    private static class MatchTables {
+        /**
+         * Table with lengths of common prefixes of two suffixes of PIN. The value at
+         * {@code [a * (pinLength + 1) + b]} is the number of equal digits starting at
+         * positions {@code a} and {@code b}.
+         */
+        byte[] forward;
+        /**
+         * Table with lengths of matches between PIN read forward and PIN read backward. The value
+         * at {@code [a * (pinLength + 1) + b + 1]} is the number of equal digits when PIN is read
+         * forward from position {@code a} and backward from position {@code b}.
+         */
+        byte[] reverse;
+        /**
+         * Starts of groups tested in {@link PinTester#isRepeatingOK(byte[], int)}.
+         */
+        final int[] testedGroups = new int[PIN_MAX_LENGTH / 2];
+
+        /**
+         * Fill {@link #forward} and {@link #reverse} tables for PIN.
+         * @param pin PIN to process.
+         * @param pinLength Length of PIN.
+         */
+        void prepare(@NonNull byte[] pin, int pinLength) {
+            final int stride = pinLength + 1;
+            final int size = stride * stride;
+            if (forward == null || forward.length < size) {
+                forward = new byte[size];
+                reverse = new byte[size];
+            }
+            final byte[] forward = this.forward;
+            final byte[] reverse = this.reverse;
+            // Last row contains zeros, because there are no digits to compare.
+            for (int i = 0; i < stride; i++) {
+                forward[pinLength * stride + i] = 0;
+                reverse[pinLength * stride + i] = 0;
+            }
+            for (int a = pinLength - 1; a >= 0; a--) {
+                final int row = a * stride;
+                final int nextRow = row + stride;
+                forward[row + pinLength] = 0;
+                reverse[row] = 0;
+                for (int b = 0; b < pinLength; b++) {
+                    final boolean equal = pin[a] == pin[b];
+                    forward[row + b] = equal ? (byte) (forward[nextRow + b + 1] + 1) : 0;
+                    reverse[row + b + 1] = equal ? (byte) (reverse[nextRow + b] + 1) : 0;
+                }
+            }
+        }
+    }
 
     // Pattern
 
     /**
      * Searches for patterns in the pin. Patterns can be 1234, 3579, 5331, 2580, ...
      * @param pin PIN to test.
+     * @param pinLength Length of PIN.
+     * @param policy Policy with the maximum number of digits in patterns.
      * @return true if no patters were found.
      */
-    private boolean isPatternOK(@NonNull byte[] pin) {
-        final int pinLength = pin.length;
+    private boolean isPatternOK(@NonNull byte[] pin, int pinLength, @NonNull PinPolicy policy) {
         int totalSequence = 0;
 
         // start searching for a pattern for where each digit can be the start of the pattern
@@ -311,15 +528,7 @@ class PinTester {
                 index++;
             }
         }
-        if (pinLength <= 5) {
-            return totalSequence <= 2;
-        } else if (pinLength <= 6) {
-            return totalSequence <= 3;
-        } else if (pinLength <= 8) {
-            return totalSequence <= 4;
-        } else {
-            return totalSequence <= pinLength / 2;
-        }
+        return totalSequence <= policy.getMaxPatternDigits(pinLength);
     }
 
     // Date
@@ -333,20 +542,21 @@ class PinTester {
      * For years, it only checks years between CURRENTYEAR - 80
      *
      * @param pin PIN to test.
+     * @param pinLength Length of PIN.
      * @return true if PIN is not a date.
      */
-    private boolean isDateOK(@NonNull byte[] pin) {
-        switch (pin.length) {
+    private boolean isDateOK(@NonNull byte[] pin, int pinLength) {
+        switch (pinLength) {
             case 4:
                 // If the PIN could be date like 0304 (3rd of April or 4th of March)
                 // If the PIN could be valid year (like 1982), that could be year of birth
-                return !(parseDate(pin, "dm") || parseDate(pin, "md") || parseDate(pin, "Y"));
+                return !(parseDate(pin, pinLength, "dm") || parseDate(pin, pinLength, "md") || parseDate(pin, pinLength, "Y"));
             case 6:
                 // If the PIN could be a date with a year (like 121091 that could be 12th of October or 10th of December 1991)
-                return !(parseDate(pin, "dmy") || parseDate(pin, "mdy"));
+                return !(parseDate(pin, pinLength, "dmy") || parseDate(pin, pinLength, "mdy"));
             case 8:
                 // If the PIN could be a date with a year (like 12101991 that could be 12th of October or 10th of December 1991)
-                return !(parseDate(pin, "dmY") || parseDate(pin, "mdY"));
+                return !(parseDate(pin, pinLength, "dmY") || parseDate(pin, pinLength, "mdY"));
             default:
                 return true;
         }
@@ -359,16 +569,17 @@ class PinTester {
      * - "m" - month (01 ... 12)
      * - "d" - day (01 ... 31)
      * @param pin PIN to parse as date.
+     * @param pinLength Length of PIN.
      * @param format Format of the date.
      * @return true if date was properly parsed.
      */
-    private boolean parseDate(@NonNull byte[] pin, @NonNull String format) {
+    private boolean parseDate(@NonNull byte[] pin, int pinLength, @NonNull String format) {
         int year = -1;
         int month = -1;
         int day = -1;
 
         int pinIndex = 0;
-        for (int i = 0; i < format.length() && pinIndex < pin.length; ++i) {
+        for (int i = 0; i < format.length() && pinIndex < pinLength; ++i) {
             switch (format.charAt(i)) {
                 case 'Y':
                     year = parseYear(pin, pinIndex);
@@ -402,7 +613,7 @@ class PinTester {
                     throw new IllegalArgumentException("Invalid format: " + format);
             }
         }
-        if (pinIndex != pin.length) {
+        if (pinIndex != pinLength) {
             throw new IllegalStateException("Some digits are ignored");
         }
         if (day > 0 && month > 0) {
@@ -548,60 +759,4 @@ class PinTester {
         }
         return value;
     }
-
-    /**
-     * Compare two PIN, one in byte array form and second as string.
-     * @param a PIN in form of array of bytes.
-     * @param b PIN in string form.
-     * @return true if both PINs are equal.
-     */
-    private boolean compareStrPin(byte[] a, String b) {
-        if (a.length != b.length()) {
-            return false;
-        }
-        for (int i = 0; i < a.length; ++i) {
-            if (b.charAt(i) != a[i]) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    /**
-     * Compare two regions with the same length in two byte arrays.
-     * @param ar1 Array 1.
-     * @param ar1start Start index in array 1.
-     * @param ar2 Array 2.
-     * @param ar2start Start index in array 2.
-     * @param length Length of both regions to compare.
-     * @return true if both regions are equal.
-     */
-    private boolean arrayEquals(@NonNull byte[] ar1, int ar1start, @NonNull byte[] ar2, int ar2start, int length) {
-        for (int i = 0; i < length; i++) {
-            int ar2Index = ar2start + i;
-            if (ar1[ar1start + i] != ar2[ar2Index]) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    /**
-     * Compare two regions with the same length in two byte arrays. The 2nd array is processed in reverse order.
-     * @param ar1 Array 1.
-     * @param ar1start Start index in array 1.
-     * @param ar2 Array 2.
-     * @param ar2start Start index in array 2.
-     * @param length Length of both regions to compare.
-     * @return true if both regions are equal.
-     */
-    private boolean arrayEqualsInv(@NonNull byte[] ar1, int ar1start, @NonNull byte[] ar2, int ar2start, int length) {
-        for (int i = 0; i < length; i++) {
-            int ar2Index = ar2start + length - i - 1;
-            if (ar1[ar1start + i] != ar2[ar2Index]) {
-                return false;
-            }
-        }
-        return true;
-    }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The {@code PinWeaknessTable} class keeps precomputed results of {@link PinTester} checks for
+ * all 4 and 6 digit PINs. The table contains only checks that doesn't depend on the current date,
+ * so it never needs to be rebuilt. The date check is always evaluated by the tester.
+ * <p>
+ * Each PIN has a 4-bit entry in the table, indexed by the numeric value of PIN. The table for
+ * 4 digit PINs is built at the first use, the table for 6 digit PINs is built on a background
+ * thread and the tester uses the regular algorithm until the table is ready.
+ */
+class PinWeaknessTable {
+
+    /**
+     * Flags stored in the table.
+     */
+    static final int STORED_FLAGS = PinTester.RES_NOT_UNIQUE | PinTester.RES_REPEATING_CHARS | PinTester.RES_HAS_PATTERN | PinTester.RES_FREQUENTLY_USED;
+
+    private static volatile byte[] table4;
+    private static volatile byte[] table6;
+    private static boolean table6Requested;
+
+    /**
+     * Look up precomputed flags for PIN.
+     * @param pin Buffer with PIN containing only digits.
+     * @param pinLength Length of PIN.
+     * @return Combination of {@link #STORED_FLAGS} or -1 if there's no table for such PIN.
+     */
+    static int lookup(@NonNull byte[] pin, int pinLength) {
+        final byte[] table = getTable(pinLength);
+        if (table == null) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < pinLength; i++) {
+            index = index * 10 + (pin[i] - '0');
+        }
+        final int entry = (table[index >> 1] >> ((index & 1) << 2)) & 0x0F;
+        return unpack(entry);
+    }
+
+    // Private methods
+
+    /**
+     * Get table for PINs with given length.
+     * @param pinLength Length of PIN.
+     * @return Table or null if table is not available.
+     */
+    @Nullable
+    private static byte[] getTable(int pinLength) {
+        if (pinLength == 4) {
+            byte[] table = table4;
+            if (table == null) {
+                synchronized (PinWeaknessTable.class) {
+                    table = table4;
+                    if (table == null) {
+                        table = buildTable(4);
+                        table4 = table;
+                    }
+                }
+            }
+            return table;
+        } else if (pinLength == 6) {
+            final byte[] table = table6;
+            if (table == null) {
+                requestTable6();
+            }
+            return table;
+        }
+        return null;
+    }
+
+    /**
+     * Start building table for 6 digit PINs on a background thread, if not started yet.
+     */
+    private static void requestTable6() {
+        synchronized (PinWeaknessTable.class) {
+            if (table6Requested) {
+                return;
+            }
+            table6Requested = true;
+        }
+        final Thread thread = new Thread(() -> table6 = buildTable(6), "PowerAuthPinWeaknessTable");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Build table for PINs with given length.
+     * @param pinLength Length of PIN.
+     * @return Table with packed entries.
+     */
+    @NonNull
+    private static byte[] buildTable(int pinLength) {
+        int count = 1;
+        for (int i = 0; i < pinLength; i++) {
+            count *= 10;
+        }
+        final PinTester pinTester = new PinTester(PinPolicy.DEFAULT);
+        final byte[] table = new byte[count / 2];
+        final byte[] pin = new byte[pinLength];
+        for (int index = 0; index < count; index++) {
+            int value = index;
+            for (int i = pinLength - 1; i >= 0; i--) {
+                pin[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            final int entry = pack(pinTester.testDateIndependent(pin, pinLength, PinPolicy.DEFAULT));
+            table[index >> 1] |= (byte) (entry << ((index & 1) << 2));
+        }
+        return table;
+    }
+
+    /**
+     * Pack flags into 4-bit entry.
+     * @param flags Combination of {@link #STORED_FLAGS}.
+     * @return 4-bit entry.
+     */
+    private static int pack(int flags) {
+        return (flags & 0x07) | ((flags & PinTester.RES_FREQUENTLY_USED) != 0 ? 0x08 : 0);
+    }
+
+    /**
+     * Unpack flags from 4-bit entry.
+     * @param entry 4-bit entry.
+     * @return Combination of {@link #STORED_FLAGS}.
+     */
+    private static int unpack(int entry) {
+        return (entry & 0x07) | ((entry & 0x08) != 0 ? PinTester.RES_FREQUENTLY_USED : 0);
+    }
+}
@@ -16,7 +16,6 @@
 
 package com.wultra.android.powerauth.reactnative;
 
-import android.util.Base64;
 import android.util.Pair;
 
 import com.facebook.react.bridge.Arguments;
@@ -24,14 +23,27 @@ import com.facebook.react.bridge.BaseJavaModule;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.ReadableMapKeySetIterator;
+import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.module.annotations.ReactModule;
+import com.facebook.react.modules.network.OkHttpClientProvider;
 
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -41,6 +53,7 @@ import io.getlime.security.powerauth.ecies.EciesMetadata;
 import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
 import io.getlime.security.powerauth.exception.PowerAuthErrorException;
 import io.getlime.security.powerauth.sdk.PowerAuthSDK;
+import okhttp3.OkHttpClient;
 
 @SuppressWarnings("unused")
 @ReactModule(name = "PowerAuthEncryptor")
@@ -48,11 +61,16 @@ public class PowerAuthEncryptorModule extends BaseJavaModule {
 
     private final ReactApplicationContext context;
     private final ObjectRegister objectRegister;
+    private final ActivationStateCache activationStateCache;
+    private final EncryptorPool encryptorPool;
+    private volatile @Nullable OkHttpClient httpClient;
 
-    public PowerAuthEncryptorModule(@NonNull ReactApplicationContext context, @NonNull ObjectRegister objectRegister) {
+    public PowerAuthEncryptorModule(@NonNull ReactApplicationContext context, @NonNull ObjectRegister objectRegister, @NonNull ActivationStateCache activationStateCache, @NonNull EncryptorPool encryptorPool) {
         super();
         this.context = context;
         this.objectRegister = objectRegister;
+        this.activationStateCache = activationStateCache;
+        this.encryptorPool = encryptorPool;
     }
 
     @NonNull
@@ -67,14 +85,7 @@ public class PowerAuthEncryptorModule extends BaseJavaModule {
     void initialize(@NonNull String scope, @NonNull String ownerId, int autoreleaseTime, Promise promise) {
         try {
             // Process inputs
-            final boolean activationScope;
-            if ("APPLICATION".equals(scope)) {
-                activationScope = false;
-            } else if ("ACTIVATION".equals(scope)) {
-                activationScope = true;
-            } else {
-                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "scope parameter is missing or contains invalid value");
-            }
+            final boolean activationScope = isActivationScope(scope);
             int releaseTime = Constants.ENCRYPTOR_KEY_KEEP_ALIVE_TIME;
             if (BuildConfig.DEBUG) {
                 if (autoreleaseTime != 0) {
@@ -86,18 +97,10 @@ public class PowerAuthEncryptorModule extends BaseJavaModule {
             if (sdk == null) {
                 return;
             }
-            // Create ECIES encryptor
-            final EciesEncryptor coreEncryptor = activationScope
-                    ? sdk.getEciesEncryptorForActivationScope(context)
-                    : sdk.getEciesEncryptorForApplicationScope();
-            if (coreEncryptor == null) {
-                if (activationScope && !sdk.hasValidActivation()) {
-                    throw new PowerAuthErrorException(PowerAuthErrorCodes.MISSING_ACTIVATION);
-                }
-                throw new WrapperException(Errors.EC_UNKNOWN_ERROR, "Failed to create ECIES encryptor");
-            }
+            // Borrow ECIES encryptor from the pool
+            final EncryptorPool.Lease lease = encryptorPool.acquire(ownerId, activationScope, () -> createCoreEncryptor(sdk, activationScope));
             // Create container with all required objects and register it to the register.
-            final InstanceData instanceData = new InstanceData(coreEncryptor, ownerId, activationScope);
+            final InstanceData instanceData = new InstanceData(lease, ownerId, activationScope);
             final List<ReleasePolicy> releasePolicy = Collections.singletonList(ReleasePolicy.keepAlive(releaseTime));
             final String objectId = objectRegister.registerObject(instanceData, ownerId, releasePolicy);
             // Resolve with native object identifier.
@@ -112,6 +115,14 @@ public class PowerAuthEncryptorModule extends BaseJavaModule {
         objectRegister.removeObject(encryptorId, InstanceData.class);
     }
 
+    @ReactMethod
+    void setCompression(@NonNull String encryptorId, @Nullable String compression, Promise promise) {
+        touchEncryptor("setCompression", encryptorId, promise, instanceData -> {
+            instanceData.compression = Compression.fromString(compression);
+            promise.resolve(null);
+        });
+    }
+
     // Encryption
 
     /**
@@ -122,18 +133,9 @@ public class PowerAuthEncryptorModule extends BaseJavaModule {
      * @return true if encryptor can be used for an encryption.
      */
     private boolean canEncrypt(@NonNull InstanceData instanceData, @Nullable Promise promise) {
-        final PowerAuthSDK sdk = resolveSdk(instanceData.powerAuthInstanceId, promise);
-        if (sdk == null) {
+        if (!validateActivationState(instanceData, promise)) {
             return false;
         }
-        if (instanceData.isActivationScoped) {
-            if (!sdk.hasValidActivation()) {
-                if (promise != null) {
-                    promise.reject(Errors.EC_MISSING_ACTIVATION, "PowerAuth instance with no activation");
-                }
-                return false;
-            }
-        }
         final boolean result = instanceData.coreEncryptor.canEncryptRequest();
         if (!result && promise != null) {
             promise.reject(Errors.EC_INVALID_ENCRYPTOR, "Encryptor is not constructed for request encryption");
@@ -143,25 +145,31 @@ public class PowerAuthEncryptorModule extends BaseJavaModule {
 
     @ReactMethod
     void canEncryptRequest(@NonNull String encryptorId, Promise promise) {
-        touchEncryptor(encryptorId, promise, instanceData -> {
+        touchEncryptor("canEncryptRequest", encryptorId, promise, instanceData -> {
             promise.resolve(canEncrypt(instanceData, null));
         });
     }
 
     @ReactMethod
     void encryptRequest(@NonNull String encryptorId, @Nullable String body, @Nullable String bodyFormat, Promise promise) {
-        useEncryptor(encryptorId, promise, instanceData -> {
+        useEncryptor("encryptRequest", encryptorId, promise, instanceData -> {
             // Input validation
             final DataFormat format = DataFormat.fromString(bodyFormat);
-            final byte[] data = format.decodeBytes(body);
-            // Test whether this is encryptor
-            if (!canEncrypt(instanceData, promise)) {
-                // If encryption is not available, then remove the object from the register.
-                objectRegister.removeObject(encryptorId, InstanceData.class);
-                return;
+            final Compression compression = instanceData.compression;
+            final byte[] data = decodeRequestData(format, body, compression);
+            final Pair<EciesEncryptor, EciesCryptogram> encryptionResult;
+            try {
+                // Test whether this is encryptor
+                if (!canEncrypt(instanceData, promise)) {
+                    // If encryption is not available, then remove the object from the register.
+                    objectRegister.removeObject(encryptorId, InstanceData.class);
+                    return;
+                }
+                // Encrypt
+                encryptionResult = encryptTraced(instanceData.coreEncryptor, data);
+            } finally {
+                Arrays.fill(data, (byte) 0);
             }
-            // Encrypt
-            final Pair<EciesEncryptor, EciesCryptogram> encryptionResult = instanceData.coreEncryptor.encryptRequestSynchronized(data);
             if (encryptionResult == null) {
                 throw new WrapperException(Errors.EC_ENCRYPTION_ERROR, "Failed to encrypt request");
             }
@@ -170,26 +178,101 @@ public class PowerAuthEncryptorModule extends BaseJavaModule {
                 throw new WrapperException(Errors.EC_INVALID_ENCRYPTOR, "Incompatible native SDK");
             }
             //  Wrap decryptor and register it in the object register
-            final InstanceData decryptor = new InstanceData(encryptionResult.first, instanceData.powerAuthInstanceId, instanceData.isActivationScoped);
-            final List<ReleasePolicy> releasePolicy = Arrays.asList(ReleasePolicy.afterUse(1), ReleasePolicy.keepAlive(Constants.DECRYPTOR_KEY_KEEP_ALIVE_TIME));
-            final String decryptorId = objectRegister.registerObject(decryptor, instanceData.powerAuthInstanceId, releasePolicy);
+            final String decryptorId = registerDecryptor(instanceData, encryptionResult.first);
             // Resolve
             final WritableMap cryptogram = Arguments.createMap();
-            cryptogram.putString("ephemeralPublicKey", encryptionResult.second.getKeyBase64());
-            cryptogram.putString("encryptedData", encryptionResult.second.getBodyBase64());
-            cryptogram.putString("mac", encryptionResult.second.getMacBase64());
-            cryptogram.putString("nonce", encryptionResult.second.getNonceBase64());
-            final WritableMap header = Arguments.createMap();
-            header.putString("key", metadata.getHttpHeaderKey());
-            header.putString("value", metadata.getHttpHeaderValue());
+            cryptogram.putString("ephemeralPublicKey", encodeBase64(encryptionResult.second.key));
+            cryptogram.putString("encryptedData", encodeBase64(encryptionResult.second.body));
+            cryptogram.putString("mac", encodeBase64(encryptionResult.second.mac));
+            cryptogram.putString("nonce", encodeBase64(encryptionResult.second.nonce));
+            if (compression != Compression.NONE) {
+                cryptogram.putString("compression", compression.name());
+            }
             final WritableMap result = Arguments.createMap();
             result.putMap("cryptogram", cryptogram);
-            result.putMap("header", header);
+            result.putMap("header", createHeaderMap(metadata));
             result.putString("decryptorId", decryptorId);
             promise.resolve(result);
         });
     }
 
+    /**
+     * Number of strings produced by {@link #encryptRequests(String, ReadableArray, String, Promise)} for
+     * each encrypted body. The strings are: decryptorId, ephemeralPublicKey, encryptedData, mac and nonce.
+     */
+    private static final int PACKED_CRYPTOGRAM_STRIDE = 5;
+
+    @ReactMethod
+    void encryptRequests(@NonNull String encryptorId, @NonNull ReadableArray bodies, @Nullable String bodyFormat, Promise promise) {
+        useEncryptor("encryptRequests", encryptorId, promise, instanceData -> {
+            // Input validation
+            final DataFormat format = DataFormat.fromString(bodyFormat);
+            final Compression compression = instanceData.compression;
+            final int count = bodies.size();
+            final ArrayList<byte[]> data = new ArrayList<>(count);
+            final ArrayList<InstanceData> decryptors = new ArrayList<>(count);
+            final ArrayList<EciesCryptogram> cryptograms = new ArrayList<>(count);
+            EciesMetadata metadata = null;
+            try {
+                for (int i = 0; i < count; i++) {
+                    data.add(decodeRequestData(format, bodies.isNull(i) ? null : bodies.getString(i), compression));
+                }
+                // Test whether this is encryptor
+                if (!canEncrypt(instanceData, promise)) {
+                    objectRegister.removeObject(encryptorId, InstanceData.class);
+                    return;
+                }
+                // Encrypt all bodies. If any encryption fails, then destroy all decryptors created so far.
+                try {
+                    for (byte[] body : data) {
+                        final Pair<EciesEncryptor, EciesCryptogram> encryptionResult = encryptTraced(instanceData.coreEncryptor, body);
+                        if (encryptionResult == null) {
+                            throw new WrapperException(Errors.EC_ENCRYPTION_ERROR, "Failed to encrypt request");
+                        }
+                        decryptors.add(instanceData.createDecryptor(encryptionResult.first));
+                        cryptograms.add(encryptionResult.second);
+                        if (metadata == null) {
+                            metadata = encryptionResult.first.getMetadata();
+                            if (metadata == null) {
+                                throw new WrapperException(Errors.EC_INVALID_ENCRYPTOR, "Incompatible native SDK");
+                            }
+                        }
+                    }
+                } catch (Throwable t) {
+                    for (InstanceData decryptor : decryptors) {
+                        decryptor.cleanup();
+                    }
+                    throw t;
+                }
+            } finally {
+                for (byte[] body : data) {
+                    Arrays.fill(body, (byte) 0);
+                }
+            }
+            // Register all decryptors at once
+            final List<ReleasePolicy> releasePolicy = Arrays.asList(ReleasePolicy.afterUse(1), ReleasePolicy.keepAlive(Constants.DECRYPTOR_KEY_KEEP_ALIVE_TIME));
+            final List<String> decryptorIds = objectRegister.registerObjects(decryptors, instanceData.powerAuthInstanceId, releasePolicy);
+            // Resolve with packed cryptograms
+            final WritableArray packed = Arguments.createArray();
+            for (int i = 0; i < count; i++) {
+                final EciesCryptogram cryptogram = cryptograms.get(i);
+                packed.pushString(decryptorIds.get(i));
+                packed.pushString(encodeBase64(cryptogram.key));
+                packed.pushString(encodeBase64(cryptogram.body));
+                packed.pushString(encodeBase64(cryptogram.mac));
+                packed.pushString(encodeBase64(cryptogram.nonce));
+            }
+            final WritableMap result = Arguments.createMap();
+            result.putMap("header", metadata != null ? createHeaderMap(metadata) : null);
+            result.putInt("stride", PACKED_CRYPTOGRAM_STRIDE);
+            if (compression != Compression.NONE) {
+                result.putString("compression", compression.name());
+            }
+            result.putArray("cryptograms", packed);
+            promise.resolve(result);
+        });
+    }
+
     // Decryption
 
     /**
@@ -200,18 +283,9 @@ public class PowerAuthEncryptorModule extends BaseJavaModule {
      * @return true if this is decryptor.
      */
     private boolean canDecrypt(@NonNull InstanceData instanceData, @Nullable Promise promise) {
-        final PowerAuthSDK sdk = resolveSdk(instanceData.powerAuthInstanceId, promise);
-        if (sdk == null) {
+        if (!validateActivationState(instanceData, promise)) {
             return false;
         }
-        if (instanceData.isActivationScoped) {
-            if (!sdk.hasValidActivation()) {
-                if (promise != null) {
-                    promise.reject(Errors.EC_MISSING_ACTIVATION, "PowerAuth instance with no activation");
-                }
-                return false;
-            }
-        }
         final boolean result = instanceData.coreEncryptor.canDecryptResponse();
         if (!result && promise != null) {
             promise.reject(Errors.EC_INVALID_ENCRYPTOR, "Encryptor is not constructed for response decryption");
@@ -221,45 +295,518 @@ public class PowerAuthEncryptorModule extends BaseJavaModule {
 
     @ReactMethod
     void canDecryptResponse(String encryptorId, Promise promise) {
-        touchEncryptor(encryptorId, promise, instanceData -> {
+        touchEncryptor("canDecryptResponse", encryptorId, promise, instanceData -> {
             promise.resolve(canDecrypt(instanceData, null));
         });
     }
 
     @ReactMethod
     void decryptResponse(String encryptorId, ReadableMap cryptogram, String outputFormat, Promise promise) {
-        useEncryptor(encryptorId, promise, instanceData -> {
+        useEncryptor("decryptResponse", encryptorId, promise, instanceData -> {
             // Input validation
             final DataFormat dataFormat = DataFormat.fromString(outputFormat);
+            // Decrypt
+            final byte[] decryptedResponse = decryptCryptogram(encryptorId, instanceData, cryptogram, promise);
+            if (decryptedResponse != null) {
+                promise.resolve(dataFormat.encodeValue(decryptedResponse, objectRegister, instanceData.powerAuthInstanceId));
+            }
+        });
+    }
+
+    @ReactMethod
+    void decryptResponseWithProjection(String encryptorId, ReadableMap cryptogram, ReadableArray paths, Promise promise) {
+        useEncryptor("decryptResponseWithProjection", encryptorId, promise, instanceData -> {
+            final byte[] decryptedResponse = decryptCryptogram(encryptorId, instanceData, cryptogram, promise);
+            if (decryptedResponse != null) {
+                promise.resolve(JsonConverter.parseProjection(decryptedResponse, paths));
+            }
+        });
+    }
+
+    /**
+     * Decrypt response cryptogram provided by the application.
+     * @param encryptorId Encryptor object identifier.
+     * @param instanceData Instance data.
+     * @param cryptogram Map with response cryptogram.
+     * @param promise Promise to reject in case that object is not decryptor.
+     * @return Decrypted data or null if promise was rejected.
+     * @throws WrapperException In case of decryption failure.
+     */
+    @Nullable
+    private byte[] decryptCryptogram(@NonNull String encryptorId, @NonNull InstanceData instanceData, @NonNull ReadableMap cryptogram, @NonNull Promise promise) throws WrapperException {
+        // Test whether this is decryptor
+        if (!canDecrypt(instanceData, promise)) {
+            // Remove object from the register if decryption is no longer available.
+            objectRegister.removeObject(encryptorId, InstanceData.class);
+            return null;
+        }
+        // Decrypt
+        final EciesCryptogram coreCryptogram = new EciesCryptogram(
+                cryptogram.hasKey("encryptedData") ? cryptogram.getString("encryptedData") : null,
+                cryptogram.hasKey("mac") ? cryptogram.getString("mac") : null);
+        final byte[] decryptedResponse = decryptTraced(instanceData.coreEncryptor, coreCryptogram);
+        if (decryptedResponse == null) {
+            throw new WrapperException(Errors.EC_ENCRYPTION_ERROR, "Failed to decrypt response");
+        }
+        // The compression is declared together with the data. If not declared, then the data is not compressed.
+        final Compression compression = Compression.fromString(cryptogram.hasKey("compression") ? cryptogram.getString("compression") : null);
+        return compression.decompress(decryptedResponse);
+    }
+
+    // File encryption
+
+    @ReactMethod
+    void encryptFile(@NonNull String encryptorId, @NonNull String inputUri, @NonNull String outputUri, Promise promise) {
+        useEncryptor("encryptFile", encryptorId, promise, instanceData -> {
+            // Test whether this is encryptor
+            if (!canEncrypt(instanceData, promise)) {
+                objectRegister.removeObject(encryptorId, InstanceData.class);
+                return;
+            }
+            // Read the whole input file. ECIES encryption requires the complete plaintext in one buffer,
+            // so the size of file is limited to MAX_FILE_SIZE.
+            final Compression compression = instanceData.compression;
+            final byte[] fileData;
+            try (FileChannel input = FileChannels.openForReading(context, inputUri)) {
+                fileData = FileChannels.readFully(input, Constants.MAX_FILE_SIZE);
+            }
+            // Compress and encrypt
+            final Pair<EciesEncryptor, EciesCryptogram> encryptionResult;
+            try {
+                final byte[] data = compression.compress(fileData);
+                encryptionResult = encryptTraced(instanceData.coreEncryptor, data);
+                Arrays.fill(data, (byte) 0);
+            } finally {
+                Arrays.fill(fileData, (byte) 0);
+            }
+            if (encryptionResult == null) {
+                throw new WrapperException(Errors.EC_ENCRYPTION_ERROR, "Failed to encrypt request");
+            }
+            final EciesMetadata metadata = encryptionResult.first.getMetadata();
+            if (metadata == null) {
+                encryptionResult.first.destroy();
+                throw new WrapperException(Errors.EC_INVALID_ENCRYPTOR, "Incompatible native SDK");
+            }
+            // Write JSON request body to the output file. The encrypted data is encoded to Base64 in chunks.
+            final EciesCryptogram cryptogram = encryptionResult.second;
+            try {
+                FileChannels.writeFile(context, outputUri, output -> {
+                    writeAscii(output, "{\"ephemeralPublicKey\":\"" + encodeBase64(cryptogram.key) + "\",\"encryptedData\":\"");
+                    writeBase64(output, cryptogram.body);
+                    writeAscii(output, "\",\"mac\":\"" + encodeBase64(cryptogram.mac) + "\",\"nonce\":\"" + encodeBase64(cryptogram.nonce) + "\"");
+                    if (compression != Compression.NONE) {
+                        writeAscii(output, ",\"compression\":\"" + compression.name() + "\"");
+                    }
+                    writeAscii(output, "}");
+                });
+            } catch (Throwable t) {
+                encryptionResult.first.destroy();
+                throw t;
+            }
+            // Register decryptor and resolve
+            final String decryptorId = registerDecryptor(instanceData, encryptionResult.first);
+            final WritableMap result = Arguments.createMap();
+            result.putMap("header", createHeaderMap(metadata));
+            result.putString("decryptorId", decryptorId);
+            if (compression != Compression.NONE) {
+                result.putString("compression", compression.name());
+            }
+            promise.resolve(result);
+        });
+    }
+
+    @ReactMethod
+    void decryptFile(@NonNull String encryptorId, @NonNull String inputUri, @NonNull String outputUri, Promise promise) {
+        useEncryptor("decryptFile", encryptorId, promise, instanceData -> {
             // Test whether this is decryptor
             if (!canDecrypt(instanceData, promise)) {
-                // Remove object from the register if decryption is no longer available.
                 objectRegister.removeObject(encryptorId, InstanceData.class);
                 return;
             }
+            // Read response cryptogram from the input file. ECIES decryption requires the complete
+            // cryptogram in one buffer, so the size of file is limited to MAX_ENCRYPTED_FILE_SIZE.
+            // Base64 values are decoded directly from the file content, to avoid additional copies
+            // of the encrypted data.
+            final CryptogramEnvelope envelope;
+            final byte[] fileContent;
+            try (FileChannel input = FileChannels.openForReading(context, inputUri)) {
+                fileContent = FileChannels.readFully(input, Constants.MAX_ENCRYPTED_FILE_SIZE);
+            }
+            try {
+                envelope = CryptogramEnvelope.parse(fileContent);
+            } finally {
+                Arrays.fill(fileContent, (byte) 0);
+            }
+            if (envelope.encryptedData == null || envelope.mac == null) {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Missing encryptedData or mac in the cryptogram file");
+            }
             // Decrypt
-            final EciesCryptogram coreCryptogram = new EciesCryptogram(
-                    cryptogram.hasKey("encryptedData") ? cryptogram.getString("encryptedData") : null,
-                    cryptogram.hasKey("mac") ? cryptogram.getString("mac") : null);
-            final byte[] decryptedResponse = instanceData.coreEncryptor.decryptResponse(coreCryptogram);
-            if (decryptedResponse == null) {
+            final byte[] decryptedData = decryptTraced(instanceData.coreEncryptor, new EciesCryptogram(envelope.encryptedData, envelope.mac, (byte[]) null, (byte[]) null));
+            if (decryptedData == null) {
                 throw new WrapperException(Errors.EC_ENCRYPTION_ERROR, "Failed to decrypt response");
             }
-            final String result = dataFormat.encodeBytes(decryptedResponse);
-            promise.resolve(result);
+            // The compression is declared in the cryptogram file. If not declared, then the data is not compressed.
+            final byte[] decryptedResponse = Compression.fromString(envelope.compression).decompress(decryptedData);
+            if (decryptedResponse != decryptedData) {
+                Arrays.fill(decryptedData, (byte) 0);
+            }
+            // Write plaintext to the output file
+            try {
+                FileChannels.writeFile(context, outputUri, output -> FileChannels.writeFully(output, decryptedResponse));
+            } finally {
+                Arrays.fill(decryptedResponse, (byte) 0);
+            }
+            promise.resolve((double) decryptedResponse.length);
         });
     }
 
+    /**
+     * Write ASCII string to the channel.
+     * @param channel Channel to write.
+     * @param string String to write.
+     * @throws IOException In case of write failure.
+     */
+    private static void writeAscii(@NonNull FileChannel channel, @NonNull String string) throws IOException {
+        FileChannels.writeFully(channel, string.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Write bytes encoded to Base64 to the channel. The data is encoded in chunks with
+     * {@link Constants#FILE_CHUNK_SIZE} size, so the whole Base64 string is never created in memory.
+     * @param channel Channel to write.
+     * @param data Bytes to encode and write.
+     * @throws IOException In case of write failure.
+     * @throws WrapperException In case of encoder failure.
+     */
+    private static void writeBase64(@NonNull FileChannel channel, @Nullable byte[] data) throws IOException, WrapperException {
+        if (data == null) {
+            return;
+        }
+        final DataCodec.Base64Encoder encoder = new DataCodec.Base64Encoder(DataFormat.BASE64);
+        final byte[] buffer = new byte[DataCodec.Base64Encoder.maxOutputLength(Constants.FILE_CHUNK_SIZE)];
+        int offset = 0;
+        while (offset < data.length) {
+            final int length = Math.min(Constants.FILE_CHUNK_SIZE, data.length - offset);
+            writeBuffer(channel, buffer, encoder.update(data, offset, length, buffer, 0));
+            offset += length;
+        }
+        writeBuffer(channel, buffer, encoder.finish(buffer, 0));
+    }
+
+    /**
+     * Write beginning of the buffer to the channel.
+     * @param channel Channel to write.
+     * @param buffer Buffer with data.
+     * @param length Number of bytes to write.
+     * @throws IOException In case of write failure.
+     */
+    private static void writeBuffer(@NonNull FileChannel channel, @NonNull byte[] buffer, int length) throws IOException {
+        final ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, length);
+        while (chunk.hasRemaining()) {
+            channel.write(chunk);
+        }
+    }
+
+    // Encrypted request
+
+    @ReactMethod
+    void encryptedRequest(@NonNull String scope, @NonNull String ownerId, @NonNull ReadableMap request, Promise promise) {
+        try {
+            // Input validation
+            final boolean activationScope = isActivationScope(scope);
+            final String url = request.hasKey("url") ? request.getString("url") : null;
+            final String method = request.hasKey("method") ? request.getString("method") : null;
+            final DataFormat bodyFormat = DataFormat.fromString(request.hasKey("bodyFormat") ? request.getString("bodyFormat") : null);
+            final DataFormat outputFormat = DataFormat.fromString(request.hasKey("outputFormat") ? request.getString("outputFormat") : null);
+            final Compression compression = Compression.fromString(request.hasKey("compression") ? request.getString("compression") : null);
+            final ReadableMap headers = request.hasKey("headers") ? request.getMap("headers") : null;
+            // Validate the HTTP request before any key material is created.
+            Map<String, String> requestHeaders = getStringMap(headers);
+            if (compression != Compression.NONE) {
+                // Tell the server how the body is compressed. The server reports the response compression in the same header.
+                if (requestHeaders == null) {
+                    requestHeaders = new LinkedHashMap<>();
+                }
+                requestHeaders.put(Compression.HTTP_HEADER, compression.name());
+            }
+            final EncryptedRequest encryptedRequest = EncryptedRequest.prepare(url, method, requestHeaders);
+            final byte[] data = decodeRequestData(bodyFormat, request.hasKey("body") ? request.getString("body") : null, compression);
+            final Pair<EciesEncryptor, EciesCryptogram> encryptionResult;
+            try {
+                // Resolve PowerAuthSDK and create a temporary encryptor
+                final PowerAuthSDK sdk = resolveSdk(ownerId, promise);
+                if (sdk == null) {
+                    return;
+                }
+                final EncryptorPool.Lease lease = encryptorPool.acquire(ownerId, activationScope, () -> createCoreEncryptor(sdk, activationScope));
+                final InstanceData instanceData = new InstanceData(lease, ownerId, activationScope);
+                try {
+                    if (!canEncrypt(instanceData, promise)) {
+                        return;
+                    }
+                    encryptionResult = encryptTraced(instanceData.coreEncryptor, data);
+                } finally {
+                    instanceData.cleanup();
+                }
+            } finally {
+                Arrays.fill(data, (byte) 0);
+            }
+            if (encryptionResult == null) {
+                throw new WrapperException(Errors.EC_ENCRYPTION_ERROR, "Failed to encrypt request");
+            }
+            final EciesEncryptor decryptor = encryptionResult.first;
+            final String requestJson;
+            final EciesMetadata metadata;
+            try {
+                metadata = decryptor.getMetadata();
+                if (metadata == null) {
+                    throw new WrapperException(Errors.EC_INVALID_ENCRYPTOR, "Incompatible native SDK");
+                }
+                final JSONObject json = new JSONObject();
+                json.put("ephemeralPublicKey", encodeBase64(encryptionResult.second.key));
+                json.put("encryptedData", encodeBase64(encryptionResult.second.body));
+                json.put("mac", encodeBase64(encryptionResult.second.mac));
+                json.put("nonce", encodeBase64(encryptionResult.second.nonce));
+                requestJson = json.toString();
+            } catch (Throwable t) {
+                decryptor.destroy();
+                throw t;
+            }
+            // Execute request and decrypt the response. From now the request owns the decryptor.
+            encryptedRequest.execute(getHttpClient(), requestJson, metadata.getHttpHeaderKey(), metadata.getHttpHeaderValue(),
+                    new EncryptedRequest.Decryptor() {
+                        @Nullable
+                        @Override
+                        public byte[] decryptResponse(@Nullable String encryptedData, @Nullable String mac) {
+                            return decryptTraced(decryptor, new EciesCryptogram(encryptedData, mac));
+                        }
+
+                        @Override
+                        public void destroy() {
+                            decryptor.destroy();
+                        }
+                    },
+                    (decryptedData, responseHeaders) -> {
+                        final Compression responseCompression = Compression.fromResponseHeader(responseHeaders.get(Compression.HTTP_HEADER));
+                        return outputFormat.encodeValue(responseCompression.decompress(decryptedData), objectRegister, ownerId);
+                    },
+                    promise);
+        } catch (Throwable t) {
+            Errors.rejectPromise(promise, t);
+        }
+    }
+
+    /**
+     * Convert map with string values into Java map.
+     * @param map Map with string values.
+     * @return Java map or null if map is not provided. Null values are skipped.
+     * @throws WrapperException In case that map contains value that is not a string.
+     */
+    @Nullable
+    private static Map<String, String> getStringMap(@Nullable ReadableMap map) throws WrapperException {
+        if (map == null) {
+            return null;
+        }
+        final Map<String, String> result = new LinkedHashMap<>();
+        final ReadableMapKeySetIterator iterator = map.keySetIterator();
+        while (iterator.hasNextKey()) {
+            final String key = iterator.nextKey();
+            final ReadableType type = map.getType(key);
+            if (type == ReadableType.Null) {
+                continue;
+            }
+            if (type != ReadableType.String) {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Header value must be a string");
+            }
+            result.put(key, map.getString(key));
+        }
+        return result;
+    }
+
+    /**
+     * Set HTTP client used for encrypted requests. The function allows to use a different client,
+     * for example, in tests that run against a local mock server.
+     * @param httpClient HTTP client or null to use the default client provided by React Native.
+     */
+    void setHttpClient(@Nullable OkHttpClient httpClient) {
+        this.httpClient = httpClient;
+    }
+
+    /**
+     * @return HTTP client used for encrypted requests.
+     */
+    @NonNull
+    private OkHttpClient getHttpClient() {
+        OkHttpClient client = httpClient;
+        if (client == null) {
+            client = OkHttpClientProvider.getOkHttpClient();
+            httpClient = client;
+        }
+        return client;
+    }
+
     // Private methods
 
-    byte[] getBase64EncodedBytes(ReadableMap map, String key) {
+    /**
+     * Encrypt request data in a trace section.
+     * @param encryptor Encryptor.
+     * @param data Data to encrypt.
+     * @return Pair with decryptor and cryptogram or null in case of failure.
+     */
+    @Nullable
+    private static Pair<EciesEncryptor, EciesCryptogram> encryptTraced(@NonNull EciesEncryptor encryptor, @Nullable byte[] data) {
+        final Tracer.Backend t = Tracer.begin(Tracer.SECTION_ENCRYPT);
+        try {
+            return encryptor.encryptRequestSynchronized(data);
+        } finally {
+            t.endSection();
+        }
+    }
+
+    /**
+     * Decrypt response cryptogram in a trace section.
+     * @param decryptor Decryptor.
+     * @param cryptogram Cryptogram to decrypt.
+     * @return Decrypted data or null in case of failure.
+     */
+    @Nullable
+    private static byte[] decryptTraced(@NonNull EciesEncryptor decryptor, @NonNull EciesCryptogram cryptogram) {
+        final Tracer.Backend t = Tracer.begin(Tracer.SECTION_DECRYPT);
+        try {
+            return decryptor.decryptResponse(cryptogram);
+        } finally {
+            t.endSection();
+        }
+    }
+
+    /**
+     * Translate scope string into boolean.
+     * @param scope Scope of the encryptor.
+     * @return true if scope is activation scope, false for application scope.
+     * @throws WrapperException In case that scope is invalid.
+     */
+    private static boolean isActivationScope(@Nullable String scope) throws WrapperException {
+        if ("APPLICATION".equals(scope)) {
+            return false;
+        } else if ("ACTIVATION".equals(scope)) {
+            return true;
+        }
+        throw new WrapperException(Errors.EC_WRONG_PARAMETER, "scope parameter is missing or contains invalid value");
+    }
+
+    /**
+     * Create a new core ECIES encryptor.
+     * @param sdk PowerAuthSDK instance.
+     * @param activationScope If true, then encryptor for activation scope is created.
+     * @return New encryptor instance.
+     * @throws Throwable In case of failure.
+     */
+    @NonNull
+    private EciesEncryptor createCoreEncryptor(@NonNull PowerAuthSDK sdk, boolean activationScope) throws Throwable {
+        final EciesEncryptor coreEncryptor = activationScope
+                ? sdk.getEciesEncryptorForActivationScope(context)
+                : sdk.getEciesEncryptorForApplicationScope();
+        if (coreEncryptor == null) {
+            if (activationScope && !sdk.hasValidActivation()) {
+                throw new PowerAuthErrorException(PowerAuthErrorCodes.MISSING_ACTIVATION);
+            }
+            throw new WrapperException(Errors.EC_UNKNOWN_ERROR, "Failed to create ECIES encryptor");
+        }
+        return coreEncryptor;
+    }
+
+    /**
+     * Decode request data and apply the compression. The returned array is owned by the caller
+     * and should be cleared once the data is encrypted. If {@link DataFormat#HANDLE} is used,
+     * then the array is a copy of native data.
+     * @param format Format of the request data.
+     * @param body Request data in the format.
+     * @param compression Compression to apply.
+     * @return Decoded and compressed data.
+     * @throws WrapperException In case of failure.
+     */
+    @NonNull
+    private byte[] decodeRequestData(@NonNull DataFormat format, @Nullable String body, @NonNull Compression compression) throws WrapperException {
+        final byte[] data = format.decodeBytes(body, objectRegister);
+        try {
+            return compression.compress(data);
+        } finally {
+            if (compression != Compression.NONE) {
+                Arrays.fill(data, (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Encode cryptogram's bytes into Base64 string.
+     * @param data Bytes to encode.
+     * @return Base64 encoded string or null if data is not available.
+     * @throws WrapperException In case of encoder failure.
+     */
+    @Nullable
+    private static String encodeBase64(@Nullable byte[] data) throws WrapperException {
+        return data != null ? DataCodec.encode(DataFormat.BASE64, data, 0, data.length) : null;
+    }
+
+    /**
+     * Wrap decryptor created by the request encryption and register it in the object register.
+     * @param encryptor Instance data of encryptor that encrypted the request.
+     * @param coreDecryptor Core decryptor created by the request encryption.
+     * @return Identifier of registered decryptor.
+     */
+    @NonNull
+    private String registerDecryptor(@NonNull InstanceData encryptor, @NonNull EciesEncryptor coreDecryptor) {
+        final InstanceData decryptor = encryptor.createDecryptor(coreDecryptor);
+        final List<ReleasePolicy> releasePolicy = Arrays.asList(ReleasePolicy.afterUse(1), ReleasePolicy.keepAlive(Constants.DECRYPTOR_KEY_KEEP_ALIVE_TIME));
+        return objectRegister.registerObject(decryptor, encryptor.powerAuthInstanceId, releasePolicy);
+    }
+
+    /**
+     * Create map with encryption HTTP header.
+     * @param metadata ECIES metadata.
+     * @return Map with header's key and value.
+     */
+    @NonNull
+    private static WritableMap createHeaderMap(@NonNull EciesMetadata metadata) {
+        final WritableMap header = Arguments.createMap();
+        header.putString("key", metadata.getHttpHeaderKey());
+        header.putString("value", metadata.getHttpHeaderValue());
+        return header;
+    }
+
+    byte[] getBase64EncodedBytes(ReadableMap map, String key) throws WrapperException {
         String value = map.hasKey(key) ? map.getString(key) : null;
         if (value != null) {
-            return Base64.decode(value, Base64.NO_WRAP);
+            return DataCodec.decode(DataFormat.BASE64, value);
         }
         return null;
     }
 
+    /**
+     * Validate state of PowerAuthSDK instance associated with the encryptor. The function use the
+     * shared activation state cache, so the SDK is queried only when there's no cached state.
+     * @param instanceData Instance data.
+     * @param promise Optional promise to reject in case of failure.
+     * @return true if encryptor's PowerAuthSDK instance is in expected state.
+     */
+    private boolean validateActivationState(@NonNull InstanceData instanceData, @Nullable Promise promise) {
+        ActivationStateCache.Snapshot snapshot = activationStateCache.getCachedSnapshot(instanceData.powerAuthInstanceId);
+        if (snapshot == null) {
+            final PowerAuthSDK sdk = resolveSdk(instanceData.powerAuthInstanceId, promise);
+            if (sdk == null) {
+                return false;
+            }
+            snapshot = activationStateCache.getSnapshot(instanceData.powerAuthInstanceId, sdk);
+        }
+        if (instanceData.isActivationScoped && !snapshot.hasValidActivation) {
+            if (promise != null) {
+                promise.reject(Errors.EC_MISSING_ACTIVATION, "PowerAuth instance with no activation");
+            }
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Resolve PowerAuthSDK instance from given identifier.
      * @param powerAuthInstanceId PowerAuth instance identifier.
@@ -297,15 +844,55 @@ public class PowerAuthEncryptorModule extends BaseJavaModule {
         final @NonNull EciesEncryptor coreEncryptor;
         final @NonNull String powerAuthInstanceId;
         final boolean isActivationScoped;
+        private final @Nullable EncryptorPool.Lease lease;
+        /**
+         * Compression applied before encryption. The decryption uses the compression declared with the response data.
+         */
+        volatile @NonNull Compression compression = Compression.NONE;
+
+        /**
+         * Construct instance data with encryptor owned by this object, typically with decryptor.
+         * @param coreEncryptor Encryptor that is destroyed at cleanup.
+         * @param powerAuthInstanceId PowerAuth instance identifier.
+         * @param isActivationScoped Encryptor is configured for an activation scope.
+         */
         InstanceData(@NonNull EciesEncryptor coreEncryptor, @NonNull String powerAuthInstanceId, boolean isActivationScoped) {
             this.coreEncryptor = coreEncryptor;
             this.powerAuthInstanceId = powerAuthInstanceId;
             this.isActivationScoped = isActivationScoped;
+            this.lease = null;
+        }
+
+        /**
+         * Construct instance data with encryptor borrowed from the pool.
+         * @param lease Lease with encryptor that is given back to the pool at cleanup.
+         * @param powerAuthInstanceId PowerAuth instance identifier.
+         * @param isActivationScoped Encryptor is configured for an activation scope.
+         */
+        InstanceData(@NonNull EncryptorPool.Lease lease, @NonNull String powerAuthInstanceId, boolean isActivationScoped) {
+            this.coreEncryptor = lease.encryptor;
+            this.powerAuthInstanceId = powerAuthInstanceId;
+            this.isActivationScoped = isActivationScoped;
+            this.lease = lease;
+        }
+
+        /**
+         * Wrap decryptor created by the request encryption into a new instance data.
+         * @param coreDecryptor Core decryptor created by the request encryption.
+         * @return Instance data with decryptor.
+         */
+        @NonNull
+        InstanceData createDecryptor(@NonNull EciesEncryptor coreDecryptor) {
+            return new InstanceData(coreDecryptor, powerAuthInstanceId, isActivationScoped);
         }
 
         @Override
         public void cleanup() {
-            coreEncryptor.destroy();
+            if (lease != null) {
+                lease.release();
+            } else {
+                coreEncryptor.destroy();
+            }
         }
 
         @NonNull
@@ -317,44 +904,54 @@ public class PowerAuthEncryptorModule extends BaseJavaModule {
 
     /**
      * Execute action when encryptor is found in object register.
+     * @param method Name of method, used for latency metrics.
      * @param objectId Encryptor object identifier.
      * @param promise Promise to reject or resolve.
      * @param action Action to execute.
      */
-    void useEncryptor(String objectId, final Promise promise, final @NonNull Action action) {
-        withEncryptor(objectId, false, promise, action);
+    void useEncryptor(@NonNull String method, String objectId, final Promise promise, final @NonNull Action action) {
+        withEncryptor(method, objectId, false, promise, action);
     }
 
     /**
-     * Execute action when encryptor is found in object register. Unlike {@link #useEncryptor(String, Promise, Action)} this
+     * Execute action when encryptor is found in object register. Unlike {@link #useEncryptor(String, String, Promise, Action)} this
      * method only touch object in the register.
+     * @param method Name of method, used for latency metrics.
      * @param objectId Encryptor object identifier.
      * @param promise Promise to reject or resolve.
      * @param action Action to execute.
      */
-    void touchEncryptor(String objectId, final Promise promise, final @NonNull Action action) {
-        withEncryptor(objectId, true, promise, action);
+    void touchEncryptor(@NonNull String method, String objectId, final Promise promise, final @NonNull Action action) {
+        withEncryptor(method, objectId, true, promise, action);
     }
 
     /**
      * Touch or use native encryptor object with given identifier and execute the action.
+     * @param method Name of method, used for latency metrics.
      * @param objectId Encryptor object identifier.
      * @param touch Touch or Use the native object.
      * @param promise Promise to reject or resolve.
      * @param action Action to execute.
      */
-    private void withEncryptor(String objectId, boolean touch, final Promise promise, final @NonNull Action action) {
+    private void withEncryptor(@NonNull String method, String objectId, boolean touch, final Promise promise, final @NonNull Action action) {
+        long start = LatencyMetrics.start();
         final InstanceData encryptor = touch
                 ? objectRegister.touchObject(objectId, InstanceData.class)
                 : objectRegister.useObject(objectId, InstanceData.class);
+        final String instanceId = encryptor != null ? encryptor.powerAuthInstanceId : null;
+        start = LatencyMetrics.record(method, instanceId, LatencyMetrics.PHASE_LOOKUP, start);
         if (encryptor != null) {
             try {
                 action.action(encryptor);
+                LatencyMetrics.record(method, instanceId, LatencyMetrics.PHASE_WORK, start);
             } catch (Throwable t) {
+                start = LatencyMetrics.start();
                 Errors.rejectPromise(promise, t);
+                LatencyMetrics.record(method, instanceId, LatencyMetrics.PHASE_RESOLVE, start);
             }
         } else {
             promise.reject(Errors.EC_INVALID_NATIVE_OBJECT, "Encryptor object is no longer valid");
+            LatencyMetrics.record(method, null, LatencyMetrics.PHASE_RESOLVE, start);
         }
     }
 }
@@ -21,7 +21,6 @@ import android.content.Context;
 import android.os.Build;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
-import android.util.Base64;
 import android.util.Pair;
 
 import androidx.fragment.app.FragmentActivity;
@@ -65,17 +64,26 @@ import io.getlime.security.powerauth.sdk.impl.MainThreadExecutor;
 
 @SuppressWarnings("unused")
 @ReactModule(name = "PowerAuth")
-public class PowerAuthModule extends ReactContextBaseJavaModule {
+public class PowerAuthModule extends ReactContextBaseJavaModule implements PowerAuthTokenHeaderInterceptor.HeaderProvider {
 
     private final ReactApplicationContext context;
     private final ObjectRegister objectRegister;
     private final PowerAuthPasswordModule passwordModule;
+    private final ActivationStateCache activationStateCache;
+    private final EncryptorPool encryptorPool;
+    private final TokenCache tokenCache;
+    private final PendingPromises<Pair<String, String>> pendingTokenRequests;
 
-    public PowerAuthModule(ReactApplicationContext context, @NonNull ObjectRegister objectRegister, @NonNull PowerAuthPasswordModule passwordModule) {
+    public PowerAuthModule(ReactApplicationContext context, @NonNull ObjectRegister objectRegister, @NonNull PowerAuthPasswordModule passwordModule, @NonNull ActivationStateCache activationStateCache, @NonNull EncryptorPool encryptorPool) {
         super(context);
         this.context = context;
         this.objectRegister = objectRegister;
         this.passwordModule = passwordModule;
+        this.activationStateCache = activationStateCache;
+        this.encryptorPool = encryptorPool;
+        this.tokenCache = new TokenCache();
+        this.pendingTokenRequests = new PendingPromises<>();
+        PowerAuthTokenHeaderInterceptor.getSharedInstance().setHeaderProvider(this);
     }
 
     // React integration
@@ -86,6 +94,14 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
         return "PowerAuth";
     }
 
+    @Override
+    public void invalidate() {
+        super.invalidate();
+        final PowerAuthTokenHeaderInterceptor interceptor = PowerAuthTokenHeaderInterceptor.getSharedInstance();
+        interceptor.removeHeaderProvider(this);
+        interceptor.removeRules(null);
+    }
+
     @ReactMethod
     public void isConfigured(@Nonnull String instanceId, final Promise promise) {
         try {
@@ -106,12 +122,23 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
                 }
                 final PowerAuthClientConfiguration paClientConfig = getPowerAuthClientConfigurationFromMap(clientConfiguration);
                 final PowerAuthKeychainConfiguration paKeychainConfig = getPowerAuthKeychainConfigurationFromMap(keychainConfiguration, biometryConfiguration);
-                // Configure the instance
-                final PowerAuthSDK instance = new PowerAuthSDK.Builder(paConfig)
-                        .clientConfiguration(paClientConfig)
-                        .keychainConfiguration(paKeychainConfig)
-                        .build(PowerAuthModule.this.context);
-                return ManagedAny.wrap(instance);
+                // Configure the instance. The builder restores the persisted state from the keychain.
+                final PowerAuthSDK instance;
+                final Tracer.Backend t = Tracer.begin(Tracer.SECTION_KEYSTORE);
+                try {
+                    instance = new PowerAuthSDK.Builder(paConfig)
+                            .clientConfiguration(paClientConfig)
+                            .keychainConfiguration(paKeychainConfig)
+                            .build(PowerAuthModule.this.context);
+                } finally {
+                    t.endSection();
+                }
+                // Cached activation state, tokens and pooled encryptors must not outlive the instance.
+                return ManagedAny.wrap(instance, sdk -> {
+                    activationStateCache.invalidate(instanceId);
+                    tokenCache.removeAllTokens(instanceId);
+                    encryptorPool.retire(instanceId);
+                });
 
             });
             if (result) {
@@ -242,54 +269,61 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
 
     @ReactMethod
     public void hasValidActivation(String instanceId, final Promise promise) {
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("hasValidActivation", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
-                promise.resolve(sdk.hasValidActivation());
+                promise.resolve(activationStateCache.getSnapshot(instanceId, sdk).hasValidActivation);
             }
         });
     }
 
     @ReactMethod
     public void canStartActivation(String instanceId, final Promise promise) {
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("canStartActivation", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
-                promise.resolve(sdk.canStartActivation());
+                promise.resolve(activationStateCache.getSnapshot(instanceId, sdk).canStartActivation);
             }
         });
     }
 
     @ReactMethod
     public void hasPendingActivation(String instanceId, final Promise promise) {
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("hasPendingActivation", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
-                promise.resolve(sdk.hasPendingActivation());
+                promise.resolve(activationStateCache.getSnapshot(instanceId, sdk).hasPendingActivation);
             }
         });
     }
 
     @ReactMethod
     public void activationIdentifier(String instanceId, final Promise promise) {
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("activationIdentifier", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
-                promise.resolve(sdk.getActivationIdentifier());
+                promise.resolve(activationStateCache.getSnapshot(instanceId, sdk).activationIdentifier);
             }
         });
     }
 
     @ReactMethod
     public  void activationFingerprint(String instanceId, final Promise promise) {
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("activationFingerprint", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
-                promise.resolve(sdk.getActivationFingerprint());
+                promise.resolve(activationStateCache.getSnapshot(instanceId, sdk).activationFingerprint);
             }
         });
     }
 
+    @ReactMethod
+    public void getActivationSnapshot(String instanceId, final Promise promise) {
+        this.usePowerAuth("getActivationSnapshot", instanceId, promise, sdk -> {
+            promise.resolve(activationStateCache.getSnapshot(instanceId, sdk).toWritableMap());
+        });
+    }
+
     @ReactMethod
     public void getExternalPendingOperation(String instanceId, final Promise promise) {
         // Not supported on Android
@@ -299,12 +333,13 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void fetchActivationStatus(String instanceId, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("fetchActivationStatus", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
                 sdk.fetchActivationStatusWithCallback(context, new IActivationStatusListener() {
                     @Override
                     public void onActivationStatusSucceed(ActivationStatus status) {
+                        activationStateCache.invalidate(instanceId);
                         WritableMap map = Arguments.createMap();
                         map.putString("state", getStatusCode(status.state));
                         map.putInt("failCount", status.failCount);
@@ -316,6 +351,7 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
 
                     @Override
                     public void onActivationStatusFailed(@NonNull Throwable t) {
+                        activationStateCache.invalidate(instanceId);
                         Errors.rejectPromise(promise, t);
                     }
                 });
@@ -326,7 +362,7 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void createActivation(String instanceId, final ReadableMap activation, final Promise promise) {
 
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("createActivation", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
                 PowerAuthActivation.Builder paActivation = null;
@@ -369,6 +405,7 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
                     sdk.createActivation(paActivation.build(), new ICreateActivationListener() {
                         @Override
                         public void onActivationCreateSucceed(@NonNull CreateActivationResult result) {
+                            activationStateCache.invalidate(instanceId);
                             WritableMap map = Arguments.createMap();
                             map.putString("activationFingerprint", result.getActivationFingerprint());
                             RecoveryData rData = result.getRecoveryData();
@@ -400,7 +437,7 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void commitActivation(String instanceId, final ReadableMap authMap, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuthOnMainThread(instanceId, promise, sdk -> {
+        this.usePowerAuthOnMainThread("commitActivation", instanceId, promise, sdk -> {
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M && authMap.getBoolean("isBiometry")) {
                 final PowerAuthAuthentication auth = constructAuthentication(authMap, true, true);
                 final ReadableMap promptMap = authMap.hasKey("biometricPrompt") ? authMap.getMap("biometricPrompt") : null;
@@ -422,6 +459,8 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
 
                         @Override
                         public void onBiometricDialogSuccess() {
+                            activationStateCache.invalidate(instanceId);
+                            encryptorPool.retire(instanceId);
                             promise.resolve(null);
                         }
 
@@ -436,6 +475,8 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
             } else {
                 final PowerAuthAuthentication auth = constructAuthentication(authMap, true, false);
                 int result = sdk.commitActivationWithAuthentication(context, auth);
+                activationStateCache.invalidate(instanceId);
+                encryptorPool.retire(instanceId);
                 if (result == PowerAuthErrorCodes.SUCCEED) {
                     promise.resolve(null);
                 } else {
@@ -448,13 +489,16 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void removeActivationWithAuthentication(String instanceId,final ReadableMap authMap, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("removeActivationWithAuthentication", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) throws Exception {
                 final PowerAuthAuthentication auth = constructAuthentication(authMap, false, false);
                 sdk.removeActivationWithAuthentication(context, auth, new IActivationRemoveListener() {
                     @Override
                     public void onActivationRemoveSucceed() {
+                        activationStateCache.invalidate(instanceId);
+                        tokenCache.removeAllTokens(instanceId);
+                        encryptorPool.retire(instanceId);
                         promise.resolve(null);
                     }
 
@@ -470,11 +514,14 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void removeActivationLocal(String instanceId, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("removeActivationLocal", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
                 try {
                     sdk.removeActivationLocal(context);
+                    activationStateCache.invalidate(instanceId);
+                    tokenCache.removeAllTokens(instanceId);
+                    encryptorPool.retire(instanceId);
                     promise.resolve(null);
                 } catch (Throwable t) {
                     Errors.rejectPromise(promise, t);
@@ -486,12 +533,18 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void requestGetSignature(String instanceId, final ReadableMap authMap, final String uriId, @Nullable final ReadableMap params, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("requestGetSignature", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) throws Exception {
                 final PowerAuthAuthentication auth = constructAuthentication(authMap, false, false);
                 Map<String, String> paramMap = params == null ? null : getStringMap(params);
-                PowerAuthAuthorizationHttpHeader header = sdk.requestGetSignatureWithAuthentication(context, auth, uriId, paramMap);
+                final PowerAuthAuthorizationHttpHeader header;
+                final Tracer.Backend t = Tracer.begin(Tracer.SECTION_SIGN);
+                try {
+                    header = sdk.requestGetSignatureWithAuthentication(context, auth, uriId, paramMap);
+                } finally {
+                    t.endSection();
+                }
                 ReadableMap headerObject = getHttpHeaderObject(header);
 
                 if (headerObject != null) {
@@ -506,12 +559,18 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void requestSignature(String instanceId, final ReadableMap authMap, final String method, final String uriId, final  @Nullable String body, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("requestSignature", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) throws Exception {
                 final PowerAuthAuthentication auth = constructAuthentication(authMap, false, false);
                 byte[] decodedBody = body == null ? null : body.getBytes(StandardCharsets.UTF_8);
-                PowerAuthAuthorizationHttpHeader header = sdk.requestSignatureWithAuthentication(context, auth, method, uriId, decodedBody);
+                final PowerAuthAuthorizationHttpHeader header;
+                final Tracer.Backend t = Tracer.begin(Tracer.SECTION_SIGN);
+                try {
+                    header = sdk.requestSignatureWithAuthentication(context, auth, method, uriId, decodedBody);
+                } finally {
+                    t.endSection();
+                }
                 if (header.powerAuthErrorCode == PowerAuthErrorCodes.SUCCEED) {
                     WritableMap returnMap = Arguments.createMap();
                     returnMap.putString("key", header.key);
@@ -527,12 +586,18 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void offlineSignature(String instanceId, final ReadableMap authMap, final String uriId, final  @Nullable String body, final String nonce, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("offlineSignature", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) throws Exception {
                 final PowerAuthAuthentication auth = constructAuthentication(authMap, false, false);
                 byte[] decodedBody = body == null ? null : body.getBytes(StandardCharsets.UTF_8);
-                String signature = sdk.offlineSignatureWithAuthentication(context, auth, uriId, decodedBody, nonce);
+                final String signature;
+                final Tracer.Backend t = Tracer.begin(Tracer.SECTION_SIGN);
+                try {
+                    signature = sdk.offlineSignatureWithAuthentication(context, auth, uriId, decodedBody, nonce);
+                } finally {
+                    t.endSection();
+                }
                 if (signature != null) {
                     promise.resolve(signature);
                 } else {
@@ -544,12 +609,12 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
 
     @ReactMethod
     public void verifyServerSignedData(String instanceId, final String data, final String signature, final boolean masterKey, final Promise promise) {
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("verifyServerSignedData", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
                 try {
                     byte[] decodedData = data.getBytes(StandardCharsets.UTF_8);
-                    byte[] decodedSignature = Base64.decode(signature, Base64.NO_WRAP);
+                    byte[] decodedSignature = DataCodec.decode(DataFormat.BASE64, signature);
                     promise.resolve(sdk.verifyServerSignedData(decodedData, decodedSignature, masterKey));
                 } catch (Exception e) {
                     Errors.rejectPromise(promise, e);
@@ -560,7 +625,7 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
 
     @ReactMethod
     public void unsafeChangePassword(String instanceId, final Dynamic oldPassword, final Dynamic newPassword, final Promise promise) {
-        this.usePowerAuth(instanceId, promise, sdk -> {
+        this.usePowerAuth("unsafeChangePassword", instanceId, promise, sdk -> {
             final Password coreOldPassword = passwordModule.usePassword(oldPassword);
             final Password coreNewPassword = passwordModule.usePassword(newPassword);
             promise.resolve(sdk.changePasswordUnsafe(coreOldPassword, coreNewPassword));
@@ -570,7 +635,7 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void changePassword(String instanceId, final Dynamic oldPassword, final Dynamic newPassword, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, sdk -> {
+        this.usePowerAuth("changePassword", instanceId, promise, sdk -> {
             final Password coreOldPassword = passwordModule.usePassword(oldPassword);
             final Password coreNewPassword = passwordModule.usePassword(newPassword);
             sdk.changePassword(context, coreOldPassword, coreNewPassword, new IChangePasswordListener() {
@@ -590,7 +655,7 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void addBiometryFactor(String instanceId, final Dynamic password, final ReadableMap prompt, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuthOnMainThread(instanceId, promise, sdk -> {
+        this.usePowerAuthOnMainThread("addBiometryFactor", instanceId, promise, sdk -> {
             final Password corePassword = passwordModule.usePassword(password);
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
                 try {
@@ -628,11 +693,18 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void hasBiometryFactor(String instanceId, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("hasBiometryFactor", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                    promise.resolve(sdk.hasBiometryFactor(context));
+                    final boolean hasBiometryFactor;
+                    final Tracer.Backend t = Tracer.begin(Tracer.SECTION_KEYSTORE);
+                    try {
+                        hasBiometryFactor = sdk.hasBiometryFactor(context);
+                    } finally {
+                        t.endSection();
+                    }
+                    promise.resolve(hasBiometryFactor);
                 } else {
                     promise.reject(Errors.EC_REACT_NATIVE_ERROR, "Biometry not supported on this android version.");
                 }
@@ -643,9 +715,16 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void removeBiometryFactor(String instanceId, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, sdk -> {
+        this.usePowerAuth("removeBiometryFactor", instanceId, promise, sdk -> {
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                if (sdk.removeBiometryFactor(context)) {
+                final boolean removed;
+                final Tracer.Backend t = Tracer.begin(Tracer.SECTION_KEYSTORE);
+                try {
+                    removed = sdk.removeBiometryFactor(context);
+                } finally {
+                    t.endSection();
+                }
+                if (removed) {
                     promise.resolve(null);
                 } else {
                     if (!sdk.hasBiometryFactor(context)) {
@@ -707,15 +786,25 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
 
     @ReactMethod
     public void fetchEncryptionKey(String instanceId, final ReadableMap authMap, final int index, final Promise promise) {
+        fetchEncryptionKeyWithFormat(instanceId, authMap, index, "BASE64", promise);
+    }
+
+    @ReactMethod
+    public void fetchEncryptionKeyWithFormat(String instanceId, final ReadableMap authMap, final int index, final String outputFormat, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("fetchEncryptionKeyWithFormat", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) throws Exception {
+                final DataFormat keyFormat = DataFormat.fromString(outputFormat);
                 final PowerAuthAuthentication auth = constructAuthentication(authMap, false, false);
                 sdk.fetchEncryptionKey(context, auth, index, new IFetchEncryptionKeyListener() {
                     @Override
                     public void onFetchEncryptionKeySucceed(@NonNull byte[] encryptedEncryptionKey) {
-                        promise.resolve(Base64.encodeToString(encryptedEncryptionKey, Base64.NO_WRAP));
+                        try {
+                            promise.resolve(keyFormat.encodeBytes(encryptedEncryptionKey, objectRegister, instanceId));
+                        } catch (WrapperException e) {
+                            Errors.rejectPromise(promise, e);
+                        }
                     }
 
                     @Override
@@ -729,22 +818,41 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
 
     @ReactMethod
     public void signDataWithDevicePrivateKey(String instanceId, final ReadableMap authMap, final String data, final Promise promise) {
+        signDataWithDevicePrivateKeyWithFormat(instanceId, authMap, data, "UTF8", "BASE64", promise);
+    }
+
+    @ReactMethod
+    public void signDataWithDevicePrivateKeyWithFormat(String instanceId, final ReadableMap authMap, final String data, final String dataFormat, final String outputFormat, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("signDataWithDevicePrivateKeyWithFormat", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) throws Exception {
+                final DataFormat signatureFormat = DataFormat.fromString(outputFormat);
                 final PowerAuthAuthentication auth = constructAuthentication(authMap, false, false);
-                sdk.signDataWithDevicePrivateKey(context, auth, data.getBytes(StandardCharsets.UTF_8), new IDataSignatureListener() {
-                    @Override
-                    public void onDataSignedSucceed(@NonNull byte[] signature) {
-                        promise.resolve(Base64.encodeToString(signature, Base64.NO_WRAP));
-                    }
+                // The decoded data is owned by this call, so it's cleared once the signing is finished.
+                final byte[] dataBytes = DataFormat.fromString(dataFormat).decodeBytes(data, objectRegister);
+                try {
+                    sdk.signDataWithDevicePrivateKey(context, auth, dataBytes, new IDataSignatureListener() {
+                        @Override
+                        public void onDataSignedSucceed(@NonNull byte[] signature) {
+                            Arrays.fill(dataBytes, (byte) 0);
+                            try {
+                                promise.resolve(signatureFormat.encodeBytes(signature, objectRegister, instanceId));
+                            } catch (WrapperException e) {
+                                Errors.rejectPromise(promise, e);
+                            }
+                        }
 
-                    @Override
-                    public void onDataSignedFailed(@NonNull Throwable t) {
-                        Errors.rejectPromise(promise, t);
-                    }
-                });
+                        @Override
+                        public void onDataSignedFailed(@NonNull Throwable t) {
+                            Arrays.fill(dataBytes, (byte) 0);
+                            Errors.rejectPromise(promise, t);
+                        }
+                    });
+                } catch (Throwable t) {
+                    Arrays.fill(dataBytes, (byte) 0);
+                    throw t;
+                }
             }
         });
     }
@@ -752,7 +860,7 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void validatePassword(String instanceId, final Dynamic password, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, sdk -> {
+        this.usePowerAuth("validatePassword", instanceId, promise, sdk -> {
             final Password corePassword = passwordModule.usePassword(password);
             sdk.validatePassword(context, corePassword, new IValidatePasswordListener() {
                 @Override
@@ -770,7 +878,7 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
 
     @ReactMethod
     public void hasActivationRecoveryData(String instanceId, final Promise promise) {
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("hasActivationRecoveryData", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
                 promise.resolve(sdk.hasActivationRecoveryData());
@@ -781,7 +889,7 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void activationRecoveryData(String instanceId, final ReadableMap authMap, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("activationRecoveryData", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) throws Exception {
                 final PowerAuthAuthentication auth = constructAuthentication(authMap, false, false);
@@ -806,7 +914,7 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void confirmRecoveryCode(String instanceId, final String recoveryCode, final ReadableMap authMap, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("confirmRecoveryCode", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) throws Exception {
                 final PowerAuthAuthentication auth = constructAuthentication(authMap, false, false);
@@ -854,7 +962,7 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void authenticateWithBiometry(String instanceId, final ReadableMap prompt, final boolean makeReusable, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuthOnMainThread(instanceId, promise, sdk -> {
+        this.usePowerAuthOnMainThread("authenticateWithBiometry", instanceId, promise, sdk -> {
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
                 try {
                     validateBiometryBeforeUse(sdk);
@@ -909,36 +1017,78 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void requestAccessToken(String instanceId, final String tokenName, final ReadableMap authMap, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("requestAccessToken", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) throws Exception {
-                final PowerAuthAuthentication auth = constructAuthentication(authMap, false, false);
-                sdk.getTokenStore().requestAccessToken(context, tokenName, auth, new IGetTokenListener() {
-                    @Override
-                    public void onGetTokenSucceeded(@NonNull PowerAuthToken token) {
-                        WritableMap response = Arguments.createMap();
-                        response.putString("tokenName", token.getTokenName());
-                        response.putString("tokenIdentifier", token.getTokenIdentifier());
-                        promise.resolve(response);
-                    }
-                    @Override
-                    public void onGetTokenFailed(@NonNull Throwable t) {
-                        Errors.rejectPromise(promise, t);
+                // Only possession-only requests are coalesced. Requests with password or biometry are
+                // executed separately, so credentials of each caller are consumed and verified.
+                final Pair<String, String> requestKey = isPossessionOnly(authMap) ? Pair.create(instanceId, tokenName) : null;
+                if (requestKey != null && !pendingTokenRequests.add(requestKey, promise)) {
+                    // The same token is already requested, so this promise will be resolved with
+                    // the result of the pending request.
+                    return;
+                }
+                try {
+                    final PowerAuthAuthentication auth = constructAuthentication(authMap, false, false);
+                    // The token must not be cached if the instance is deconfigured or tokens are removed in the meantime.
+                    final long cacheGeneration = tokenCache.getGeneration();
+                    sdk.getTokenStore().requestAccessToken(context, tokenName, auth, new IGetTokenListener() {
+                        @Override
+                        public void onGetTokenSucceeded(@NonNull PowerAuthToken token) {
+                            tokenCache.putToken(instanceId, token, cacheGeneration);
+                            for (Promise waitingPromise : removeTokenRequestPromises(requestKey, promise)) {
+                                WritableMap response = Arguments.createMap();
+                                response.putString("tokenName", token.getTokenName());
+                                response.putString("tokenIdentifier", token.getTokenIdentifier());
+                                waitingPromise.resolve(response);
+                            }
+                        }
+                        @Override
+                        public void onGetTokenFailed(@NonNull Throwable t) {
+                            for (Promise waitingPromise : removeTokenRequestPromises(requestKey, promise)) {
+                                Errors.rejectPromise(waitingPromise, t);
+                            }
+                        }
+                    });
+                } catch (Throwable t) {
+                    for (Promise waitingPromise : removeTokenRequestPromises(requestKey, promise)) {
+                        Errors.rejectPromise(waitingPromise, t);
                     }
-                });
+                }
             }
         });
     }
 
+    /**
+     * Determine whether authentication map contains possession factor only.
+     * @param authMap Map with authentication.
+     * @return true if authentication has no password and no biometry key.
+     */
+    private static boolean isPossessionOnly(@NonNull ReadableMap authMap) {
+        return !authMap.hasKey("password") && (!authMap.hasKey("biometryKeyId") || authMap.isNull("biometryKeyId"));
+    }
+
+    /**
+     * Get promises waiting for the result of the token request.
+     * @param requestKey Key of coalesced request or null if request is not coalesced.
+     * @param promise Promise of the caller that started the request.
+     * @return List of promises to resolve or reject.
+     */
+    @NonNull
+    private List<Promise> removeTokenRequestPromises(@Nullable Pair<String, String> requestKey, @NonNull Promise promise) {
+        return requestKey != null ? pendingTokenRequests.remove(requestKey) : Collections.singletonList(promise);
+    }
+
     @ReactMethod
     public void removeAccessToken(String instanceId, final String tokenName, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("removeAccessToken", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
                 sdk.getTokenStore().removeAccessToken(context, tokenName, new IRemoveTokenListener() {
                     @Override
                     public void onRemoveTokenSucceeded() {
+                        tokenCache.removeToken(instanceId, tokenName);
                         promise.resolve(null);
                     }
 
@@ -954,10 +1104,10 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void getLocalToken(String instanceId, final String tokenName, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("getLocalToken", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
-                PowerAuthToken token = sdk.getTokenStore().getLocalToken(context, tokenName);
+                PowerAuthToken token = getLocalToken(sdk, instanceId, tokenName);
                 if (token != null) {
                     WritableMap response = Arguments.createMap();
                     response.putString("tokenName", token.getTokenName());
@@ -972,11 +1122,10 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
 
     @ReactMethod
     public void hasLocalToken(String instanceId, final String tokenName, final Promise promise) {
-        final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("hasLocalToken", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
-                promise.resolve(sdk.getTokenStore().hasLocalToken(context, tokenName));
+                promise.resolve(getLocalToken(sdk, instanceId, tokenName) != null);
             }
         });
     }
@@ -984,10 +1133,11 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void removeLocalToken(String instanceId, final String tokenName, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("removeLocalToken", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
                 sdk.getTokenStore().removeLocalToken(context, tokenName);
+                tokenCache.removeToken(instanceId, tokenName);
                 promise.resolve(null);
             }
         });
@@ -996,10 +1146,11 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void removeAllLocalTokens(String instanceId, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("removeAllLocalTokens", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
                 sdk.getTokenStore().removeAllLocalTokens(context);
+                tokenCache.removeAllTokens(instanceId);
                 promise.resolve(null);
             }
         });
@@ -1008,14 +1159,14 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
     @ReactMethod
     public void generateHeaderForToken(String instanceId, final String tokenName, final Promise promise) {
         final Context context = this.context;
-        this.usePowerAuth(instanceId, promise, new PowerAuthBlock() {
+        this.usePowerAuth("generateHeaderForToken", instanceId, promise, new PowerAuthBlock() {
             @Override
             public void run(@NonNull PowerAuthSDK sdk) {
-                PowerAuthToken token = sdk.getTokenStore().getLocalToken(context, tokenName);
+                PowerAuthToken token = getLocalToken(sdk, instanceId, tokenName);
                 if (token == null) {
                     promise.reject(Errors.EC_LOCAL_TOKEN_NOT_AVAILABLE, "This token is no longer available in the local store.");
                 } else if (token.canGenerateHeader()) {
-                    promise.resolve(getHttpHeaderObject(token.generateHeader()));
+                    promise.resolve(getHttpHeaderObject(generateHeaderTraced(token)));
                 } else {
                     promise.reject(Errors.EC_CANNOT_GENERATE_TOKEN, "Cannot generate header for this token.");
                 }
@@ -1023,6 +1174,89 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
         });
     }
 
+    @ReactMethod
+    public void addTokenHeaderRule(String instanceId, final String tokenName, final ReadableMap rule, final Promise promise) {
+        this.usePowerAuth("addTokenHeaderRule", instanceId, promise, sdk -> {
+            final String host = rule.hasKey("host") ? rule.getString("host") : null;
+            final int port = rule.hasKey("port") ? rule.getInt("port") : -1;
+            final String pathPrefix = rule.hasKey("pathPrefix") ? rule.getString("pathPrefix") : null;
+            final boolean allowInsecure = rule.hasKey("allowInsecure") && rule.getBoolean("allowInsecure");
+            if (tokenName == null || host == null) {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Token name and host are required");
+            }
+            if (port != -1 && (port < 1 || port > 65535)) {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid port in token header rule");
+            }
+            PowerAuthTokenHeaderInterceptor.getSharedInstance().addRule(new PowerAuthTokenHeaderInterceptor.Rule(instanceId, tokenName, host, port, pathPrefix, allowInsecure));
+            promise.resolve(null);
+        });
+    }
+
+    @ReactMethod
+    public void removeTokenHeaderRules(String instanceId, final Promise promise) {
+        this.usePowerAuth("removeTokenHeaderRules", instanceId, promise, sdk -> {
+            PowerAuthTokenHeaderInterceptor.getSharedInstance().removeRules(instanceId);
+            promise.resolve(null);
+        });
+    }
+
+    @Nullable
+    @Override
+    public PowerAuthAuthorizationHttpHeader generateTokenHeader(@NonNull String instanceId, @NonNull String tokenName) {
+        // Called from OkHttp's thread, when request matches the rule registered in the interceptor.
+        final PowerAuthSDK sdk = objectRegister.findObject(instanceId, PowerAuthSDK.class);
+        if (sdk == null) {
+            return null;
+        }
+        final PowerAuthToken token = getLocalToken(sdk, instanceId, tokenName);
+        if (token == null || !token.canGenerateHeader()) {
+            return null;
+        }
+        final PowerAuthAuthorizationHttpHeader header = generateHeaderTraced(token);
+        return header.powerAuthErrorCode == PowerAuthErrorCodes.SUCCEED ? header : null;
+    }
+
+    /**
+     * Get local token with given name. The token is looked up in the in-memory cache first and
+     * only if it's not there, then the persistent token store is used.
+     * @param sdk PowerAuthSDK instance.
+     * @param instanceId PowerAuth instance identifier.
+     * @param tokenName Name of the token.
+     * @return Token or null if there's no such token available.
+     */
+    @Nullable
+    private PowerAuthToken getLocalToken(@NonNull PowerAuthSDK sdk, @NonNull String instanceId, @NonNull String tokenName) {
+        PowerAuthToken token = tokenCache.getToken(instanceId, tokenName);
+        if (token == null) {
+            final long cacheGeneration = tokenCache.getGeneration();
+            final Tracer.Backend t = Tracer.begin(Tracer.SECTION_KEYSTORE);
+            try {
+                token = sdk.getTokenStore().getLocalToken(context, tokenName);
+            } finally {
+                t.endSection();
+            }
+            if (token != null) {
+                tokenCache.putToken(instanceId, token, cacheGeneration);
+            }
+        }
+        return token;
+    }
+
+    /**
+     * Generate header for token in a trace section.
+     * @param token Token that can generate header.
+     * @return Generated header.
+     */
+    @NonNull
+    private static PowerAuthAuthorizationHttpHeader generateHeaderTraced(@NonNull PowerAuthToken token) {
+        final Tracer.Backend t = Tracer.begin(Tracer.SECTION_TOKEN_HEADER);
+        try {
+            return token.generateHeader();
+        } finally {
+            t.endSection();
+        }
+    }
+
     // ACTIVATION CODE UTIL METHODS
 
     @ReactMethod
@@ -1224,36 +1458,46 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
 
     /**
      * Get PowerAuthSDK instance from the list of instances and run PowerAuthBlock with the instance.
+     * @param method Name of method, used for latency metrics.
      * @param instanceId Instance identifier
      * @param promise Promise to resolve TS call.
      * @param block Block to execute with acquired PowerAuthSDK instance.
      */
-    private void usePowerAuth(@Nonnull String instanceId, final Promise promise, PowerAuthBlock block) {
+    private void usePowerAuth(@NonNull String method, @Nonnull String instanceId, final Promise promise, PowerAuthBlock block) {
+        long start = LatencyMetrics.start();
         try {
             final PowerAuthSDK instance = getPowerAuthInstance(instanceId);
+            start = LatencyMetrics.record(method, instanceId, LatencyMetrics.PHASE_LOOKUP, start);
             if (instance != null) {
                 block.run(instance);
+                LatencyMetrics.record(method, instanceId, LatencyMetrics.PHASE_WORK, start);
             } else {
                 promise.reject(Errors.EC_INSTANCE_NOT_CONFIGURED, "This instance is not configured.");
+                LatencyMetrics.record(method, instanceId, LatencyMetrics.PHASE_RESOLVE, start);
             }
         } catch (Throwable e) {
+            start = LatencyMetrics.start();
             Errors.rejectPromise(promise, e);
+            LatencyMetrics.record(method, instanceId, LatencyMetrics.PHASE_RESOLVE, start);
         }
     }
 
     /**
      * Get PowerAuthSDK instance from the list of instances and run PowerAuthBlock with the instance on main thread.
+     * @param method Name of method, used for latency metrics.
      * @param instanceId Instance identifier
      * @param promise Promise to resolve TS call.
      * @param block Block to execute on main thread with acquired PowerAuthSDK instance.
      */
-    private void usePowerAuthOnMainThread(@Nonnull final String instanceId, final Promise promise, final PowerAuthBlock block) {
+    private void usePowerAuthOnMainThread(@NonNull final String method, @Nonnull final String instanceId, final Promise promise, final PowerAuthBlock block) {
+        final long enqueued = LatencyMetrics.start();
         // Note: Uses internal PowerAuth mobile SDK class, so we'll need to reimplement this in some future release.
         //       Right now it's OK to use native SDKs class, due to tight dependency between RN wrapper and mobile SDK.
         MainThreadExecutor.getInstance().execute(new Runnable() {
             @Override
             public void run() {
-                usePowerAuth(instanceId, promise, block);
+                LatencyMetrics.record(method, instanceId, LatencyMetrics.PHASE_QUEUE, enqueued);
+                usePowerAuth(method, instanceId, promise, block);
             }
         });
     }
@@ -1272,6 +1516,8 @@ public class PowerAuthModule extends ReactContextBaseJavaModule {
         if (!objectRegister.isValidObjectId(instanceId)) {
             throw new PowerAuthErrorException(PowerAuthErrorCodes.WRONG_PARAMETER, "Instance identifier is missing or empty or forbidden string");
         }
+        PowerAuthTokenHeaderInterceptor.getSharedInstance().removeRules(instanceId);
+        LatencyMetrics.removeInstance(instanceId);
         objectRegister.removeAllObjectsWithTag(instanceId);
     }
 
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import com.facebook.react.bridge.BaseJavaModule;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.module.annotations.ReactModule;
+
+import java.util.Arrays;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+@SuppressWarnings("unused")
+@ReactModule(name = "PowerAuthNativeData")
+public class PowerAuthNativeDataModule extends BaseJavaModule {
+
+    private final ObjectRegister objectRegister;
+
+    public PowerAuthNativeDataModule(@NonNull ObjectRegister objectRegister) {
+        super();
+        this.objectRegister = objectRegister;
+    }
+
+    @NonNull
+    @Override
+    public String getName() {
+        return "PowerAuthNativeData";
+    }
+
+    // JavaScript methods
+
+    @ReactMethod
+    public void initialize(@Nullable String data, @Nullable String format, @Nullable String ownerId, Promise promise) {
+        try {
+            if (ownerId != null && !objectRegister.containsObject(ownerId)) {
+                promise.reject(Errors.EC_INSTANCE_NOT_CONFIGURED, "PowerAuth instance is not configured");
+                return;
+            }
+            final DataFormat dataFormat = DataFormat.fromString(format);
+            if (dataFormat == DataFormat.HANDLE) {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Native data cannot be created from another handle");
+            }
+            promise.resolve(NativeData.register(objectRegister, dataFormat.decodeBytes(data), ownerId));
+        } catch (Throwable t) {
+            Errors.rejectPromise(promise, t);
+        }
+    }
+
+    @ReactMethod
+    public void materialize(String objectId, @Nullable String format, Promise promise) {
+        try {
+            final DataFormat dataFormat = DataFormat.fromString(format);
+            if (dataFormat == DataFormat.HANDLE) {
+                NativeData.validate(objectRegister, objectId);
+                promise.resolve(objectId);
+                return;
+            }
+            final byte[] bytes = NativeData.copyBytes(objectRegister, objectId);
+            try {
+                promise.resolve(dataFormat.encodeValue(bytes, objectRegister, null));
+            } finally {
+                Arrays.fill(bytes, (byte) 0);
+            }
+        } catch (Throwable t) {
+            Errors.rejectPromise(promise, t);
+        }
+    }
+
+    @ReactMethod
+    public void length(String objectId, Promise promise) {
+        try {
+            promise.resolve(NativeData.length(objectRegister, objectId));
+        } catch (Throwable t) {
+            Errors.rejectPromise(promise, t);
+        }
+    }
+
+    @ReactMethod
+    public void release(String objectId, Promise promise) {
+        objectRegister.removeObject(objectId, NativeData.class);
+        promise.resolve(null);
+    }
+}
@@ -20,21 +20,30 @@ import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.BaseJavaModule;
 import com.facebook.react.bridge.Dynamic;
 import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.ReactApplicationContext;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.WritableArray;
 import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.module.annotations.ReactModule;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import io.getlime.security.powerauth.core.Password;
 
 @SuppressWarnings("unused")
 @ReactModule(name = "PowerAuthPassphraseMeter")
 public class PowerAuthPassphraseMeterModule extends BaseJavaModule {
 
+    private final ReactApplicationContext context;
     private final PowerAuthPasswordModule passwordModule;
+    /**
+     * Dictionary used in passphrase tests.
+     */
+    private volatile @NonNull PassphraseDictionary passphraseDictionary = PassphraseDictionary.BUILT_IN;
 
-    public PowerAuthPassphraseMeterModule(@NonNull PowerAuthPasswordModule passwordModule) {
+    public PowerAuthPassphraseMeterModule(@NonNull ReactApplicationContext context, @NonNull PowerAuthPasswordModule passwordModule) {
+        this.context = context;
         this.passwordModule = passwordModule;
     }
 
@@ -48,14 +57,26 @@ public class PowerAuthPassphraseMeterModule extends BaseJavaModule {
     void testPin(Dynamic password, Promise promise) {
         try {
             // Resolve password object into core password object.
+            long start = LatencyMetrics.start();
             final Password corePassword = passwordModule.touchPassword(password);
-            final int resultAndLength = corePassword.validatePasswordComplexity(passwordBytes -> {
-                final int result = new PinTester().testPin(passwordBytes);
-                return result | ((passwordBytes.length & 0xFFF) << 16);
-            });
+            start = LatencyMetrics.record("testPin", null, LatencyMetrics.PHASE_LOOKUP, start);
+            final PinTester pinTester = passwordModule.getPinTester();
+            final int[] frequencyRank = new int[1];
+            final int resultAndLength;
+            // The password can be edited by the PIN pad on the UI thread.
+            synchronized (corePassword) {
+                resultAndLength = corePassword.validatePasswordComplexity(passwordBytes -> {
+                    final int result = pinTester.testPin(passwordBytes);
+                    if ((result & PinTester.RES_FREQUENTLY_USED) != 0) {
+                        frequencyRank[0] = pinTester.lookupRank(passwordBytes, passwordBytes.length);
+                    }
+                    return result | ((passwordBytes.length & 0xFFF) << 16);
+                });
+            }
             // Process result
             final int result = resultAndLength & 0xFFFF;
             final int pinLength = resultAndLength >> 16;
+            start = LatencyMetrics.record("testPin", null, LatencyMetrics.PHASE_WORK, start);
             // Throw exceptions if input is wrong.
             if (result == PinTester.RES_WRONG_INPUT) {
                 throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Not a PIN");
@@ -63,43 +84,239 @@ public class PowerAuthPassphraseMeterModule extends BaseJavaModule {
                 throw new WrapperException(Errors.EC_WRONG_PARAMETER, "PIN is too short");
             } else {
                 // It looks like input is OK, so process the result.
-                final WritableArray issues = Arguments.createArray();
-                final boolean isWeak;
-                if (result != PinTester.RES_OK) {
-                    // Some issues found, so prepare array with issues
-                    if ((result & PinTester.RES_NOT_UNIQUE) != 0) {
-                        issues.pushString("NOT_UNIQUE");
-                    }
-                    if ((result & PinTester.RES_REPEATING_CHARS) != 0) {
-                        issues.pushString("REPEATING_CHARS");
-                    }
-                    if ((result & PinTester.RES_HAS_PATTERN) != 0) {
-                        issues.pushString("PATTERN_FOUND");
-                    }
-                    if ((result & PinTester.RES_POSSIBLY_DATE) != 0) {
-                        issues.pushString("POSSIBLY_DATE");
-                    }
-                    if ((result & PinTester.RES_FREQUENTLY_USED) != 0) {
-                        issues.pushString("FREQUENTLY_USED");
-                    }
-                    // Prepare weak flag
-                    if (pinLength <= 4) {
-                        isWeak = (result & (PinTester.RES_FREQUENTLY_USED | PinTester.RES_NOT_UNIQUE)) != 0;
-                    } else if (pinLength <= 6) {
-                        isWeak = (result & (PinTester.RES_FREQUENTLY_USED | PinTester.RES_NOT_UNIQUE | PinTester.RES_REPEATING_CHARS)) != 0;
-                    } else {
-                        isWeak = (result & (PinTester.RES_FREQUENTLY_USED | PinTester.RES_NOT_UNIQUE | PinTester.RES_REPEATING_CHARS | PinTester.RES_HAS_PATTERN)) != 0;
-                    }
-                } else {
-                    isWeak = false;
-                }
-                final WritableMap map = Arguments.createMap();
-                map.putBoolean("shouldWarnUserAboutWeakPin", isWeak);
-                map.putArray("issues", issues);
-                promise.resolve(map);
+                promise.resolve(createPinTestResult(result, pinLength, frequencyRank[0], pinTester.getPolicy()));
+                LatencyMetrics.record("testPin", null, LatencyMetrics.PHASE_RESOLVE, start);
+            }
+        } catch (Throwable t) {
+            Errors.rejectPromise(promise, t);
+        }
+    }
+
+    @ReactMethod
+    void testPassphrase(Dynamic password, Promise promise) {
+        try {
+            // Resolve password object into core password object.
+            long start = LatencyMetrics.start();
+            final Password corePassword = passwordModule.touchPassword(password);
+            start = LatencyMetrics.record("testPassphrase", null, LatencyMetrics.PHASE_LOOKUP, start);
+            final PassphraseTester.Result[] result = new PassphraseTester.Result[1];
+            final PassphraseDictionary dictionary = passphraseDictionary;
+            synchronized (corePassword) {
+                corePassword.validatePasswordComplexity(passwordBytes -> {
+                    result[0] = PassphraseTester.testPassphrase(passwordBytes, dictionary);
+                    return 0;
+                });
+            }
+            start = LatencyMetrics.record("testPassphrase", null, LatencyMetrics.PHASE_WORK, start);
+            promise.resolve(createPassphraseTestResult(result[0]));
+            LatencyMetrics.record("testPassphrase", null, LatencyMetrics.PHASE_RESOLVE, start);
+        } catch (Throwable t) {
+            Errors.rejectPromise(promise, t);
+        }
+    }
+
+    @ReactMethod
+    void suggestPins(int length, int count, Promise promise) {
+        try {
+            final WritableArray pins = Arguments.createArray();
+            for (String pin : PinGenerator.suggestPins(length, count, passwordModule.getPinTester())) {
+                pins.pushString(pin);
+            }
+            promise.resolve(pins);
+        } catch (Throwable t) {
+            Errors.rejectPromise(promise, t);
+        }
+    }
+
+    @ReactMethod
+    void setPinPolicy(@Nullable ReadableMap policy, Promise promise) {
+        try {
+            passwordModule.setPinPolicy(policy != null ? PinPolicy.compile(policy) : null);
+            promise.resolve(null);
+        } catch (Throwable t) {
+            Errors.rejectPromise(promise, t);
+        }
+    }
+
+    @ReactMethod
+    void loadPinDictionary(String source, Promise promise) {
+        try {
+            passwordModule.setPinDictionary(PinDictionary.load(context, source));
+            promise.resolve(null);
+        } catch (Throwable t) {
+            Errors.rejectPromise(promise, t);
+        }
+    }
+
+    @ReactMethod
+    void unloadPinDictionary(Promise promise) {
+        passwordModule.setPinDictionary(null);
+        promise.resolve(null);
+    }
+
+    @ReactMethod
+    void loadPassphraseDictionary(String source, Promise promise) {
+        try {
+            passphraseDictionary = PassphraseDictionary.load(context, source);
+            promise.resolve(null);
+        } catch (Throwable t) {
+            Errors.rejectPromise(promise, t);
+        }
+    }
+
+    @ReactMethod
+    void unloadPassphraseDictionary(Promise promise) {
+        passphraseDictionary = PassphraseDictionary.BUILT_IN;
+        promise.resolve(null);
+    }
+
+    @ReactMethod
+    void attachPinMeter(String objectId, Promise promise) {
+        try {
+            passwordModule.attachPinMeter(objectId);
+            promise.resolve(null);
+        } catch (Throwable t) {
+            Errors.rejectPromise(promise, t);
+        }
+    }
+
+    @ReactMethod
+    void detachPinMeter(String objectId, Promise promise) {
+        passwordModule.detachPinMeter(objectId);
+        promise.resolve(null);
+    }
+
+    @ReactMethod
+    void getPinMeterResult(String objectId, Promise promise) {
+        try {
+            long start = LatencyMetrics.start();
+            final Password password = passwordModule.findPassword(objectId);
+            final PinMeter pinMeter = password != null ? passwordModule.findPinMeter(password) : null;
+            start = LatencyMetrics.record("getPinMeterResult", null, LatencyMetrics.PHASE_LOOKUP, start);
+            if (pinMeter == null) {
+                throw new WrapperException(Errors.EC_INVALID_NATIVE_OBJECT, "PIN meter is not attached to the password");
             }
+            final WritableMap result = createPinMeterResult(password, pinMeter, passwordModule.getPinTester());
+            start = LatencyMetrics.record("getPinMeterResult", null, LatencyMetrics.PHASE_WORK, start);
+            promise.resolve(result);
+            LatencyMetrics.record("getPinMeterResult", null, LatencyMetrics.PHASE_RESOLVE, start);
         } catch (Throwable t) {
             Errors.rejectPromise(promise, t);
         }
     }
+
+    // Native methods
+
+    /**
+     * Create result of PIN strength test from the current state of the PIN meter.
+     * @param password Password object the meter is attached to.
+     * @param pinMeter PIN meter.
+     * @param pinTester Tester configured with the application's PIN policy and dictionary.
+     * @return Map with the result or null if typed password is not a PIN or is too short.
+     */
+    @Nullable
+    static WritableMap createPinMeterResult(@NonNull Password password, @NonNull PinMeter pinMeter, @NonNull PinTester pinTester) {
+        final int result;
+        final int pinLength;
+        final int frequencyRank;
+        // The password can be edited by the PIN pad on the UI thread.
+        synchronized (password) {
+            result = pinMeter.getResult(password, pinTester);
+            pinLength = pinMeter.getPinLength();
+            frequencyRank = pinMeter.getFrequencyRank();
+        }
+        if (result == PinTester.RES_WRONG_INPUT || result == PinTester.RES_TOO_SHORT) {
+            return null;
+        }
+        return createPinTestResult(result, pinLength, frequencyRank, pinTester.getPolicy());
+    }
+
+    /**
+     * Create result of passphrase strength test.
+     * @param result Result from {@link PassphraseTester}.
+     * @return Map with the result.
+     */
+    @NonNull
+    private static WritableMap createPassphraseTestResult(@NonNull PassphraseTester.Result result) {
+        final WritableArray issues = Arguments.createArray();
+        if ((result.issues & PassphraseTester.ISSUE_TOO_SHORT) != 0) {
+            issues.pushString("TOO_SHORT");
+        }
+        if ((result.issues & PassphraseTester.ISSUE_COMMON_WORD) != 0) {
+            issues.pushString("COMMON_WORD");
+        }
+        if ((result.issues & PassphraseTester.ISSUE_KEYBOARD_PATTERN) != 0) {
+            issues.pushString("KEYBOARD_PATTERN");
+        }
+        if ((result.issues & PassphraseTester.ISSUE_SEQUENCE) != 0) {
+            issues.pushString("SEQUENCE");
+        }
+        if ((result.issues & PassphraseTester.ISSUE_REPEATING_CHARS) != 0) {
+            issues.pushString("REPEATING_CHARS");
+        }
+        if ((result.issues & PassphraseTester.ISSUE_LOW_VARIETY) != 0) {
+            issues.pushString("LOW_VARIETY");
+        }
+        final String strength;
+        if (result.entropy < 28) {
+            strength = "VERY_WEAK";
+        } else if (result.entropy < 36) {
+            strength = "WEAK";
+        } else if (result.entropy < 60) {
+            strength = "MODERATE";
+        } else if (result.entropy < 128) {
+            strength = "STRONG";
+        } else {
+            strength = "VERY_STRONG";
+        }
+        final WritableMap map = Arguments.createMap();
+        map.putDouble("entropy", Math.round(result.entropy * 10) / 10.0);
+        map.putString("strength", strength);
+        map.putBoolean("shouldWarnUserAboutWeakPassphrase", result.entropy < 36 || (result.issues & PassphraseTester.ISSUE_TOO_SHORT) != 0);
+        map.putArray("issues", issues);
+        return map;
+    }
+
+    /**
+     * Create result of PIN strength test.
+     * @param result Combination of {@code PinTester.RES_*} constants.
+     * @param pinLength Length of tested PIN.
+     * @param frequencyRank Frequency rank from the dictionary of breached PINs or 0 if PIN is not there.
+     * @param policy Policy that determines whether the PIN is weak.
+     * @return Map with the result.
+     */
+    @NonNull
+    private static WritableMap createPinTestResult(int result, int pinLength, int frequencyRank, @NonNull PinPolicy policy) {
+        final WritableArray issues = Arguments.createArray();
+        final boolean isWeak;
+        if (result != PinTester.RES_OK) {
+            // Some issues found, so prepare array with issues
+            if ((result & PinTester.RES_NOT_UNIQUE) != 0) {
+                issues.pushString("NOT_UNIQUE");
+            }
+            if ((result & PinTester.RES_REPEATING_CHARS) != 0) {
+                issues.pushString("REPEATING_CHARS");
+            }
+            if ((result & PinTester.RES_HAS_PATTERN) != 0) {
+                issues.pushString("PATTERN_FOUND");
+            }
+            if ((result & PinTester.RES_POSSIBLY_DATE) != 0) {
+                issues.pushString("POSSIBLY_DATE");
+            }
+            if ((result & PinTester.RES_FREQUENTLY_USED) != 0) {
+                issues.pushString("FREQUENTLY_USED");
+            }
+            // Prepare weak flag
+            isWeak = policy.isWeak(result, pinLength);
+        } else {
+            isWeak = false;
+        }
+        final WritableMap map = Arguments.createMap();
+        map.putBoolean("shouldWarnUserAboutWeakPin", isWeak);
+        map.putArray("issues", issues);
+        if (frequencyRank > 0) {
+            map.putInt("frequencyRank", frequencyRank);
+        }
+        return map;
+    }
 }
@@ -16,16 +16,22 @@
 
 package com.wultra.android.powerauth.reactnative;
 
+import com.facebook.react.bridge.Arguments;
 import com.facebook.react.bridge.BaseJavaModule;
 import com.facebook.react.bridge.Dynamic;
+import com.facebook.react.bridge.NoSuchKeyException;
 import com.facebook.react.bridge.Promise;
 import com.facebook.react.bridge.ReactMethod;
+import com.facebook.react.bridge.ReadableArray;
 import com.facebook.react.bridge.ReadableMap;
 import com.facebook.react.bridge.ReadableType;
+import com.facebook.react.bridge.UnexpectedNativeTypeException;
+import com.facebook.react.bridge.WritableMap;
 import com.facebook.react.module.annotations.ReactModule;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 
 import javax.annotation.Nonnull;
@@ -39,6 +45,17 @@ import io.getlime.security.powerauth.core.Password;
 public class PowerAuthPasswordModule extends BaseJavaModule {
 
     private final ObjectRegister objectRegister;
+    /**
+     * PIN meters attached to password objects. The password and its meter are always edited while
+     * holding the password's monitor, because the password can be edited from the native modules
+     * thread and from the UI thread by the PIN pad.
+     */
+    private final IdentityHashMap<Password, PinMeter> pinMeters = new IdentityHashMap<>();
+    /**
+     * PIN tester configured with PIN policy and dictionary set by the application. The tester is
+     * replaced when the policy or the dictionary changes, so PIN meters can detect the change.
+     */
+    private volatile @NonNull PinTester pinTester = new PinTester(PinPolicy.DEFAULT);
 
     public PowerAuthPasswordModule(@NonNull ObjectRegister objectRegister) {
         super();
@@ -65,7 +82,10 @@ public class PowerAuthPasswordModule extends BaseJavaModule {
                 releaseTime = Math.min(autoreleaseTime, Constants.PASSWORD_KEY_KEEP_ALIVE_TIME);
             }
         }
-        final ManagedAny<Password> instance = ManagedAny.wrap(new Password(), Password::destroy);
+        final ManagedAny<Password> instance = ManagedAny.wrap(new Password(), password -> {
+            removePinMeter(password);
+            password.destroy();
+        });
         final List<ReleasePolicy> releasePolicies = destroyOnUse
                 ? Arrays.asList(ReleasePolicy.afterUse(1), ReleasePolicy.keepAlive(releaseTime))
                 : Collections.singletonList(ReleasePolicy.keepAlive(releaseTime));
@@ -80,23 +100,23 @@ public class PowerAuthPasswordModule extends BaseJavaModule {
 
     @ReactMethod
     public void clear(String objectId, Promise promise) {
-        withPassword(objectId, promise, password -> {
-            password.clear();
+        withPassword("clear", objectId, promise, password -> {
+            clear(password);
             promise.resolve(null);
         });
     }
 
     @ReactMethod
     public void length(String objectId, Promise promise) {
-        withPassword(objectId, promise, password -> {
+        withPassword("length", objectId, promise, password -> {
             promise.resolve(password.length());
         });
     }
 
     @ReactMethod
     public void isEqual(String id1, String id2, Promise promise) {
-        withPassword(id1, promise, p1 -> {
-            withPassword(id2, promise, p2 -> {
+        withPassword("isEqual", id1, promise, p1 -> {
+            withPassword("isEqual", id2, promise, p2 -> {
                 promise.resolve(p1.isEqualToPassword(p2));
             });
         });
@@ -104,17 +124,17 @@ public class PowerAuthPasswordModule extends BaseJavaModule {
 
     @ReactMethod
     public void addCharacter(String objectId, int character, Promise promise) {
-        withPassword(objectId, character, promise, (password, codePoint) -> {
-            password.addCharacter(codePoint);
+        withPassword("addCharacter", objectId, character, promise, (password, codePoint) -> {
+            addCharacter(password, codePoint);
             promise.resolve(password.length());
         });
     }
 
     @ReactMethod
     public void insertCharacter(String objectId, int character, int position, Promise promise) {
-        withPassword(objectId, character, promise, (password, codePoint) -> {
+        withPassword("insertCharacter", objectId, character, promise, (password, codePoint) -> {
             if (position >= 0 && position <= password.length()) {
-                password.insertCharacter(codePoint, position);
+                insertCharacter(password, codePoint, position);
                 promise.resolve(password.length());
             } else {
                 promise.reject(Errors.EC_WRONG_PARAMETER, "Position is out of range");
@@ -124,9 +144,9 @@ public class PowerAuthPasswordModule extends BaseJavaModule {
 
     @ReactMethod
     public void removeCharacter(String objectId, int position, Promise promise) {
-        withPassword(objectId, promise, password -> {
+        withPassword("removeCharacter", objectId, promise, password -> {
             if (position >= 0 && position < password.length()) {
-                password.removeCharacter(position);
+                removeCharacter(password, position);
                 promise.resolve(password.length());
             } else {
                 promise.reject(Errors.EC_WRONG_PARAMETER, "Position is out of range");
@@ -136,12 +156,158 @@ public class PowerAuthPasswordModule extends BaseJavaModule {
 
     @ReactMethod
     public void removeLastCharacter(String objectId, Promise promise) {
-        withPassword(objectId, promise, password -> {
-            password.removeLastCharacter();
+        withPassword("removeLastCharacter", objectId, promise, password -> {
+            removeLastCharacter(password);
             promise.resolve(password.length());
         });
     }
 
+    /**
+     * Edit operation codes for {@link #applyEdits(String, ReadableArray, boolean, Promise)}.
+     */
+    private static final int EDIT_ADD = 0;
+    private static final int EDIT_INSERT = 1;
+    private static final int EDIT_REMOVE = 2;
+    private static final int EDIT_REMOVE_LAST = 3;
+    private static final int EDIT_CLEAR = 4;
+
+    @ReactMethod
+    public void applyEdits(String objectId, ReadableArray ops, Promise promise) {
+        applyEdits(objectId, ops, false, promise);
+    }
+
+    @ReactMethod
+    public void applyEditsAndTestPin(String objectId, ReadableArray ops, Promise promise) {
+        applyEdits(objectId, ops, true, promise);
+    }
+
+    /**
+     * Apply batch of edit operations to the password.
+     * @param objectId Password object identifier.
+     * @param ops Array with edit operations.
+     * @param testPin If true, then the promise is resolved with map containing length and result
+     *                from the attached PIN meter. Otherwise it's resolved with length only.
+     * @param promise Promise to reject or resolve.
+     */
+    private void applyEdits(String objectId, ReadableArray ops, boolean testPin, Promise promise) {
+        final int[] edits;
+        try {
+            edits = translateEdits(ops);
+        } catch (WrapperException e) {
+            Errors.rejectPromise(promise, e);
+            return;
+        }
+        withPassword(testPin ? "applyEditsAndTestPin" : "applyEdits", objectId, promise, password -> {
+            // Validate positions against simulated length first, so the password is either
+            // modified with all operations or not modified at all.
+            int length = password.length();
+            for (int i = 0; i < edits.length; i += 3) {
+                final int position = edits[i + 2];
+                switch (edits[i]) {
+                    case EDIT_ADD:
+                        length++;
+                        break;
+                    case EDIT_INSERT:
+                        if (position < 0 || position > length) {
+                            promise.reject(Errors.EC_WRONG_PARAMETER, "Position is out of range");
+                            return;
+                        }
+                        length++;
+                        break;
+                    case EDIT_REMOVE:
+                        if (position < 0 || position >= length) {
+                            promise.reject(Errors.EC_WRONG_PARAMETER, "Position is out of range");
+                            return;
+                        }
+                        length--;
+                        break;
+                    case EDIT_REMOVE_LAST:
+                        length = Math.max(0, length - 1);
+                        break;
+                    default:
+                        length = 0;
+                        break;
+                }
+            }
+            // Apply all operations
+            for (int i = 0; i < edits.length; i += 3) {
+                switch (edits[i]) {
+                    case EDIT_ADD:
+                        addCharacter(password, edits[i + 1]);
+                        break;
+                    case EDIT_INSERT:
+                        insertCharacter(password, edits[i + 1], edits[i + 2]);
+                        break;
+                    case EDIT_REMOVE:
+                        removeCharacter(password, edits[i + 2]);
+                        break;
+                    case EDIT_REMOVE_LAST:
+                        removeLastCharacter(password);
+                        break;
+                    default:
+                        clear(password);
+                        break;
+                }
+            }
+            if (testPin) {
+                final PinMeter pinMeter = findPinMeter(password);
+                final WritableMap result = Arguments.createMap();
+                result.putInt("length", password.length());
+                result.putMap("strength", pinMeter != null ? PowerAuthPassphraseMeterModule.createPinMeterResult(password, pinMeter, pinTester) : null);
+                promise.resolve(result);
+            } else {
+                promise.resolve(password.length());
+            }
+        });
+    }
+
+    /**
+     * Translate edit operations into compact form and validate characters.
+     * @param ops Array with edit operations.
+     * @return Array with code, character and position triplet for each operation.
+     * @throws WrapperException In case that array contains invalid operation or value of unexpected type.
+     */
+    @NonNull
+    private static int[] translateEdits(@Nullable ReadableArray ops) throws WrapperException {
+        if (ops == null) {
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Missing edit operations");
+        }
+        try {
+            final int count = ops.size();
+            final int[] edits = new int[count * 3];
+            for (int i = 0; i < count; i++) {
+                final ReadableMap op = ops.getMap(i);
+                final String type = op != null && op.hasKey("op") ? op.getString("op") : null;
+                final int character = op != null && op.hasKey("character") ? op.getInt("character") : -1;
+                final int position = op != null && op.hasKey("position") ? op.getInt("position") : -1;
+                final int code;
+                if ("add".equals(type)) {
+                    code = EDIT_ADD;
+                } else if ("insert".equals(type)) {
+                    code = EDIT_INSERT;
+                } else if ("remove".equals(type)) {
+                    code = EDIT_REMOVE;
+                } else if ("removeLast".equals(type)) {
+                    code = EDIT_REMOVE_LAST;
+                } else if ("clear".equals(type)) {
+                    code = EDIT_CLEAR;
+                } else {
+                    throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid edit operation");
+                }
+                if ((code == EDIT_ADD || code == EDIT_INSERT) && (character < 0 || character > Constants.CODEPOINT_MAX)) {
+                    throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid CodePoint");
+                }
+                edits[i * 3] = code;
+                edits[i * 3 + 1] = character;
+                edits[i * 3 + 2] = position;
+            }
+            return edits;
+        } catch (UnexpectedNativeTypeException | ClassCastException | NoSuchKeyException e) {
+            // Value in the array or in the operation has unexpected type.
+            throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid edit operation", e);
+        }
+    }
+
     // Native methods
 
     /**
@@ -201,8 +367,174 @@ public class PowerAuthPasswordModule extends BaseJavaModule {
     Password touchPassword(Dynamic anyPassword) throws WrapperException {
         return findPassword(anyPassword, false);
     }
+
+    /**
+     * Append character to the password and invalidate the attached PIN meter.
+     * @param password Password object.
+     * @param codePoint Character to append.
+     */
+    void addCharacter(@NonNull Password password, int codePoint) {
+        synchronized (password) {
+            password.addCharacter(codePoint);
+            final PinMeter pinMeter = findPinMeter(password);
+            if (pinMeter != null) {
+                pinMeter.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Insert character to the password and invalidate the attached PIN meter.
+     * @param password Password object.
+     * @param codePoint Character to insert.
+     * @param position Position of inserted character.
+     */
+    void insertCharacter(@NonNull Password password, int codePoint, int position) {
+        synchronized (password) {
+            password.insertCharacter(codePoint, position);
+            final PinMeter pinMeter = findPinMeter(password);
+            if (pinMeter != null) {
+                pinMeter.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Remove character from the password and invalidate the attached PIN meter.
+     * @param password Password object.
+     * @param position Position of character to remove.
+     */
+    void removeCharacter(@NonNull Password password, int position) {
+        synchronized (password) {
+            password.removeCharacter(position);
+            final PinMeter pinMeter = findPinMeter(password);
+            if (pinMeter != null) {
+                pinMeter.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Remove last character from the password and invalidate the attached PIN meter.
+     * @param password Password object.
+     */
+    void removeLastCharacter(@NonNull Password password) {
+        synchronized (password) {
+            password.removeLastCharacter();
+            final PinMeter pinMeter = findPinMeter(password);
+            if (pinMeter != null) {
+                pinMeter.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Clear the password and invalidate the attached PIN meter.
+     * @param password Password object.
+     */
+    void clear(@NonNull Password password) {
+        synchronized (password) {
+            password.clear();
+            final PinMeter pinMeter = findPinMeter(password);
+            if (pinMeter != null) {
+                pinMeter.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Attach PIN meter to the password object. If the meter is already attached, then its
+     * result is invalidated.
+     * @param objectId Password object identifier.
+     * @throws WrapperException In case that password object is no longer valid.
+     */
+    void attachPinMeter(String objectId) throws WrapperException {
+        final Password password = objectRegister.touchObject(objectId, Password.class);
+        if (password == null) {
+            throw new WrapperException(Errors.EC_INVALID_NATIVE_OBJECT, "Password object is no longer valid");
+        }
+        synchronized (password) {
+            synchronized (pinMeters) {
+                final PinMeter pinMeter = pinMeters.get(password);
+                if (pinMeter == null) {
+                    pinMeters.put(password, new PinMeter());
+                } else {
+                    pinMeter.invalidate();
+                }
+            }
+        }
+    }
+
+    /**
+     * Detach PIN meter from the password object.
+     * @param objectId Password object identifier.
+     */
+    void detachPinMeter(String objectId) {
+        final Password password = objectRegister.findObject(objectId, Password.class);
+        if (password != null) {
+            removePinMeter(password);
+        }
+    }
+
+    /**
+     * @return PIN tester configured with PIN policy and dictionary set by the application.
+     */
+    @NonNull
+    PinTester getPinTester() {
+        return pinTester;
+    }
+
+    /**
+     * Set PIN policy used in all subsequent PIN tests.
+     * @param policy New policy or null to restore the default policy.
+     */
+    synchronized void setPinPolicy(@Nullable PinPolicy policy) {
+        pinTester = new PinTester(policy != null ? policy : PinPolicy.DEFAULT, pinTester.getDictionary());
+    }
+
+    /**
+     * Set dictionary of breached PINs used in all subsequent PIN tests.
+     * @param dictionary New dictionary or null to stop using the dictionary. The mapping of
+     *                   the previous dictionary is released once it's garbage collected.
+     */
+    synchronized void setPinDictionary(@Nullable PinDictionary dictionary) {
+        pinTester = new PinTester(pinTester.getPolicy(), dictionary);
+    }
+
+    /**
+     * Find password object in the object register.
+     * @param objectId Password object identifier.
+     * @return Password object or null if password doesn't exist.
+     */
+    @Nullable
+    Password findPassword(String objectId) {
+        return objectRegister.touchObject(objectId, Password.class);
+    }
+
+    /**
+     * Find PIN meter attached to the password object.
+     * @param password Password object.
+     * @return PIN meter or null if password has no meter attached.
+     */
+    @Nullable
+    PinMeter findPinMeter(@NonNull Password password) {
+        synchronized (pinMeters) {
+            return pinMeters.isEmpty() ? null : pinMeters.get(password);
+        }
+    }
+
     // Private methods
 
+    /**
+     * Remove and destroy PIN meter attached to the password object.
+     * @param password Password object.
+     */
+    private void removePinMeter(@NonNull Password password) {
+        synchronized (pinMeters) {
+            pinMeters.remove(password);
+        }
+    }
+
     /**
      * Action to execute when password object is found in object register.
      */
@@ -212,16 +544,23 @@ public class PowerAuthPasswordModule extends BaseJavaModule {
 
     /**
      * Execute action when Password is found in object register.
+     * @param method Name of method, used for latency metrics.
      * @param objectId Password object identifier.
      * @param promise Promise to reject or resolve.
      * @param action Action to execute.
      */
-    private void withPassword(String objectId, final Promise promise, final @NonNull Action action) {
+    private void withPassword(@NonNull String method, String objectId, final Promise promise, final @NonNull Action action) {
+        long start = LatencyMetrics.start();
         final Password password = objectRegister.touchObject(objectId, Password.class);
+        start = LatencyMetrics.record(method, null, LatencyMetrics.PHASE_LOOKUP, start);
         if (password != null) {
-            action.action(password);
+            synchronized (password) {
+                action.action(password);
+            }
+            LatencyMetrics.record(method, null, LatencyMetrics.PHASE_WORK, start);
         } else {
             promise.reject(Errors.EC_INVALID_NATIVE_OBJECT, "Password object is no longer valid");
+            LatencyMetrics.record(method, null, LatencyMetrics.PHASE_RESOLVE, start);
         }
     }
 
@@ -234,21 +573,28 @@ public class PowerAuthPasswordModule extends BaseJavaModule {
 
     /**
      * Execute action when Password is found in object register.
+     * @param method Name of method, used for latency metrics.
      * @param objectId Password object identifier.
      * @param character Character that represents an unicode code point.
      * @param promise Promise to reject or resolve.
      * @param action Action to execute.
      */
-    private void withPassword(String objectId, int character, final Promise promise, final @NonNull CharacterAction action) {
+    private void withPassword(@NonNull String method, String objectId, int character, final Promise promise, final @NonNull CharacterAction action) {
         if (character < 0 || character > Constants.CODEPOINT_MAX) {
             promise.reject(Errors.EC_WRONG_PARAMETER, "Invalid CodePoint");
             return;
         }
+        long start = LatencyMetrics.start();
         final Password password = objectRegister.touchObject(objectId, Password.class);
+        start = LatencyMetrics.record(method, null, LatencyMetrics.PHASE_LOOKUP, start);
         if (password != null) {
-            action.action(password, character);
+            synchronized (password) {
+                action.action(password, character);
+            }
+            LatencyMetrics.record(method, null, LatencyMetrics.PHASE_WORK, start);
         } else {
             promise.reject(Errors.EC_INVALID_NATIVE_OBJECT, "Password object is no longer valid");
+            LatencyMetrics.record(method, null, LatencyMetrics.PHASE_RESOLVE, start);
         }
     }
 }
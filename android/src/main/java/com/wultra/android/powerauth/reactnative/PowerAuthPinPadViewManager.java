@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.ReactContext;
+import com.facebook.react.bridge.WritableMap;
+import com.facebook.react.common.MapBuilder;
+import com.facebook.react.uimanager.SimpleViewManager;
+import com.facebook.react.uimanager.ThemedReactContext;
+import com.facebook.react.uimanager.UIManagerHelper;
+import com.facebook.react.uimanager.annotations.ReactProp;
+import com.facebook.react.uimanager.events.Event;
+import com.facebook.react.uimanager.events.EventDispatcher;
+
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.getlime.security.powerauth.core.Password;
+
+/**
+ * View manager for native PIN pad that writes typed digits directly into {@code Password} object.
+ * The view reports only the password length to JavaScript and the PIN strength, if PIN meter is
+ * attached to the password.
+ */
+@SuppressWarnings("unused")
+public class PowerAuthPinPadViewManager extends SimpleViewManager<PinPadView> {
+
+    private static final String EVENT_LENGTH_CHANGE = "topPinLengthChange";
+    private static final String EVENT_COMPLETE = "topPinComplete";
+
+    @NonNull
+    @Override
+    public String getName() {
+        return "PowerAuthPinPad";
+    }
+
+    @NonNull
+    @Override
+    protected PinPadView createViewInstance(@NonNull ThemedReactContext reactContext) {
+        final PowerAuthPasswordModule passwordModule = reactContext.getNativeModule(PowerAuthPasswordModule.class);
+        final PinPadView view = new PinPadView(reactContext, reactContext.getNativeModule(ObjectRegister.class), passwordModule);
+        view.setListener(new PinPadView.Listener() {
+            @Override
+            public void onLengthChange(@NonNull PinPadView view, @NonNull Password password, int length) {
+                dispatchEvent(reactContext, view, EVENT_LENGTH_CHANGE, createEventData(password, length, passwordModule));
+            }
+
+            @Override
+            public void onComplete(@NonNull PinPadView view, @NonNull Password password, int length) {
+                dispatchEvent(reactContext, view, EVENT_COMPLETE, createEventData(password, length, passwordModule));
+            }
+        });
+        return view;
+    }
+
+    @Override
+    public void onDropViewInstance(@NonNull PinPadView view) {
+        view.setListener(null);
+        super.onDropViewInstance(view);
+    }
+
+    @ReactProp(name = "passwordObjectId")
+    public void setPasswordObjectId(@NonNull PinPadView view, @Nullable String passwordObjectId) {
+        view.setPasswordObjectId(passwordObjectId);
+    }
+
+    @ReactProp(name = "maxLength", defaultInt = 0)
+    public void setMaxLength(@NonNull PinPadView view, int maxLength) {
+        view.setMaxLength(maxLength);
+    }
+
+    @Nullable
+    @Override
+    public Map<String, Object> getExportedCustomDirectEventTypeConstants() {
+        return MapBuilder.<String, Object>of(
+                EVENT_LENGTH_CHANGE, MapBuilder.of("registrationName", "onLengthChange"),
+                EVENT_COMPLETE, MapBuilder.of("registrationName", "onComplete"));
+    }
+
+    // Private methods
+
+    /**
+     * Create event data for the password.
+     * @param password Password object.
+     * @param length Length of password after the edit.
+     * @param passwordModule Password module that keeps PIN meters.
+     * @return Map with event data.
+     */
+    @NonNull
+    private static WritableMap createEventData(@NonNull Password password, int length, @Nullable PowerAuthPasswordModule passwordModule) {
+        final WritableMap data = Arguments.createMap();
+        data.putInt("length", length);
+        final PinMeter pinMeter = passwordModule != null ? passwordModule.findPinMeter(password) : null;
+        if (pinMeter != null) {
+            data.putMap("strength", PowerAuthPassphraseMeterModule.createPinMeterResult(password, pinMeter, passwordModule.getPinTester()));
+        }
+        return data;
+    }
+
+    /**
+     * Dispatch event to JavaScript.
+     * @param reactContext React context.
+     * @param view View that produced the event.
+     * @param eventName Name of event.
+     * @param data Event data.
+     */
+    private static void dispatchEvent(@NonNull ReactContext reactContext, @NonNull PinPadView view, @NonNull String eventName, @NonNull WritableMap data) {
+        final EventDispatcher dispatcher = UIManagerHelper.getEventDispatcherForReactTag(reactContext, view.getId());
+        if (dispatcher != null) {
+            dispatcher.dispatchEvent(new PinPadEvent(UIManagerHelper.getSurfaceId(view), view.getId(), eventName, data));
+        }
+    }
+
+    /**
+     * Event produced by the PIN pad.
+     */
+    private static class PinPadEvent extends Event<PinPadEvent> {
+        private final @NonNull String eventName;
+        private final @NonNull WritableMap data;
+
+        PinPadEvent(int surfaceId, int viewId, @NonNull String eventName, @NonNull WritableMap data) {
+            super(surfaceId, viewId);
+            this.eventName = eventName;
+            this.data = data;
+        }
+
+        @NonNull
+        @Override
+        public String getEventName() {
+            return eventName;
+        }
+
+        @Override
+        public boolean canCoalesce() {
+            return false;
+        }
+
+        @Nullable
+        @Override
+        protected WritableMap getEventData() {
+            return data;
+        }
+    }
+}
@@ -33,7 +33,7 @@ public class PowerAuthReactPackage implements ReactPackage {
     @NonNull
     @Override
     public List<ViewManager> createViewManagers(@NonNull ReactApplicationContext reactContext) {
-        return Collections.emptyList();
+        return Collections.singletonList(new PowerAuthPinPadViewManager());
     }
 
     @NonNull
@@ -41,17 +41,22 @@ public class PowerAuthReactPackage implements ReactPackage {
     public List<NativeModule> createNativeModules(@NonNull ReactApplicationContext reactContext) {
         // Object register
         final ObjectRegister objectRegister = new ObjectRegister();
+        // Activation state cache shared between modules
+        final ActivationStateCache activationStateCache = new ActivationStateCache();
+        // Pool of encryptors shared between modules
+        final EncryptorPool encryptorPool = new EncryptorPool();
         // Password module
         final PowerAuthPasswordModule passwordModule = new PowerAuthPasswordModule(objectRegister);
         // Encryptor module
-        final PowerAuthEncryptorModule encryptorModule = new PowerAuthEncryptorModule(reactContext, objectRegister);
+        final PowerAuthEncryptorModule encryptorModule = new PowerAuthEncryptorModule(reactContext, objectRegister, activationStateCache, encryptorPool);
         // Create a list of modules
         final List<NativeModule> modules = new ArrayList<>();
         modules.add(objectRegister);
         modules.add(passwordModule);
+        modules.add(new PowerAuthNativeDataModule(objectRegister));
         modules.add(encryptorModule);
-        modules.add(new PowerAuthModule(reactContext, objectRegister, passwordModule));
-        modules.add(new PowerAuthPassphraseMeterModule(passwordModule));
+        modules.add(new PowerAuthModule(reactContext, objectRegister, passwordModule, activationStateCache, encryptorPool));
+        modules.add(new PowerAuthPassphraseMeterModule(reactContext, passwordModule));
         return modules;
     }
 }
\ No newline at end of file
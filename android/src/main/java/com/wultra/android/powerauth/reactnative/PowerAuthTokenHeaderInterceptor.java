@@ -0,0 +1,236 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import com.facebook.react.modules.network.NetworkingModule;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.getlime.security.powerauth.sdk.PowerAuthAuthorizationHttpHeader;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * The {@code PowerAuthTokenHeaderInterceptor} class is OkHttp interceptor that attaches PowerAuth
+ * token header to requests matching rules registered from JavaScript. The header is generated
+ * natively, so the application doesn't need to call {@code generateHeaderForToken()} before each
+ * {@code fetch()}.
+ * <p>
+ * To use the interceptor with React Native networking, call {@link #installToNetworkingModule(NetworkingModule.CustomClientBuilder)}
+ * from your {@code Application.onCreate()}. React Native doesn't provide a way to read the client
+ * builder already set to {@code NetworkingModule}, so if the application uses its own builder, then
+ * it must pass it to this function, or call {@link #addTo(OkHttpClient.Builder)} from its builder.
+ * <p>
+ * The interceptor is installed as a network interceptor, so the rules are evaluated for each hop of
+ * the request, including redirects. The header is never forwarded to a redirect target that doesn't
+ * match the rule.
+ * <p>
+ * The header is attached only to HTTPS requests, unless the rule explicitly allows insecure
+ * connections, for example, for a local development server.
+ */
+public class PowerAuthTokenHeaderInterceptor implements Interceptor {
+
+    private static final PowerAuthTokenHeaderInterceptor sharedInstance = new PowerAuthTokenHeaderInterceptor();
+
+    /**
+     * @return Shared instance of the interceptor.
+     */
+    @NonNull
+    public static PowerAuthTokenHeaderInterceptor getSharedInstance() {
+        return sharedInstance;
+    }
+
+    /**
+     * Install shared instance of the interceptor to OkHttp client used by React Native's
+     * {@code NetworkingModule}. The function must be called before the networking module is
+     * created. The function replaces the custom client builder previously set to the module,
+     * so the application's own builder must be provided in the parameter.
+     * @param customClientBuilder Application's custom client builder applied before the interceptor
+     *                            is added, or null if there's no such builder.
+     */
+    public static void installToNetworkingModule(@Nullable NetworkingModule.CustomClientBuilder customClientBuilder) {
+        NetworkingModule.setCustomClientBuilder(builder -> {
+            if (customClientBuilder != null) {
+                customClientBuilder.apply(builder);
+            }
+            addTo(builder);
+        });
+    }
+
+    /**
+     * Add shared instance of the interceptor as a network interceptor to OkHttp client builder,
+     * if it's not added yet.
+     * @param builder OkHttp client builder.
+     */
+    public static void addTo(@NonNull OkHttpClient.Builder builder) {
+        if (!builder.networkInterceptors().contains(sharedInstance)) {
+            builder.addNetworkInterceptor(sharedInstance);
+        }
+    }
+
+    /**
+     * Interface that provides token header for the interceptor.
+     */
+    interface HeaderProvider {
+        /**
+         * Generate header for token.
+         * @param instanceId PowerAuth instance identifier.
+         * @param tokenName Name of the token.
+         * @return Generated header or null if header cannot be generated.
+         */
+        @Nullable
+        PowerAuthAuthorizationHttpHeader generateTokenHeader(@NonNull String instanceId, @NonNull String tokenName);
+    }
+
+    /**
+     * Rule that determine which request should contain the token header.
+     */
+    static class Rule {
+        final @NonNull String instanceId;
+        final @NonNull String tokenName;
+        final @NonNull String host;
+        final int port;
+        final @NonNull String pathPrefix;
+        final boolean allowInsecure;
+
+        /**
+         * Construct rule.
+         * @param instanceId PowerAuth instance identifier.
+         * @param tokenName Name of the token.
+         * @param host Host to match.
+         * @param port Port to match, or -1 to match the default port of the URL's scheme.
+         * @param pathPrefix Optional prefix of the path to match. If null, then all paths are matched.
+         * @param allowInsecure If true, then the rule matches also requests over plain HTTP.
+         */
+        Rule(@NonNull String instanceId, @NonNull String tokenName, @NonNull String host, int port, @Nullable String pathPrefix, boolean allowInsecure) {
+            this.instanceId = instanceId;
+            this.tokenName = tokenName;
+            this.host = host.toLowerCase(Locale.US);
+            this.port = port;
+            this.pathPrefix = pathPrefix != null ? pathPrefix : "/";
+            this.allowInsecure = allowInsecure;
+        }
+
+        /**
+         * Determine whether the rule match the URL. The port must be equal to the rule's port, or to
+         * the default port of the URL's scheme if the rule has no port. The path prefix matches only whole path segments,
+         * so prefix {@code /api} matches {@code /api} and {@code /api/token}, but not {@code /api2}.
+         * @param url URL to test.
+         * @return true if rule match the URL.
+         */
+        boolean matches(@NonNull HttpUrl url) {
+            if (!url.isHttps() && !allowInsecure) {
+                return false;
+            }
+            if (!host.equals(url.host())) {
+                return false;
+            }
+            if (url.port() != (port != -1 ? port : HttpUrl.defaultPort(url.scheme()))) {
+                return false;
+            }
+            final String path = url.encodedPath();
+            if (!path.startsWith(pathPrefix)) {
+                return false;
+            }
+            return path.length() == pathPrefix.length()
+                    || pathPrefix.endsWith("/")
+                    || path.charAt(pathPrefix.length()) == '/';
+        }
+    }
+
+    private final CopyOnWriteArrayList<Rule> rules = new CopyOnWriteArrayList<>();
+    private volatile @Nullable HeaderProvider headerProvider;
+
+    private PowerAuthTokenHeaderInterceptor() {
+    }
+
+    /**
+     * Set provider that generates token headers.
+     * @param headerProvider Header provider or null to stop attaching headers.
+     */
+    synchronized void setHeaderProvider(@Nullable HeaderProvider headerProvider) {
+        this.headerProvider = headerProvider;
+    }
+
+    /**
+     * Remove provider that generates token headers only if it's the same as provided one.
+     * @param headerProvider Header provider to remove.
+     */
+    synchronized void removeHeaderProvider(@NonNull HeaderProvider headerProvider) {
+        if (this.headerProvider == headerProvider) {
+            this.headerProvider = null;
+        }
+    }
+
+    /**
+     * Add new rule to the interceptor.
+     * @param rule Rule to add.
+     */
+    void addRule(@NonNull Rule rule) {
+        rules.add(rule);
+    }
+
+    /**
+     * Remove all rules registered for the PowerAuth instance.
+     * @param instanceId PowerAuth instance identifier. If null, then all rules are removed.
+     */
+    void removeRules(@Nullable String instanceId) {
+        if (instanceId == null) {
+            rules.clear();
+        } else {
+            for (Rule rule : rules) {
+                if (instanceId.equals(rule.instanceId)) {
+                    rules.remove(rule);
+                }
+            }
+        }
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        final Request request = chain.request();
+        final HeaderProvider provider = headerProvider;
+        if (provider == null || rules.isEmpty()) {
+            return chain.proceed(request);
+        }
+        final HttpUrl url = request.url();
+        for (Rule rule : rules) {
+            if (rule.matches(url)) {
+                final PowerAuthAuthorizationHttpHeader header;
+                final Tracer.Backend t = Tracer.begin(Tracer.SECTION_TOKEN_INTERCEPTOR);
+                try {
+                    header = provider.generateTokenHeader(rule.instanceId, rule.tokenName);
+                } finally {
+                    t.endSection();
+                }
+                if (header != null && request.header(header.key) == null) {
+                    return chain.proceed(request.newBuilder().header(header.key, header.value).build());
+                }
+                break;
+            }
+        }
+        return chain.proceed(request);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import java.util.HashMap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.getlime.security.powerauth.sdk.PowerAuthToken;
+
+/**
+ * The {@code TokenCache} class keeps access tokens in memory, so the wrapper doesn't need to read
+ * the persistent token store each time the token is used. Tokens are keyed by PowerAuth instance
+ * identifier and by token name.
+ * <p>
+ * Tokens are often stored from asynchronous callbacks. Each removal increases the cache generation,
+ * and the token is stored only if no removal happened since the caller obtained the generation,
+ * so a callback finished after the removal doesn't put the removed token back to the cache.
+ */
+class TokenCache {
+
+    private final HashMap<String, HashMap<String, PowerAuthToken>> tokens = new HashMap<>();
+    private long generation;
+
+    /**
+     * Get current generation of the cache. Obtain the generation before the token is acquired
+     * and then use it in {@link #putToken(String, PowerAuthToken, long)}.
+     * @return Current generation of the cache.
+     */
+    synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Get token from the cache.
+     * @param instanceId PowerAuth instance identifier.
+     * @param tokenName Name of the token.
+     * @return Cached token or null if there's no such token in the cache.
+     */
+    @Nullable
+    synchronized PowerAuthToken getToken(@NonNull String instanceId, @NonNull String tokenName) {
+        final HashMap<String, PowerAuthToken> instanceTokens = tokens.get(instanceId);
+        return instanceTokens != null ? instanceTokens.get(tokenName) : null;
+    }
+
+    /**
+     * Store token to the cache, unless some token was removed since the generation was obtained.
+     * @param instanceId PowerAuth instance identifier.
+     * @param token Token to store.
+     * @param expectedGeneration Generation obtained before the token was acquired.
+     */
+    synchronized void putToken(@NonNull String instanceId, @NonNull PowerAuthToken token, long expectedGeneration) {
+        if (expectedGeneration != generation) {
+            return;
+        }
+        HashMap<String, PowerAuthToken> instanceTokens = tokens.get(instanceId);
+        if (instanceTokens == null) {
+            instanceTokens = new HashMap<>();
+            tokens.put(instanceId, instanceTokens);
+        }
+        instanceTokens.put(token.getTokenName(), token);
+    }
+
+    /**
+     * Remove token with given name from the cache.
+     * @param instanceId PowerAuth instance identifier.
+     * @param tokenName Name of the token.
+     */
+    synchronized void removeToken(@NonNull String instanceId, @NonNull String tokenName) {
+        generation++;
+        final HashMap<String, PowerAuthToken> instanceTokens = tokens.get(instanceId);
+        if (instanceTokens != null) {
+            instanceTokens.remove(tokenName);
+        }
+    }
+
+    /**
+     * Remove all tokens that belongs to given instance from the cache.
+     * @param instanceId PowerAuth instance identifier.
+     */
+    synchronized void removeAllTokens(@NonNull String instanceId) {
+        generation++;
+        tokens.remove(instanceId);
+    }
+}
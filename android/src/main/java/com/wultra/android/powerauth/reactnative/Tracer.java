@@ -0,0 +1,234 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import android.os.Process;
+import android.os.Trace;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.WritableArray;
+import com.facebook.react.bridge.WritableMap;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The {@code Tracer} class marks sections on hot paths of the module, so they're visible in
+ * profiling tools. Each section must be ended on the same thread where it began, and on the same
+ * backend, so the section is balanced even if the backend is changed in the meantime:
+ * <pre>
+ * final Tracer.Backend t = Tracer.begin(Tracer.SECTION_ENCRYPT);
+ * try {
+ *     ...
+ * } finally {
+ *     t.endSection();
+ * }
+ * </pre>
+ * Sections are emitted to the current {@link Backend}. By default, debug builds emit sections
+ * to {@link android.os.Trace} and release builds don't emit anything. The application can
+ * switch to the ring buffer backend and dump collected sections from JavaScript.
+ */
+class Tracer {
+
+    static final String SECTION_REGISTER_LOOKUP = "PowerAuth.registerLookup";
+    static final String SECTION_REGISTER_CLEANUP = "PowerAuth.registerCleanup";
+    static final String SECTION_ENCRYPT = "PowerAuth.encrypt";
+    static final String SECTION_DECRYPT = "PowerAuth.decrypt";
+    static final String SECTION_SIGN = "PowerAuth.sign";
+    static final String SECTION_TOKEN_HEADER = "PowerAuth.tokenHeader";
+    static final String SECTION_TOKEN_INTERCEPTOR = "PowerAuth.tokenInterceptor";
+    static final String SECTION_KEYSTORE = "PowerAuth.keystore";
+
+    /**
+     * Interface implemented by tracing backends.
+     */
+    interface Backend {
+        /**
+         * Begin section on the current thread.
+         * @param name Name of section.
+         */
+        void beginSection(@NonNull String name);
+
+        /**
+         * End the most recent section on the current thread.
+         */
+        void endSection();
+    }
+
+    /**
+     * Backend that doesn't emit anything.
+     */
+    static final Backend NONE = new Backend() {
+        @Override
+        public void beginSection(@NonNull String name) {
+        }
+
+        @Override
+        public void endSection() {
+        }
+    };
+
+    /**
+     * Backend that emits sections to {@link android.os.Trace}.
+     */
+    static final Backend SYSTEM = new Backend() {
+        @Override
+        public void beginSection(@NonNull String name) {
+            Trace.beginSection(name);
+        }
+
+        @Override
+        public void endSection() {
+            Trace.endSection();
+        }
+    };
+
+    private static volatile @NonNull Backend backend = BuildConfig.DEBUG ? SYSTEM : NONE;
+
+    /**
+     * Begin section on the current thread.
+     * @param name Name of section, use one of SECTION_* constants.
+     * @return Backend that received the section. The section must be ended on this backend.
+     */
+    @NonNull
+    static Backend begin(@NonNull String name) {
+        final Backend current = backend;
+        current.beginSection(name);
+        return current;
+    }
+
+    /**
+     * @return Current backend.
+     */
+    @NonNull
+    static Backend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Set backend that receives sections.
+     * @param newBackend New backend or null to restore the default backend.
+     */
+    static void setBackend(@Nullable Backend newBackend) {
+        backend = newBackend != null ? newBackend : (BuildConfig.DEBUG ? SYSTEM : NONE);
+    }
+
+    /**
+     * Backend that keeps the most recent events in a fixed size buffer. The events are exported
+     * in Trace Event Format, so the dump can be opened in Perfetto or chrome://tracing.
+     */
+    static class RingBuffer implements Backend {
+
+        /**
+         * Maximum number of events kept in the buffer.
+         */
+        static final int MAX_CAPACITY = 65536;
+
+        private final AtomicReferenceArray<Event> events;
+        private final AtomicLong sequence = new AtomicLong();
+
+        /**
+         * Create ring buffer with given capacity.
+         * @param capacity Maximum number of kept events.
+         * @throws WrapperException In case of invalid capacity.
+         */
+        RingBuffer(int capacity) throws WrapperException {
+            if (capacity < 1 || capacity > MAX_CAPACITY) {
+                throw new WrapperException(Errors.EC_WRONG_PARAMETER, "Invalid trace buffer capacity");
+            }
+            this.events = new AtomicReferenceArray<>(capacity);
+        }
+
+        @Override
+        public void beginSection(@NonNull String name) {
+            add(name, true);
+        }
+
+        @Override
+        public void endSection() {
+            add(null, false);
+        }
+
+        /**
+         * Add event to the buffer, overwriting the oldest one if the buffer is full. The method is
+         * lock-free, each event claims its slot by incrementing the sequence number.
+         * @param name Name of section or null for end event.
+         * @param begin true for begin event.
+         */
+        private void add(@Nullable String name, boolean begin) {
+            final long index = sequence.getAndIncrement();
+            events.set((int) (index % events.length()), new Event(index, name, Thread.currentThread().getId(), System.nanoTime(), begin));
+        }
+
+        /**
+         * Export events from the buffer, from the oldest to the newest. Events that are being
+         * written during the dump may be missing.
+         * @param clear If true, then the exported events are removed from the buffer.
+         * @return Array with events.
+         */
+        @NonNull
+        WritableArray dump(boolean clear) {
+            final WritableArray result = Arguments.createArray();
+            final int pid = Process.myPid();
+            final int capacity = events.length();
+            final long end = sequence.get();
+            for (long index = Math.max(0, end - capacity); index < end; index++) {
+                final int slot = (int) (index % capacity);
+                final Event event = events.get(slot);
+                if (event == null || event.index != index) {
+                    // Not written yet, already overwritten or cleared.
+                    continue;
+                }
+                if (clear) {
+                    events.compareAndSet(slot, event, null);
+                }
+                final WritableMap map = Arguments.createMap();
+                map.putString("ph", event.begin ? "B" : "E");
+                if (event.name != null) {
+                    map.putString("name", event.name);
+                }
+                map.putInt("pid", pid);
+                map.putDouble("tid", event.threadId);
+                map.putDouble("ts", event.timestamp / 1000.0);
+                result.pushMap(map);
+            }
+            return result;
+        }
+
+        /**
+         * Immutable event stored in the buffer.
+         */
+        private static class Event {
+            final long index;
+            final @Nullable String name;
+            final long threadId;
+            final long timestamp;
+            final boolean begin;
+
+            Event(long index, @Nullable String name, long threadId, long timestamp, boolean begin) {
+                this.index = index;
+                this.name = name;
+                this.threadId = threadId;
+                this.timestamp = timestamp;
+                this.begin = begin;
+            }
+        }
+    }
+}
@@ -21,6 +21,10 @@ import androidx.annotation.NonNull;
 /**
  * Exception type used internally in this module to propagate error code and message
  * to promise's reject method.
+ * <p>
+ * The exception is mostly thrown for expected failures, such as invalid parameter or
+ * no longer valid object identifier, so in release builds the stack trace is captured
+ * only when the exception wraps another cause. Debug builds always capture the stack trace.
  */
 class WrapperException extends Exception {
 
@@ -53,5 +57,15 @@ class WrapperException extends Exception {
     WrapperException(@NonNull String errorCode, @NonNull String message, Throwable cause) {
         super(message, cause);
         this.errorCode = errorCode;
+        if (!BuildConfig.DEBUG && cause != null) {
+            // Unexpected failure, keep the stack trace.
+            super.fillInStackTrace();
+        }
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        // Capturing the stack trace is expensive, so do it only in debug builds.
+        return BuildConfig.DEBUG ? super.fillInStackTrace() : this;
     }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2022 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import java.util.function.Consumer;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The {@code AllPins} class enumerates all PINs with given length, for tests that compare
+ * results over the whole PIN space.
+ */
+final class AllPins {
+
+    private AllPins() {
+    }
+
+    /**
+     * Call the consumer for all PINs with given length, in ascending order.
+     * @param length Length of PIN.
+     * @param consumer Consumer of PINs. The same buffer is reused for all PINs.
+     */
+    static void forEach(int length, @NonNull Consumer<byte[]> consumer) {
+        forEach(length, 0, 1, consumer);
+    }
+
+    /**
+     * Call the consumer for every {@code step}-th PIN with given length, starting at {@code first}.
+     * @param length Length of PIN.
+     * @param first Numeric value of the first PIN.
+     * @param step Difference between numeric values of consecutive PINs.
+     * @param consumer Consumer of PINs. The same buffer is reused for all PINs.
+     */
+    static void forEach(int length, int first, int step, @NonNull Consumer<byte[]> consumer) {
+        int count = 1;
+        for (int i = 0; i < length; i++) {
+            count *= 10;
+        }
+        final byte[] pin = new byte[length];
+        for (int value = first; value < count; value += step) {
+            int digits = value;
+            for (int i = length - 1; i >= 0; i--) {
+                pin[i] = (byte) ('0' + digits % 10);
+                digits /= 10;
+            }
+            consumer.accept(pin);
+        }
+    }
+}
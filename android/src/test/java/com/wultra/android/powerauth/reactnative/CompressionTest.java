@@ -0,0 +1,78 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of {@link Compression}.
+ */
+public class CompressionTest {
+
+    private static final byte[] DATA = "{\"value\":\"aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        for (Compression compression : Compression.values()) {
+            assertArrayEquals(DATA, compression.decompress(compression.compress(DATA)));
+        }
+        assertArrayEquals(DATA, Compression.NONE.decompress(DATA));
+    }
+
+    @Test
+    public void testFormatIsNotGuessed() throws Exception {
+        // Uncompressed data is not accepted when compression is expected.
+        assertDecompressFails(Compression.DEFLATE, DATA);
+        assertDecompressFails(Compression.GZIP, DATA);
+        // Data compressed with a different compression is not accepted.
+        assertDecompressFails(Compression.DEFLATE, Compression.GZIP.compress(DATA));
+        assertDecompressFails(Compression.GZIP, Compression.DEFLATE.compress(DATA));
+        // Compressed data is returned as it is when compression is not expected.
+        final byte[] compressed = Compression.GZIP.compress(DATA);
+        assertArrayEquals(compressed, Compression.NONE.decompress(compressed));
+    }
+
+    @Test
+    public void testResponseHeader() throws Exception {
+        assertEquals(Compression.NONE, Compression.fromResponseHeader(null));
+        assertEquals(Compression.DEFLATE, Compression.fromResponseHeader("DEFLATE"));
+        assertEquals(Compression.GZIP, Compression.fromResponseHeader(" GZIP "));
+        try {
+            Compression.fromResponseHeader("br");
+            fail("Unknown compression should be rejected");
+        } catch (WrapperException e) {
+            assertEquals(Errors.EC_ENCRYPTION_ERROR, e.getErrorCode());
+        }
+    }
+
+    // Helpers
+
+    private static void assertDecompressFails(Compression compression, byte[] data) {
+        try {
+            compression.decompress(data);
+            fail("Decompression should fail");
+        } catch (WrapperException e) {
+            assertEquals(Errors.EC_ENCRYPTION_ERROR, e.getErrorCode());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of {@link CryptogramEnvelope}.
+ */
+public class CryptogramEnvelopeTest {
+
+    @Test
+    public void testParse() throws Exception {
+        final CryptogramEnvelope envelope = parse("{\"ephemeralPublicKey\":\"AAAA\",\"encryptedData\":\"AQID\\nBAUG\",\"mac\":\"/w==\",\"nonce\":null}");
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 5, 6 }, envelope.encryptedData);
+        assertArrayEquals(new byte[] { (byte) 0xFF }, envelope.mac);
+        assertNull(envelope.compression);
+    }
+
+    @Test
+    public void testParseCompression() throws Exception {
+        final CryptogramEnvelope envelope = parse("{\"encryptedData\":\"AQID\",\"mac\":\"AQ==\",\"compression\":\"GZIP\"}");
+        assertEquals("GZIP", envelope.compression);
+        try {
+            parse("{\"compression\":\"\u00e9\"}");
+            fail();
+        } catch (WrapperException e) {
+            assertEquals(Errors.EC_WRONG_PARAMETER, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void testParseEscapesAndUnknownValues() throws Exception {
+        final CryptogramEnvelope envelope = parse(" {\n" +
+                "  \"other\": { \"a\": [1, -2.5e3, true, false, null, \"x\\\"y\"], \"b\": {} },\n" +
+                "  \"m\\u0061c\": \"AQ\\u003d\\u003d\",\n" +
+                "  \"list\": []\n" +
+                "} ");
+        assertNull(envelope.encryptedData);
+        assertArrayEquals(new byte[] { 1 }, envelope.mac);
+        final CryptogramEnvelope empty = parse("{}");
+        assertNull(empty.encryptedData);
+        assertNull(empty.mac);
+    }
+
+    @Test
+    public void testParseInvalidDocument() throws Exception {
+        final String[] documents = {
+                "",
+                "[]",
+                "{",
+                "{\"mac\"}",
+                "{\"mac\":}",
+                "{\"mac\":\"AQ==\",}",
+                "{\"mac\":\"AQ==\"} x",
+                "{\"mac\":\"AQ==",
+                "{\"mac\":\"A\\qQ==\"}",
+                "{\"mac\":\"AQ\\u00\"}",
+                "{\"mac\":\"A\tQ==\"}",
+                "{\"mac\":\"AQ=\"}",
+                "{\"mac\":1}",
+                "{\"other\":[1,]}",
+        };
+        for (String document : documents) {
+            try {
+                parse(document);
+                fail("Document should be rejected: " + document);
+            } catch (WrapperException e) {
+                assertEquals(Errors.EC_WRONG_PARAMETER, e.getErrorCode());
+            }
+        }
+    }
+
+    @Test
+    public void testParseDeepNesting() throws Exception {
+        final StringBuilder document = new StringBuilder("{\"other\":");
+        for (int i = 0; i < 1000; i++) {
+            document.append('[');
+        }
+        try {
+            parse(document.toString());
+            fail();
+        } catch (WrapperException e) {
+            assertEquals(Errors.EC_WRONG_PARAMETER, e.getErrorCode());
+        }
+    }
+
+    private static CryptogramEnvelope parse(String document) throws WrapperException {
+        return CryptogramEnvelope.parse(document.getBytes(StandardCharsets.UTF_8));
+    }
+}
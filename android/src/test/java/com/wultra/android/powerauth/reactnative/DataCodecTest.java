@@ -0,0 +1,165 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import android.util.Base64;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of {@link DataCodec} against the system codec from {@link android.util.Base64}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class DataCodecTest {
+
+    @Test
+    public void testBase64RoundTrip() throws Exception {
+        final Random random = new Random(1);
+        for (int length = 0; length < 256; length++) {
+            final byte[] data = new byte[length];
+            random.nextBytes(data);
+            final String expected = Base64.encodeToString(data, Base64.NO_WRAP);
+            assertEquals(expected, DataCodec.encode(DataFormat.BASE64, data, 0, data.length));
+            assertEquals(data.length, DataCodec.decodedLength(DataFormat.BASE64, expected));
+            assertArrayEquals(data, DataCodec.decode(DataFormat.BASE64, expected));
+            // Wrapped output from the system codec is accepted.
+            assertArrayEquals(data, DataCodec.decode(DataFormat.BASE64, Base64.encodeToString(data, Base64.DEFAULT)));
+        }
+    }
+
+    @Test
+    public void testBase64UrlRoundTrip() throws Exception {
+        final Random random = new Random(2);
+        for (int length = 0; length < 256; length++) {
+            final byte[] data = new byte[length];
+            random.nextBytes(data);
+            final String expected = Base64.encodeToString(data, Base64.URL_SAFE | Base64.NO_WRAP | Base64.NO_PADDING);
+            assertEquals(expected, DataCodec.encode(DataFormat.BASE64URL, data, 0, data.length));
+            assertArrayEquals(data, DataCodec.decode(DataFormat.BASE64URL, expected));
+            // Padded variant is accepted too.
+            assertArrayEquals(data, DataCodec.decode(DataFormat.BASE64URL, Base64.encodeToString(data, Base64.URL_SAFE | Base64.NO_WRAP)));
+        }
+    }
+
+    @Test
+    public void testBase64Encoder() throws Exception {
+        final Random random = new Random(3);
+        final byte[] data = new byte[1000];
+        random.nextBytes(data);
+        for (int chunk = 1; chunk < 10; chunk++) {
+            final DataCodec.Base64Encoder encoder = new DataCodec.Base64Encoder(DataFormat.BASE64);
+            final StringBuilder sb = new StringBuilder();
+            final byte[] out = new byte[DataCodec.Base64Encoder.maxOutputLength(chunk)];
+            for (int offset = 0; offset < data.length; offset += chunk) {
+                final int written = encoder.update(data, offset, Math.min(chunk, data.length - offset), out, 0);
+                sb.append(new String(out, 0, written, StandardCharsets.US_ASCII));
+            }
+            final int written = encoder.finish(out, 0);
+            sb.append(new String(out, 0, written, StandardCharsets.US_ASCII));
+            assertEquals(Base64.encodeToString(data, Base64.NO_WRAP), sb.toString());
+        }
+    }
+
+    @Test
+    public void testNonCanonicalBase64() throws Exception {
+        // BASE64 decoding is lenient, the same as in the system codec.
+        final String[] lenient = {
+            "QQ",           // missing padding
+            "QUI",          // missing padding
+            "QR==",         // non-zero trailing bits
+            "QUJ=",         // non-zero trailing bits
+            "QU*D",         // invalid character
+            "QUJ\u00e9",    // non-ASCII character
+            "QUJ-",         // Base64URL character
+        };
+        for (String value : lenient) {
+            assertArrayEquals(value, Base64.decode(value, Base64.NO_WRAP), DataCodec.decode(DataFormat.BASE64, value));
+        }
+        final String[] invalid = {
+            "A",            // incomplete group
+            "QQ=",          // incomplete padding
+            "QUI==",        // too much padding
+            "QUJD=",        // padding after complete group
+            "QQ==QQ==",     // data after padding
+            "====",         // padding only
+        };
+        for (String value : invalid) {
+            assertDecodeFails(DataFormat.BASE64, value);
+        }
+        final String[] invalidUrl = { "A", "QQ=", "QR", "QUJ", "QUJ+", "QUJ/" };
+        for (String value : invalidUrl) {
+            assertDecodeFails(DataFormat.BASE64URL, value);
+        }
+    }
+
+    @Test
+    public void testHexRoundTrip() throws Exception {
+        final byte[] data = new byte[256];
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+            sb.append(String.format("%02x", i));
+        }
+        assertEquals(sb.toString(), DataCodec.encode(DataFormat.HEX, data, 0, data.length));
+        assertArrayEquals(data, DataCodec.decode(DataFormat.HEX, sb.toString()));
+        assertArrayEquals(data, DataCodec.decode(DataFormat.HEX, sb.toString().toUpperCase()));
+    }
+
+    @Test
+    public void testInvalidHex() {
+        final String[] invalid = {
+            "0",                // odd length
+            "0g",               // not a hex digit
+            "٠١",     // Arabic-Indic digits
+            "０１",     // fullwidth digits
+            " 0",               // whitespace
+        };
+        for (String value : invalid) {
+            assertDecodeFails(DataFormat.HEX, value);
+        }
+    }
+
+    @Test
+    public void testUtf8() throws Exception {
+        final String[] values = { "", "ascii", "Příliš žluťoučký kůň", "😀", "broken \ud83d surrogate", "\ude00" };
+        for (String value : values) {
+            final byte[] expected = value.getBytes(StandardCharsets.UTF_8);
+            assertArrayEquals(expected, DataCodec.decode(DataFormat.UTF8, value));
+            assertEquals(value.isEmpty() ? "" : new String(expected, StandardCharsets.UTF_8), DataCodec.encode(DataFormat.UTF8, expected, 0, expected.length));
+        }
+    }
+
+    // Helpers
+
+    private static void assertDecodeFails(DataFormat format, String value) {
+        try {
+            DataCodec.decode(format, value);
+            fail("Decoding of '" + value + "' should fail");
+        } catch (WrapperException e) {
+            assertEquals(Errors.EC_WRONG_PARAMETER, e.getErrorCode());
+        }
+    }
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.Promise;
+import com.facebook.react.bridge.WritableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests of {@link EncryptedRequest} against local mock server. The client is configured in the same
+ * way as the application does with {@code PowerAuthEncryptorModule.setHttpClient()}, except that
+ * callbacks are executed on the test thread.
+ */
+public class EncryptedRequestTest {
+
+    private MockWebServer server;
+    private OkHttpClient client;
+    private MockedStatic<Arguments> arguments;
+    private Promise promise;
+    private FakeDecryptor decryptor;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        client = new OkHttpClient.Builder()
+                .dispatcher(new Dispatcher(new DirectExecutorService()))
+                .build();
+        arguments = Mockito.mockStatic(Arguments.class);
+        arguments.when(Arguments::createMap).thenAnswer(invocation -> new JavaOnlyMap());
+        promise = mock(Promise.class);
+        decryptor = new FakeDecryptor();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        arguments.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void testSuccess() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"encryptedData\":\"response\",\"mac\":\"mac\"}"));
+        final Map<String, String> headers = new LinkedHashMap<>();
+        headers.put("X-Custom", "value");
+        final EncryptedRequest request = EncryptedRequest.prepare(server.url("/api/test").toString(), null, headers);
+        request.execute(client, "{\"encryptedData\":\"request\"}", "X-PowerAuth-Encryption", "encryption", decryptor, this::encode, promise);
+
+        verify(promise).resolve("decrypted:response");
+        assertEquals(1, decryptor.destroyCount);
+
+        final RecordedRequest recorded = server.takeRequest(5, TimeUnit.SECONDS);
+        assertEquals("POST", recorded.getMethod());
+        assertEquals("/api/test", recorded.getPath());
+        assertEquals("value", recorded.getHeader("X-Custom"));
+        assertEquals("encryption", recorded.getHeader("X-PowerAuth-Encryption"));
+        assertEquals("{\"encryptedData\":\"request\"}", recorded.getBody().readUtf8());
+    }
+
+    @Test
+    public void testCustomMethod() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"encryptedData\":\"response\",\"mac\":\"mac\"}"));
+        final EncryptedRequest request = EncryptedRequest.prepare(server.url("/api/test").toString(), "PUT", null);
+        request.execute(client, "{}", "X-PowerAuth-Encryption", "encryption", decryptor, this::encode, promise);
+
+        verify(promise).resolve("decrypted:response");
+        assertEquals("PUT", server.takeRequest(5, TimeUnit.SECONDS).getMethod());
+        assertEquals(1, decryptor.destroyCount);
+    }
+
+    @Test
+    public void testNon2xxResponse() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(500).setBody("{\"status\":\"ERROR\"}"));
+        final EncryptedRequest request = EncryptedRequest.prepare(server.url("/api/test").toString(), null, null);
+        request.execute(client, "{}", "X-PowerAuth-Encryption", "encryption", decryptor, this::encode, promise);
+
+        verify(promise).reject(eq(Errors.EC_RESPONSE_ERROR), anyString(), any(WritableMap.class));
+        verify(promise, never()).resolve(any());
+        assertEquals(0, decryptor.decryptCount);
+        assertEquals(1, decryptor.destroyCount);
+    }
+
+    @Test
+    public void testUnauthorizedResponse() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(401));
+        final EncryptedRequest request = EncryptedRequest.prepare(server.url("/api/test").toString(), null, null);
+        request.execute(client, "{}", "X-PowerAuth-Encryption", "encryption", decryptor, this::encode, promise);
+
+        verify(promise).reject(eq(Errors.EC_AUTHENTICATION_ERROR), anyString(), any(WritableMap.class));
+        assertEquals(1, decryptor.destroyCount);
+    }
+
+    @Test
+    public void testDecryptFailure() throws Exception {
+        server.enqueue(new MockResponse().setBody("{\"encryptedData\":\"response\",\"mac\":\"mac\"}"));
+        decryptor.failDecrypt = true;
+        final EncryptedRequest request = EncryptedRequest.prepare(server.url("/api/test").toString(), null, null);
+        request.execute(client, "{}", "X-PowerAuth-Encryption", "encryption", decryptor, this::encode, promise);
+
+        verify(promise).reject(eq(Errors.EC_ENCRYPTION_ERROR), eq("Failed to decrypt response"), any(Throwable.class));
+        verify(promise, never()).resolve(any());
+        assertEquals(1, decryptor.decryptCount);
+        assertEquals(1, decryptor.destroyCount);
+    }
+
+    @Test
+    public void testInvalidResponseJson() throws Exception {
+        server.enqueue(new MockResponse().setBody("not a json"));
+        final EncryptedRequest request = EncryptedRequest.prepare(server.url("/api/test").toString(), null, null);
+        request.execute(client, "{}", "X-PowerAuth-Encryption", "encryption", decryptor, this::encode, promise);
+
+        verify(promise, never()).resolve(any());
+        assertEquals(0, decryptor.decryptCount);
+        assertEquals(1, decryptor.destroyCount);
+    }
+
+    @Test
+    public void testNetworkFailure() throws Exception {
+        final String url = server.url("/api/test").toString();
+        server.shutdown();
+        final EncryptedRequest request = EncryptedRequest.prepare(url, null, null);
+        request.execute(client, "{}", "X-PowerAuth-Encryption", "encryption", decryptor, this::encode, promise);
+
+        verify(promise).reject(eq(Errors.EC_NETWORK_ERROR), anyString(), any(Throwable.class), any(WritableMap.class));
+        assertEquals(1, decryptor.destroyCount);
+    }
+
+    @Test
+    public void testInvalidEncryptionHeader() throws Exception {
+        final EncryptedRequest request = EncryptedRequest.prepare(server.url("/api/test").toString(), null, null);
+        request.execute(client, "{}", "X-Invalid\n", "encryption", decryptor, this::encode, promise);
+
+        verify(promise, never()).resolve(any());
+        assertEquals(1, decryptor.destroyCount);
+        assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void testMissingUrl() {
+        assertPrepareFails(null, null, null);
+    }
+
+    @Test
+    public void testMalformedUrl() {
+        assertPrepareFails("not a url", null, null);
+        assertPrepareFails("ftp://example.com/api", null, null);
+    }
+
+    @Test
+    public void testInvalidMethod() {
+        final String url = server.url("/api/test").toString();
+        assertPrepareFails(url, "GET", null);
+        assertPrepareFails(url, "HEAD", null);
+        assertPrepareFails(url, "", null);
+    }
+
+    @Test
+    public void testInvalidHeaders() {
+        final String url = server.url("/api/test").toString();
+        assertPrepareFails(url, null, Collections.singletonMap("", "value"));
+        assertPrepareFails(url, null, Collections.singletonMap("X Invalid", "value"));
+        assertPrepareFails(url, null, Collections.singletonMap("X-Custom", "line\nbreak"));
+        assertPrepareFails(url, null, Collections.singletonMap("X-Custom", null));
+    }
+
+    // Helpers
+
+    private void assertPrepareFails(@Nullable String url, @Nullable String method, @Nullable Map<String, String> headers) {
+        try {
+            EncryptedRequest.prepare(url, method, headers);
+            fail("Request should not be prepared");
+        } catch (WrapperException e) {
+            assertEquals(Errors.EC_WRONG_PARAMETER, e.getErrorCode());
+        }
+    }
+
+    private Object encode(@NonNull byte[] data, @NonNull okhttp3.Headers headers) {
+        return new String(data, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decryptor that prefixes encrypted data and counts calls.
+     */
+    private static class FakeDecryptor implements EncryptedRequest.Decryptor {
+        boolean failDecrypt;
+        int decryptCount;
+        int destroyCount;
+
+        @Nullable
+        @Override
+        public byte[] decryptResponse(@Nullable String encryptedData, @Nullable String mac) {
+            decryptCount++;
+            if (failDecrypt || destroyCount > 0) {
+                return null;
+            }
+            return ("decrypted:" + encryptedData).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void destroy() {
+            destroyCount++;
+        }
+    }
+
+    /**
+     * Executor that runs tasks on the calling thread, so the callbacks are finished once
+     * {@code enqueue()} returns.
+     */
+    private static class DirectExecutorService extends AbstractExecutorService {
+        private volatile boolean shutdown;
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @NonNull
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, @NonNull TimeUnit unit) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of {@link FileChannels}.
+ */
+public class FileChannelsTest {
+
+    @Test
+    public void testReadFullyFromPipe() throws Exception {
+        // Pipe has no size, so the whole content must be read until the end of stream.
+        for (int size : new int[] { 0, 1, Constants.FILE_CHUNK_SIZE, Constants.FILE_CHUNK_SIZE + 1, 5 * Constants.FILE_CHUNK_SIZE + 7 }) {
+            final byte[] data = createData(size);
+            assertArrayEquals(data, readFromPipe(data, 8 * Constants.FILE_CHUNK_SIZE));
+        }
+        // Content with exactly maximum size
+        final byte[] data = createData(1000);
+        assertArrayEquals(data, readFromPipe(data, 1000));
+    }
+
+    @Test
+    public void testReadFullyFromPipeTooLarge() throws Exception {
+        try {
+            readFromPipe(createData(1001), 1000);
+            fail();
+        } catch (WrapperException e) {
+            assertEquals(Errors.EC_WRONG_PARAMETER, e.getErrorCode());
+        }
+        try {
+            readFromPipe(createData(3 * Constants.FILE_CHUNK_SIZE), 2 * Constants.FILE_CHUNK_SIZE + 1);
+            fail();
+        } catch (WrapperException e) {
+            assertEquals(Errors.EC_WRONG_PARAMETER, e.getErrorCode());
+        }
+    }
+
+    private static byte[] createData(int size) {
+        final byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i * 31 + 7);
+        }
+        return data;
+    }
+
+    private static byte[] readFromPipe(byte[] data, int maxSize) throws Exception {
+        final Pipe pipe = Pipe.open();
+        final AtomicReference<Exception> writerFailure = new AtomicReference<>();
+        final Thread writer = new Thread(() -> {
+            try (Pipe.SinkChannel sink = pipe.sink()) {
+                // Write in small pieces, so the reader gets partial reads.
+                for (int offset = 0; offset < data.length; offset += 1000) {
+                    final ByteBuffer buffer = ByteBuffer.wrap(data, offset, Math.min(1000, data.length - offset));
+                    while (buffer.hasRemaining()) {
+                        sink.write(buffer);
+                    }
+                }
+            } catch (Exception e) {
+                writerFailure.set(e);
+            }
+        });
+        writer.start();
+        try (Pipe.SourceChannel source = pipe.source()) {
+            return FileChannels.readFully(source, maxSize);
+        } finally {
+            writer.join();
+            // Writer may fail only when the reader closed the pipe early.
+            if (writerFailure.get() != null && data.length <= maxSize) {
+                throw writerFailure.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import com.facebook.react.bridge.Arguments;
+import com.facebook.react.bridge.JavaOnlyArray;
+import com.facebook.react.bridge.JavaOnlyMap;
+import com.facebook.react.bridge.ReadableArray;
+import com.facebook.react.bridge.ReadableMap;
+import com.facebook.react.bridge.WritableMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of {@link JsonConverter} with the platform {@link android.util.JsonReader}.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class JsonConverterTest {
+
+    private MockedStatic<Arguments> arguments;
+
+    @Before
+    public void setUp() {
+        arguments = Mockito.mockStatic(Arguments.class);
+        arguments.when(Arguments::createMap).thenAnswer(invocation -> new JavaOnlyMap());
+        arguments.when(Arguments::createArray).thenAnswer(invocation -> new JavaOnlyArray());
+    }
+
+    @After
+    public void tearDown() {
+        arguments.close();
+    }
+
+    @Test
+    public void testScalars() throws Exception {
+        assertEquals("text", parse("\"text\""));
+        assertEquals(1.5, parse(" 1.5 "));
+        assertEquals(Boolean.TRUE, parse("true"));
+        assertNull(parse("null"));
+    }
+
+    @Test
+    public void testObjectAndArray() throws Exception {
+        final ReadableMap map = (ReadableMap) parse("{\"a\":1,\"b\":[\"x\",null,{\"c\":false}]}");
+        assertEquals(1.0, map.getDouble("a"), 0.0);
+        final ReadableArray array = map.getArray("b");
+        assertEquals(3, array.size());
+        assertEquals("x", array.getString(0));
+        assertTrue(array.isNull(1));
+        assertFalse(array.getMap(2).getBoolean("c"));
+        assertEquals(2, ((ReadableArray) parse("[1,2]")).size());
+    }
+
+    @Test
+    public void testInvalidDocument() {
+        final String[] invalid = {
+            "",
+            "  ",
+            "{\"a\":1}garbage",
+            "{\"a\":1} {\"b\":2}",
+            "1 2",
+            "1,2",
+            "[1],[2]",
+            "1],[2",
+            "]",
+            "{'a':1}",
+            "{a:1}",
+            "// comment\n{}",
+            "{\"a\":1",
+        };
+        for (String json : invalid) {
+            try {
+                parse(json);
+                fail("Parsing of '" + json + "' should fail");
+            } catch (WrapperException e) {
+                assertEquals(Errors.EC_RESPONSE_ERROR, e.getErrorCode());
+            }
+        }
+    }
+
+    @Test
+    public void testProjection() throws Exception {
+        final WritableMap result = project("{\"data\":{\"id\":\"1\",\"account\":{\"balance\":10}},\"other\":[1,2]}",
+                "data.account.balance", "data.missing", "missing");
+        assertEquals(10.0, result.getDouble("data.account.balance"), 0.0);
+        assertFalse(result.hasKey("data.missing"));
+        assertFalse(result.hasKey("missing"));
+        assertEquals(1, result.toHashMap().size());
+    }
+
+    @Test
+    public void testProjectionWithParentAndChild() throws Exception {
+        final WritableMap result = project("{\"data\":{\"id\":\"1\",\"account\":{\"balance\":10,\"tags\":[\"a\"]}}}",
+                "data.account.balance", "data", "data.account");
+        assertEquals(10.0, result.getDouble("data.account.balance"), 0.0);
+        assertEquals("1", result.getMap("data").getString("id"));
+        assertEquals(10.0, result.getMap("data").getMap("account").getDouble("balance"), 0.0);
+        assertEquals("a", result.getMap("data.account").getArray("tags").getString(0));
+    }
+
+    @Test
+    public void testProjectionWithDotInKey() throws Exception {
+        final WritableMap result = project("{\"rates\":{\"EUR.USD\":1.1,\"EUR\":{\"USD\":2.2}},\"a\\\\b\":true}",
+                "rates.EUR\\.USD", "rates.EUR.USD", "a\\\\b");
+        assertEquals(1.1, result.getDouble("rates.EUR\\.USD"), 0.0);
+        assertEquals(2.2, result.getDouble("rates.EUR.USD"), 0.0);
+        assertTrue(result.getBoolean("a\\\\b"));
+    }
+
+    @Test
+    public void testInvalidProjection() throws Exception {
+        final String[] invalidPaths = { "", "a\\", "a\\b" };
+        for (String path : invalidPaths) {
+            try {
+                project("{}", path);
+                fail("Path '" + path + "' should be rejected");
+            } catch (WrapperException e) {
+                assertEquals(Errors.EC_WRONG_PARAMETER, e.getErrorCode());
+            }
+        }
+        try {
+            project("{\"a\":1}garbage", "a");
+            fail("Trailing data should be rejected");
+        } catch (WrapperException e) {
+            assertEquals(Errors.EC_RESPONSE_ERROR, e.getErrorCode());
+        }
+    }
+
+    // Helpers
+
+    private static Object parse(String json) throws WrapperException {
+        return JsonConverter.parse(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static WritableMap project(String json, String... paths) throws WrapperException {
+        return JsonConverter.parseProjection(json.getBytes(StandardCharsets.UTF_8), JavaOnlyArray.of((Object[]) paths));
+    }
+}
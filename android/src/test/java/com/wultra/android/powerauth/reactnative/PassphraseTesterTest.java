@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link PassphraseTester}.
+ */
+public class PassphraseTesterTest {
+
+    @Test
+    public void testNonAsciiCharacters() {
+        final PassphraseTester.Result result = test("áéíóúýčř");
+        assertEquals(8, result.length);
+        assertEquals(0, result.issues & PassphraseTester.ISSUE_REPEATING_CHARS);
+        assertEquals(0, result.issues & PassphraseTester.ISSUE_TOO_SHORT);
+        assertTrue(result.entropy > 40);
+    }
+
+    @Test
+    public void testRepeatedNonAsciiCharacters() {
+        final PassphraseTester.Result result = test("čččččččč");
+        assertHasIssue(result, PassphraseTester.ISSUE_REPEATING_CHARS);
+        assertTrue(result.entropy < 28);
+    }
+
+    @Test
+    public void testMalformedUtf8() {
+        final int[] chars = new int[4];
+        assertEquals(3, PassphraseTester.decodeUtf8(new byte[] { 'a', (byte) 0xC3, 'b' }, chars));
+        assertEquals(0xFFFD, chars[1]);
+        assertEquals(2, PassphraseTester.decodeUtf8(new byte[] { (byte) 0xC0, (byte) 0x80 }, chars));
+        assertEquals(1, PassphraseTester.decodeUtf8(new byte[] { (byte) 0xF0, (byte) 0x9F, (byte) 0x98, (byte) 0x80 }, chars));
+        assertEquals(0x1F600, chars[0]);
+    }
+
+    @Test
+    public void testVerticalKeyboardWalk() {
+        final PassphraseTester.Result result = test("1qaz2wsx");
+        assertHasIssue(result, PassphraseTester.ISSUE_KEYBOARD_PATTERN);
+        assertTrue(result.entropy < 28);
+    }
+
+    @Test
+    public void testNumberRow() {
+        final PassphraseTester.Result result = test("1234567890");
+        assertTrue((result.issues & (PassphraseTester.ISSUE_KEYBOARD_PATTERN | PassphraseTester.ISSUE_SEQUENCE)) != 0);
+        assertTrue(result.entropy < 28);
+    }
+
+    @Test
+    public void testShiftedKeyboardWalk() {
+        final PassphraseTester.Result result = test("!@#$%^&*");
+        assertHasIssue(result, PassphraseTester.ISSUE_KEYBOARD_PATTERN);
+        assertTrue(result.entropy < 28);
+        assertHasIssue(test("ASDFGHJK"), PassphraseTester.ISSUE_KEYBOARD_PATTERN);
+        assertHasIssue(test("zxcvbnm<>?"), PassphraseTester.ISSUE_KEYBOARD_PATTERN);
+    }
+
+    @Test
+    public void testCommonWords() {
+        assertHasIssue(test("password"), PassphraseTester.ISSUE_COMMON_WORD);
+        assertHasIssue(test("P@ssw0rd"), PassphraseTester.ISSUE_COMMON_WORD);
+        assertHasIssue(test("Sunshine2024"), PassphraseTester.ISSUE_COMMON_WORD);
+        assertTrue(test("password").entropy < 28);
+    }
+
+    @Test
+    public void testSequenceAndRepeat() {
+        assertHasIssue(test("abcdefgh"), PassphraseTester.ISSUE_SEQUENCE);
+        assertHasIssue(test("aaaaaaaa"), PassphraseTester.ISSUE_REPEATING_CHARS);
+        assertHasIssue(test("abc"), PassphraseTester.ISSUE_TOO_SHORT);
+    }
+
+    @Test
+    public void testStrongPassphrase() {
+        final PassphraseTester.Result result = test("k7#Vq9!mZ2xR");
+        assertEquals(0, result.issues);
+        assertTrue(result.entropy > 60);
+    }
+
+    @Test
+    public void testLoadedDictionary() throws Exception {
+        final String words = "# comment\n\ncorrect\nhorse\nbattery\nstaple\nno\n";
+        final PassphraseDictionary dictionary = PassphraseDictionary.parse(new ByteArrayInputStream(words.getBytes(StandardCharsets.UTF_8)));
+        final PassphraseTester.Result result = PassphraseTester.testPassphrase("CorrectHorseBatteryStaple".getBytes(StandardCharsets.UTF_8), dictionary);
+        assertHasIssue(result, PassphraseTester.ISSUE_COMMON_WORD);
+        assertTrue(result.entropy < 28);
+        final PassphraseTester.Result builtIn = test("CorrectHorseBatteryStaple");
+        assertEquals(0, builtIn.issues & PassphraseTester.ISSUE_COMMON_WORD);
+    }
+
+    @Test(expected = WrapperException.class)
+    public void testEmptyDictionary() throws Exception {
+        PassphraseDictionary.parse(new ByteArrayInputStream("# only comment\n".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Helpers
+
+    private static PassphraseTester.Result test(String passphrase) {
+        return PassphraseTester.testPassphrase(passphrase.getBytes(StandardCharsets.UTF_8), PassphraseDictionary.BUILT_IN);
+    }
+
+    private static void assertHasIssue(PassphraseTester.Result result, int issue) {
+        assertTrue("Expected issue " + issue + ", found " + result.issues, (result.issues & issue) != 0);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests of {@link PinDictionary}. The dictionary is built in memory with the format documented
+ * in the {@link PinDictionary} class.
+ */
+public class PinDictionaryTest {
+
+    private static final String[] BUCKET_1 = { "1234", "0000", "1111" };
+    private static final String[] BUCKET_2 = { "7777", "2580", "123456" };
+    private static final String[] BUCKET_3 = { "4759", "8520", "13579" };
+    private static final String[] NOT_PRESENT = { "4821", "9173", "0581", "6293", "31415", "271828" };
+
+    @Test
+    public void testRanks() throws Exception {
+        final PinDictionary dictionary = PinDictionary.parse(ByteBuffer.wrap(createDictionary(3)));
+        assertRanks(dictionary, BUCKET_1, 10);
+        assertRanks(dictionary, BUCKET_2, 100);
+        assertRanks(dictionary, BUCKET_3, 1000);
+        assertRanks(dictionary, NOT_PRESENT, 0);
+    }
+
+    @Test
+    public void testPinInLongerBuffer() throws Exception {
+        final PinDictionary dictionary = PinDictionary.parse(ByteBuffer.wrap(createDictionary(3)));
+        // Only the first pinLength bytes are hashed.
+        final byte[] buffer = "25809999".getBytes(StandardCharsets.US_ASCII);
+        assertEquals(100, dictionary.getRank(buffer, 4));
+        assertEquals(0, dictionary.getRank(buffer, 8));
+    }
+
+    @Test
+    public void testSingleHashFunction() throws Exception {
+        final PinDictionary dictionary = PinDictionary.parse(ByteBuffer.wrap(createDictionary(1)));
+        assertRanks(dictionary, BUCKET_1, 10);
+        assertRanks(dictionary, BUCKET_3, 1000);
+    }
+
+    @Test
+    public void testMalformedHeader() throws Exception {
+        final byte[] valid = createDictionary(3);
+        // Too short
+        assertParseFails(Arrays.copyOf(valid, 7));
+        // Wrong magic, version or reserved byte
+        assertParseFails(modify(valid, 0, 'X'));
+        assertParseFails(modify(valid, 3, 'd'));
+        assertParseFails(modify(valid, 4, 2));
+        assertParseFails(modify(valid, 7, 1));
+        // Number of hash functions out of range
+        assertParseFails(modify(valid, 5, 0));
+        assertParseFails(modify(valid, 5, 33));
+        // Number of buckets out of range
+        assertParseFails(modify(valid, 6, 0));
+        assertParseFails(modify(valid, 6, 17));
+    }
+
+    @Test
+    public void testMalformedBuckets() throws Exception {
+        final byte[] valid = createDictionary(3);
+        // More buckets declared than stored in the file
+        assertParseFails(modify(valid, 6, 4));
+        // Truncated filter of the last bucket
+        assertParseFails(Arrays.copyOf(valid, valid.length - 1));
+        // Truncated header of the last bucket
+        final int lastBucket = 8 + 2 * (8 + 512);
+        assertParseFails(Arrays.copyOf(valid, lastBucket + 4));
+        // Zero or negative rank
+        assertParseFails(modifyInt(valid, 8, 0));
+        assertParseFails(modifyInt(valid, 8, -1));
+        // Number of bits is zero or not multiple of 8
+        assertParseFails(modifyInt(valid, 12, 0));
+        assertParseFails(modifyInt(valid, 12, 4095));
+        // Filter exceeds the file
+        assertParseFails(modifyInt(valid, 12, 4096 + 8 * (valid.length - 8 - 8 - 512 + 1)));
+        assertParseFails(modifyInt(valid, lastBucket + 4, 0xFFFFFFF8));
+        // Trailing data is allowed
+        PinDictionary.parse(ByteBuffer.wrap(Arrays.copyOf(valid, valid.length + 3)));
+    }
+
+    // Helper functions
+
+    /**
+     * Create dictionary with three buckets, each with 4096 bits.
+     * @param hashCount Number of hash functions.
+     * @return Dictionary data.
+     */
+    private static byte[] createDictionary(int hashCount) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        output.write(new byte[] { 'P', 'A', 'P', 'D', 1, (byte) hashCount, 3, 0 });
+        writeBucket(output, 10, BUCKET_1, hashCount);
+        writeBucket(output, 100, BUCKET_2, hashCount);
+        writeBucket(output, 1000, BUCKET_3, hashCount);
+        return bytes.toByteArray();
+    }
+
+    private static void writeBucket(DataOutputStream output, int rank, String[] pins, int hashCount) throws IOException {
+        final int bits = 4096;
+        final byte[] filter = new byte[bits / 8];
+        for (String pin : pins) {
+            long hash = 0xCBF29CE484222325L;
+            for (byte b : pin.getBytes(StandardCharsets.US_ASCII)) {
+                hash ^= b & 0xFF;
+                hash *= 0x100000001B3L;
+            }
+            final long h2 = (hash >>> 32) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                final long bit = ((hash + i * h2) & Long.MAX_VALUE) % bits;
+                filter[(int) (bit >>> 3)] |= (byte) (1 << (bit & 7));
+            }
+        }
+        output.writeInt(rank);
+        output.writeInt(bits);
+        output.write(filter);
+    }
+
+    private static byte[] modify(byte[] data, int offset, int value) {
+        final byte[] result = data.clone();
+        result[offset] = (byte) value;
+        return result;
+    }
+
+    private static byte[] modifyInt(byte[] data, int offset, int value) {
+        final byte[] result = data.clone();
+        ByteBuffer.wrap(result).putInt(offset, value);
+        return result;
+    }
+
+    private static void assertRanks(PinDictionary dictionary, String[] pins, int expectedRank) {
+        for (String pin : pins) {
+            final byte[] pinBytes = pin.getBytes(StandardCharsets.US_ASCII);
+            assertEquals(pin, expectedRank, dictionary.getRank(pinBytes, pinBytes.length));
+        }
+    }
+
+    private static void assertParseFails(byte[] data) {
+        try {
+            PinDictionary.parse(ByteBuffer.wrap(data));
+            fail();
+        } catch (WrapperException e) {
+            assertEquals(Errors.EC_WRONG_PARAMETER, e.getErrorCode());
+        }
+    }
+}
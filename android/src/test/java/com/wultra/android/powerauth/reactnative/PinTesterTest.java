@@ -0,0 +1,137 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import com.facebook.react.bridge.JavaOnlyMap;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests of {@link PinTester} against {@link ReferencePinTester}.
+ */
+public class PinTesterTest {
+
+    private static final int THREAD_COUNT = 4;
+
+    /**
+     * Compare results for all PINs with 4 to 7 digits. The tester is shared by all threads,
+     * so the test also verifies that the tester can be used from multiple threads at once.
+     */
+    @Test
+    public void testAllPinsMatchReference() throws Exception {
+        final PinTester tester = new PinTester(PinPolicy.DEFAULT);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            final List<Future<String>> results = new ArrayList<>();
+            for (int length = 4; length <= 7; length++) {
+                for (int thread = 0; thread < THREAD_COUNT; thread++) {
+                    final int pinLength = length;
+                    final int first = thread;
+                    results.add(executor.submit(() -> compareRange(tester, pinLength, first, THREAD_COUNT)));
+                }
+            }
+            for (Future<String> result : results) {
+                assertEquals(null, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Policy compiled from an empty map must give the same results as the default policy and
+     * the original tester. A tester without dictionary must not report breached PINs.
+     */
+    @Test
+    public void testDefaultPolicyResults() throws Exception {
+        final PinPolicy compiled = PinPolicy.compile(new JavaOnlyMap());
+        final PinTester tester = new PinTester(compiled, null);
+        final PinTester defaultTester = new PinTester(PinPolicy.DEFAULT);
+        final ReferencePinTester reference = new ReferencePinTester();
+        for (int length = 4; length <= 6; length++) {
+            AllPins.forEach(length, pin -> {
+                final int expected = reference.testPin(pin);
+                final int result = tester.testPin(pin);
+                assertEquals(new String(pin), expected, result);
+                assertEquals(new String(pin), expected, defaultTester.testPin(pin));
+                assertEquals(new String(pin), PinPolicy.DEFAULT.isWeak(expected, pin.length), compiled.isWeak(result, pin.length));
+                assertEquals(0, tester.lookupRank(pin, pin.length));
+            });
+        }
+    }
+
+    @Test
+    public void testInvalidPins() {
+        final PinTester tester = new PinTester(PinPolicy.DEFAULT);
+        final ReferencePinTester reference = new ReferencePinTester();
+        final String[] pins = { "", "1", "123", "12a4", "12 45", "１２３４" };
+        for (String pin : pins) {
+            final byte[] bytes = pin.getBytes();
+            assertEquals(pin, reference.testPin(bytes), tester.testPin(bytes));
+        }
+    }
+
+    @Test
+    public void testLongPins() {
+        final PinTester tester = new PinTester(PinPolicy.DEFAULT);
+        final ReferencePinTester reference = new ReferencePinTester();
+        final String[] pins = {
+            "12345678", "11223344", "19700101", "01011970", "123123123", "1357913579",
+            "1231231231231231", "8520258025802580", "1111111111111111111", "3141592653589793238462643383279",
+        };
+        for (String pin : pins) {
+            final byte[] bytes = pin.getBytes();
+            assertEquals(pin, reference.testPin(bytes), tester.testPin(bytes));
+        }
+    }
+
+    // Helpers
+
+    /**
+     * Compare results for every {@code step}-th PIN with given length, starting at {@code first}.
+     * @return Description of the first mismatch or null if all results are equal.
+     */
+    private static String compareRange(PinTester tester, int length, int first, int step) {
+        final ReferencePinTester reference = new ReferencePinTester();
+        final String[] mismatch = new String[1];
+        AllPins.forEach(length, first, step, pin -> {
+            if (mismatch[0] != null) {
+                return;
+            }
+            final int expected = reference.testPin(pin);
+            final int result = tester.testPin(pin);
+            if (result != expected) {
+                mismatch[0] = new String(pin) + ": expected " + expected + ", got " + result;
+                return;
+            }
+            // Compare also the computed path, which is not used for PINs covered by the precomputed table.
+            final int computed = tester.testDateIndependent(pin, length, PinPolicy.DEFAULT);
+            if (computed != (expected & ~PinTester.RES_POSSIBLY_DATE)) {
+                mismatch[0] = new String(pin) + ": expected " + expected + ", computed " + computed;
+            }
+        });
+        return mismatch[0];
+    }
+}
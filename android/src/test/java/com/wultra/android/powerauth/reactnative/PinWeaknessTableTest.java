@@ -0,0 +1,68 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link PinWeaknessTable} against {@link PinTester} and {@link ReferencePinTester}.
+ */
+public class PinWeaknessTableTest {
+
+    /**
+     * Maximum time to wait for the table with 6 digit PINs, built on a background thread.
+     */
+    private static final long TABLE_TIMEOUT_MILLIS = 120_000;
+
+    @Test
+    public void testAll4DigitPins() {
+        compareAll(4);
+    }
+
+    @Test
+    public void testAll6DigitPins() throws Exception {
+        final byte[] pin = "000000".getBytes();
+        final long deadline = System.currentTimeMillis() + TABLE_TIMEOUT_MILLIS;
+        while (PinWeaknessTable.lookup(pin, pin.length) < 0) {
+            assertTrue("Table for 6 digit PINs is not ready", System.currentTimeMillis() < deadline);
+            Thread.sleep(50);
+        }
+        compareAll(6);
+    }
+
+    @Test
+    public void testOtherLengthsAreNotPrecomputed() {
+        assertEquals(-1, PinWeaknessTable.lookup("12345".getBytes(), 5));
+        assertEquals(-1, PinWeaknessTable.lookup("1234567".getBytes(), 7));
+        assertEquals(-1, PinWeaknessTable.lookup("12345678".getBytes(), 8));
+    }
+
+    // Helpers
+
+    private static void compareAll(int length) {
+        final PinTester tester = new PinTester(PinPolicy.DEFAULT);
+        final ReferencePinTester reference = new ReferencePinTester();
+        AllPins.forEach(length, pin -> {
+            final int stored = PinWeaknessTable.lookup(pin, length);
+            assertEquals(new String(pin), tester.testDateIndependent(pin, length, PinPolicy.DEFAULT), stored);
+            assertEquals(new String(pin), reference.testPin(pin) & PinWeaknessTable.STORED_FLAGS, stored);
+        });
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.wultra.android.powerauth.reactnative;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import io.getlime.security.powerauth.sdk.PowerAuthAuthorizationHttpHeader;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests of {@link PowerAuthTokenHeaderInterceptor} and its rules.
+ */
+public class PowerAuthTokenHeaderInterceptorTest {
+
+    @Test
+    public void testHttpsIsRequired() {
+        final PowerAuthTokenHeaderInterceptor.Rule rule = new PowerAuthTokenHeaderInterceptor.Rule("id", "token", "api.example.com", -1, null, false);
+        assertTrue(rule.matches(HttpUrl.get("https://api.example.com/")));
+        assertTrue(rule.matches(HttpUrl.get("https://API.example.com/data")));
+        assertFalse(rule.matches(HttpUrl.get("http://api.example.com/")));
+        assertFalse(rule.matches(HttpUrl.get("https://example.com/")));
+        assertFalse(rule.matches(HttpUrl.get("https://api.example.com.evil.com/")));
+    }
+
+    @Test
+    public void testAllowInsecure() {
+        final PowerAuthTokenHeaderInterceptor.Rule rule = new PowerAuthTokenHeaderInterceptor.Rule("id", "token", "localhost", 8080, null, true);
+        assertTrue(rule.matches(HttpUrl.get("http://localhost:8080/api")));
+        assertTrue(rule.matches(HttpUrl.get("https://localhost:8080/api")));
+        assertFalse(rule.matches(HttpUrl.get("http://localhost/api")));
+    }
+
+    @Test
+    public void testPortIsMatched() {
+        final PowerAuthTokenHeaderInterceptor.Rule rule = new PowerAuthTokenHeaderInterceptor.Rule("id", "token", "api.example.com", -1, null, false);
+        assertTrue(rule.matches(HttpUrl.get("https://api.example.com:443/")));
+        assertFalse(rule.matches(HttpUrl.get("https://api.example.com:8443/")));
+        final PowerAuthTokenHeaderInterceptor.Rule portRule = new PowerAuthTokenHeaderInterceptor.Rule("id", "token", "api.example.com", 8443, null, false);
+        assertTrue(portRule.matches(HttpUrl.get("https://api.example.com:8443/")));
+        assertFalse(portRule.matches(HttpUrl.get("https://api.example.com/")));
+    }
+
+    @Test
+    public void testHeaderIsNotForwardedOnRedirect() throws Exception {
+        final MockWebServer origin = new MockWebServer();
+        final MockWebServer target = new MockWebServer();
+        origin.start();
+        target.start();
+        final PowerAuthTokenHeaderInterceptor interceptor = PowerAuthTokenHeaderInterceptor.getSharedInstance();
+        final PowerAuthTokenHeaderInterceptor.HeaderProvider provider = (instanceId, tokenName) -> PowerAuthAuthorizationHttpHeader.createTokenHeader("token-value");
+        try {
+            interceptor.setHeaderProvider(provider);
+            interceptor.addRule(new PowerAuthTokenHeaderInterceptor.Rule("id", "token", origin.getHostName(), origin.getPort(), "/api", true));
+            final OkHttpClient.Builder builder = new OkHttpClient.Builder();
+            PowerAuthTokenHeaderInterceptor.addTo(builder);
+            final OkHttpClient client = builder.build();
+            final String headerKey = PowerAuthAuthorizationHttpHeader.createTokenHeader("token-value").key;
+
+            // Redirect to another host
+            origin.enqueue(new MockResponse().setResponseCode(302).setHeader("Location", "http://127.0.0.1:" + target.getPort() + "/api/data"));
+            target.enqueue(new MockResponse().setBody("OK"));
+            // Redirect to the same host, but to the path out of the rule.
+            origin.enqueue(new MockResponse().setResponseCode(302).setHeader("Location", origin.url("/other").toString()));
+            origin.enqueue(new MockResponse().setBody("OK"));
+
+            for (int i = 0; i < 2; i++) {
+                try (Response response = client.newCall(new Request.Builder().url(origin.url("/api/data")).build()).execute()) {
+                    assertEquals(200, response.code());
+                }
+            }
+            assertEquals("token-value", origin.takeRequest(5, TimeUnit.SECONDS).getHeader(headerKey));
+            assertNull(target.takeRequest(5, TimeUnit.SECONDS).getHeader(headerKey));
+            assertEquals("token-value", origin.takeRequest(5, TimeUnit.SECONDS).getHeader(headerKey));
+            assertNull(origin.takeRequest(5, TimeUnit.SECONDS).getHeader(headerKey));
+        } finally {
+            interceptor.removeRules(null);
+            interceptor.removeHeaderProvider(provider);
+            origin.shutdown();
+            target.shutdown();
+        }
+    }
+
+    @Test
+    public void testPathPrefixMatchesSegments() {
+        final PowerAuthTokenHeaderInterceptor.Rule rule = new PowerAuthTokenHeaderInterceptor.Rule("id", "token", "api.example.com", -1, "/api", false);
+        assertTrue(rule.matches(HttpUrl.get("https://api.example.com/api")));
+        assertTrue(rule.matches(HttpUrl.get("https://api.example.com/api/")));
+        assertTrue(rule.matches(HttpUrl.get("https://api.example.com/api/token?x=1")));
+        assertFalse(rule.matches(HttpUrl.get("https://api.example.com/api2")));
+        assertFalse(rule.matches(HttpUrl.get("https://api.example.com/apiary/token")));
+        assertFalse(rule.matches(HttpUrl.get("https://api.example.com/")));
+    }
+
+    @Test
+    public void testPathPrefixWithTrailingSlash() {
+        final PowerAuthTokenHeaderInterceptor.Rule rule = new PowerAuthTokenHeaderInterceptor.Rule("id", "token", "api.example.com", -1, "/api/", false);
+        assertTrue(rule.matches(HttpUrl.get("https://api.example.com/api/token")));
+        assertFalse(rule.matches(HttpUrl.get("https://api.example.com/api")));
+        assertFalse(rule.matches(HttpUrl.get("https://api.example.com/api2/token")));
+    }
+}
@@ -62,3 +62,8 @@ PA_EXTERN_C NSString * _Nonnull TranslatePAErrorCode(PowerAuthErrorCode code);
 /// @param error Error to report.
 /// @param reject Reject promise to call.
 PA_EXTERN_C void ProcessError(NSError * _Nullable error, RCTPromiseRejectBlock _Nonnull reject);
+
+/// Reject promise with `EC_REACT_NATIVE_ERROR` for function that is not supported on iOS platform.
+/// @param functionName Name of the unsupported function.
+/// @param reject Reject promise to call.
+PA_EXTERN_C void RejectNotSupported(NSString * _Nonnull functionName, RCTPromiseRejectBlock _Nonnull reject);
@@ -162,3 +162,11 @@ void ProcessError(NSError * error, RCTPromiseRejectBlock reject)
     // Finally call promise's reject
     reject(errorCode, message, error);
 }
+
+/// Method rejects promise for function that is not implemented on iOS platform.
+/// @param functionName Name of the unsupported function.
+/// @param reject Reject promise to call.
+void RejectNotSupported(NSString * functionName, RCTPromiseRejectBlock reject)
+{
+    reject(EC_REACT_NATIVE_ERROR, [NSString stringWithFormat:@"%@ is not supported on iOS", functionName], nil);
+}
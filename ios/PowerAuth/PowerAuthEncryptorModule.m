@@ -295,6 +295,59 @@ RCT_EXPORT_METHOD(decryptResponse:(NSString*)encryptorId
     }];
 }
 
+RCT_EXPORT_METHOD(setCompression:(NSString*)encryptorId
+                  compression:(NSString*)compression
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"setCompression", reject);
+}
+
+RCT_EXPORT_METHOD(encryptRequests:(NSString*)encryptorId
+                  bodies:(NSArray*)bodies
+                  bodyFormat:(NSString*)bodyFormat
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"encryptRequests", reject);
+}
+
+RCT_EXPORT_METHOD(decryptResponseWithProjection:(NSString*)encryptorId
+                  cryptogram:(NSDictionary*)data
+                  paths:(NSArray*)paths
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"decryptResponseWithProjection", reject);
+}
+
+RCT_EXPORT_METHOD(encryptFile:(NSString*)encryptorId
+                  inputUri:(NSString*)inputUri
+                  outputUri:(NSString*)outputUri
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"encryptFile", reject);
+}
+
+RCT_EXPORT_METHOD(decryptFile:(NSString*)encryptorId
+                  inputUri:(NSString*)inputUri
+                  outputUri:(NSString*)outputUri
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"decryptFile", reject);
+}
+
+RCT_EXPORT_METHOD(encryptedRequest:(NSString*)scope
+                  ownerId:(NSString*)ownerId
+                  request:(NSDictionary*)request
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"encryptedRequest", reject);
+}
+
 @end
 
 
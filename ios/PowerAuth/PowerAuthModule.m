@@ -197,6 +197,14 @@ RCT_REMAP_METHOD(hasPendingActivation,
     PA_BLOCK_END
 }
 
+RCT_REMAP_METHOD(getActivationSnapshot,
+                 instanceId:(NSString*)instanceId
+                 getActivationSnapshotResolve:(RCTPromiseResolveBlock)resolve
+                 getActivationSnapshotReject:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"getActivationSnapshot", reject);
+}
+
 RCT_REMAP_METHOD(getExternalPendingOperation,
                  instanceId:(NSString*)instanceId
                  getExternalPendingOperationResolve:(RCTPromiseResolveBlock)resolve
@@ -660,6 +668,29 @@ RCT_REMAP_METHOD(signDataWithDevicePrivateKey,
     PA_BLOCK_END
 }
 
+RCT_REMAP_METHOD(fetchEncryptionKeyWithFormat,
+                 instanceId:(NSString*)instanceId
+                 authentication:(NSDictionary*)authDict
+                 index:(NSInteger)index
+                 outputFormat:(NSString*)outputFormat
+                 fetchEncryptionKeyWithFormatResolve:(RCTPromiseResolveBlock)resolve
+                 fetchEncryptionKeyWithFormatReject:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"fetchEncryptionKeyWithFormat", reject);
+}
+
+RCT_REMAP_METHOD(signDataWithDevicePrivateKeyWithFormat,
+                 instanceId:(NSString*)instanceId
+                 authentication:(NSDictionary*)authDict
+                 data:(NSString*)data
+                 dataFormat:(NSString*)dataFormat
+                 outputFormat:(NSString*)outputFormat
+                 signDataWithDevicePrivateKeyWithFormatResolve:(RCTPromiseResolveBlock)resolve
+                 signDataWithDevicePrivateKeyWithFormatReject:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"signDataWithDevicePrivateKeyWithFormat", reject);
+}
+
 RCT_REMAP_METHOD(validatePassword,
                  instanceId:(NSString*)instanceId
                  password:(id)password
@@ -1016,6 +1047,24 @@ RCT_REMAP_METHOD(generateHeaderForToken,
     PA_BLOCK_END
 }
 
+RCT_REMAP_METHOD(addTokenHeaderRule,
+                 instanceId:(NSString*)instanceId
+                 tokenName:(nonnull NSString*)tokenName
+                 rule:(NSDictionary*)rule
+                 addTokenHeaderRuleResolve:(RCTPromiseResolveBlock)resolve
+                 addTokenHeaderRuleReject:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"addTokenHeaderRule", reject);
+}
+
+RCT_REMAP_METHOD(removeTokenHeaderRules,
+                 instanceId:(NSString*)instanceId
+                 removeTokenHeaderRulesResolve:(RCTPromiseResolveBlock)resolve
+                 removeTokenHeaderRulesReject:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"removeTokenHeaderRules", reject);
+}
+
 #pragma mark - Helper methods
 
 /// Validate instance identifier and call reject promise if identifier is invalid.
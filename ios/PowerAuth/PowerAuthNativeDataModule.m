@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+#import "PowerAuthNativeDataModule.h"
+#import "Errors.h"
+
+@implementation PowerAuthNativeDataModule
+
+// MARK: - ReactNative bridge
+
+RCT_EXPORT_MODULE(PowerAuthNativeData);
+
++ (BOOL) requiresMainQueueSetup
+{
+    return NO;
+}
+
+// MARK: - JS interface
+
+RCT_EXPORT_METHOD(initialize:(NSString*)data
+                  format:(NSString*)format
+                  ownerId:(NSString*)ownerId
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"PowerAuthNativeData", reject);
+}
+
+RCT_EXPORT_METHOD(materialize:(NSString*)objectId
+                  format:(NSString*)format
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"PowerAuthNativeData", reject);
+}
+
+RCT_EXPORT_METHOD(length:(NSString*)objectId
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"PowerAuthNativeData", reject);
+}
+
+RCT_EXPORT_METHOD(release:(NSString*)objectId
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    // Nothing was created, so there's nothing to release.
+    resolve(nil);
+}
+
+@end
@@ -54,6 +54,35 @@ RCT_EXPORT_METHOD(isValidNativeObject:(id)objectId
     resolve(@([self containsObjectWithId:objectId]));
 }
 
+RCT_EXPORT_METHOD(getLatencyMetrics:(BOOL)reset
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"getLatencyMetrics", reject);
+}
+
+RCT_EXPORT_METHOD(recordBridgeLatency:(NSString*)method
+                  instanceId:(NSString*)instanceId
+                  callTime:(double)callTime)
+{
+    // Latency metrics are not collected on iOS, so the call is ignored.
+}
+
+RCT_EXPORT_METHOD(setTraceBackend:(NSString*)type
+                  capacity:(nonnull NSNumber*)capacity
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"setTraceBackend", reject);
+}
+
+RCT_EXPORT_METHOD(dumpTrace:(BOOL)clear
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"dumpTrace", reject);
+}
+
 #if DEBUG
 
 // MARK: - JS DEBUG
@@ -110,4 +110,73 @@ RCT_EXPORT_METHOD(testPin:(id)pin
     }
 }
 
+RCT_EXPORT_METHOD(testPassphrase:(id)password
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"testPassphrase", reject);
+}
+
+RCT_EXPORT_METHOD(suggestPins:(nonnull NSNumber*)length
+                  count:(nonnull NSNumber*)count
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"suggestPins", reject);
+}
+
+RCT_EXPORT_METHOD(setPinPolicy:(NSDictionary*)policy
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"setPinPolicy", reject);
+}
+
+RCT_EXPORT_METHOD(loadPinDictionary:(NSString*)source
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"loadPinDictionary", reject);
+}
+
+RCT_EXPORT_METHOD(unloadPinDictionary:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"unloadPinDictionary", reject);
+}
+
+RCT_EXPORT_METHOD(loadPassphraseDictionary:(NSString*)source
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"loadPassphraseDictionary", reject);
+}
+
+RCT_EXPORT_METHOD(unloadPassphraseDictionary:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"unloadPassphraseDictionary", reject);
+}
+
+RCT_EXPORT_METHOD(attachPinMeter:(NSString*)objectId
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"attachPinMeter", reject);
+}
+
+RCT_EXPORT_METHOD(detachPinMeter:(NSString*)objectId
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"detachPinMeter", reject);
+}
+
+RCT_EXPORT_METHOD(getPinMeterResult:(NSString*)objectId
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"getPinMeterResult", reject);
+}
+
 @end
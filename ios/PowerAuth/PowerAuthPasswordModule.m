@@ -162,6 +162,22 @@ RCT_EXPORT_METHOD(removeLastCharacter:(NSString*)objectId
     }];
 }
 
+RCT_EXPORT_METHOD(applyEdits:(NSString*)objectId
+                  ops:(NSArray*)ops
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"applyEdits", reject);
+}
+
+RCT_EXPORT_METHOD(applyEditsAndTestPin:(NSString*)objectId
+                  ops:(NSArray*)ops
+                  resolver:(RCTPromiseResolveBlock)resolve
+                  rejecter:(RCTPromiseRejectBlock)reject)
+{
+    RejectNotSupported(@"applyEditsAndTestPin", reject);
+}
+
 // MARK: - Private interface
 
 - (void) withPassword:(NSString*)passwordId
@@ -36,6 +36,8 @@ import { PowerAuthActivationCodeUtil } from './PowerAuthActivationCodeUtil';
 import { RawAuthentication, toRawPassword } from './internal/NativeTypes';
 import { buildSharingConfiguration, PowerAuthSharingConfigurationType } from './model/PowerAuthSharingConfiguration';
 import { PowerAuthExternalPendingOperation } from './model/PowerAuthExternalPendingOperation';
+import { PowerAuthActivationSnapshot } from './model/PowerAuthActivationSnapshot';
+import { PowerAuthDataFormat } from './model/PowerAuthDataFormat';
 
 /**
  * Class used for the main interaction with the PowerAuth SDK components.
@@ -255,6 +257,25 @@ export class PowerAuth {
         return NativeWrapper.thisCallNull("activationFingerprint", this.instanceId);
     }
 
+    /**
+     * Get the local activation state in one call. The result contains the same values as `hasValidActivation()`,
+     * `canStartActivation()`, `hasPendingActivation()`, `getActivationIdentifier()` and `getActivationFingerprint()`.
+     * The state is cached in the native code until the activation is created, committed, removed or its status
+     * is fetched. The function is supported on Android only.
+     * 
+     * @returns A promise with the local activation state.
+     */
+    async getActivationSnapshot(): Promise<PowerAuthActivationSnapshot> {
+        const snapshot = await NativeWrapper.thisCall<PowerAuthActivationSnapshot>("getActivationSnapshot", this.instanceId);
+        return {
+            hasValidActivation: snapshot.hasValidActivation,
+            canStartActivation: snapshot.canStartActivation,
+            hasPendingActivation: snapshot.hasPendingActivation,
+            activationIdentifier: snapshot.activationIdentifier ?? undefined,
+            activationFingerprint: snapshot.activationFingerprint ?? undefined
+        }
+    }
+
     /**
      * Remove current activation by calling a PowerAuth Standard RESTful API endpoint `/pa/activation/remove`. The user can authenticate with password
      * or with biometry, if biometric factor is configured in the current activation. In case of biometry, the system biometric authentication dialog 
@@ -427,6 +448,22 @@ export class PowerAuth {
         return NativeWrapper.thisCall("fetchEncryptionKey", this.instanceId, await this.authenticate(authentication), index);
     }
 
+    /** 
+     * Generate a derived encryption key with given index and return it in requested format. If `HANDLE` format
+     * is used, then the key stays in the native memory and you get identifier of `PowerAuthNativeData` object.
+     * The function is supported on Android only.
+     * 
+     * This method calls PowerAuth Standard RESTful API endpoint `/pa/vault/unlock` to obtain the vault encryption key used 
+     * for subsequent key derivation using given index.
+     * 
+     * @param authentication Authentication used for vault unlocking call.
+     * @param index Index of the derived key using KDF. 
+     * @param outputFormat Format of the returned key.
+     */
+    async fetchEncryptionKeyWithFormat(authentication: PowerAuthAuthentication, index: number, outputFormat: PowerAuthDataFormat): Promise<string> {
+        return NativeWrapper.thisCall("fetchEncryptionKeyWithFormat", this.instanceId, await this.authenticate(authentication), index, outputFormat);
+    }
+
     /**
      * Sign given data with the original device private key (asymetric signature).
      * 
@@ -440,6 +477,22 @@ export class PowerAuth {
         return NativeWrapper.thisCall("signDataWithDevicePrivateKey", this.instanceId, await this.authenticate(authentication), data);
     }
 
+    /**
+     * Sign given data with the original device private key (asymetric signature). The data and the signature
+     * are encoded in requested formats. The function is supported on Android only.
+     * 
+     * This method calls PowerAuth Standard RESTful API endpoint `/pa/vault/unlock` to obtain the vault encryption key 
+     * used for private key decryption. Data is then signed using ECDSA algorithm with this key and can be validated on the server side.
+     * 
+     * @param authentication Authentication used for vault unlocking call.
+     * @param data Data to be signed with the private key.
+     * @param dataFormat Format of `data` parameter.
+     * @param outputFormat Format of the returned signature.
+     */
+    async signDataWithDevicePrivateKeyWithFormat(authentication: PowerAuthAuthentication, data: string, dataFormat: PowerAuthDataFormat, outputFormat: PowerAuthDataFormat): Promise<string> {
+        return NativeWrapper.thisCall("signDataWithDevicePrivateKeyWithFormat", this.instanceId, await this.authenticate(authentication), data, dataFormat, outputFormat);
+    }
+
     /** 
      * Validate a user password.
      * 
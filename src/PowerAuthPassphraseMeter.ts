@@ -57,6 +57,112 @@ export interface PinTestResult {
      * List of all issues found during the test.
      */
     issues: PinTestIssue[]
+    /**
+     * Rank of PIN in the loaded dictionary of breached PINs, where 1 is the most frequent PIN.
+     * The value is present only if PIN is found in the dictionary. Supported on Android only.
+     */
+    frequencyRank?: number
+}
+
+/**
+ * Policy applied in the PIN strength test. All properties are optional and if not provided, then the default value is used.
+ */
+export interface PinPolicy {
+    /**
+     * Issues to evaluate. All issues are evaluated by default.
+     */
+    checks?: PinTestIssue[]
+    /**
+     * Minimum number of unique digits, in range 1 to 10. By default 3 for PINs up to 7 digits and 4 for longer PINs.
+     */
+    minUniqueDigits?: number
+    /**
+     * Maximum number of digits in patterns. By default 2 for PINs up to 5 digits, 3 for 6 digits,
+     * 4 for 7 and 8 digits and half of length for longer PINs.
+     */
+    maxPatternDigits?: number
+    /**
+     * Rules that determine which issues make the PIN weak. The first rule with `maxLength` greater or equal
+     * to PIN length, or without `maxLength`, is applied.
+     */
+    weakRules?: PinPolicyWeakRule[]
+}
+
+/**
+ * Rule in `PinPolicy` that determines which issues make the PIN weak.
+ */
+export interface PinPolicyWeakRule {
+    /**
+     * Maximum length of PIN to which the rule applies. If not provided, then the rule applies to all lengths.
+     */
+    maxLength?: number
+    /**
+     * Issues that make the PIN weak.
+     */
+    issues: PinTestIssue[]
+}
+
+/**
+ * Issues found during the passphrase strength test.
+ */
+export enum PassphraseTestIssue {
+    /**
+     * Passphrase is too short.
+     */
+    TOO_SHORT = "TOO_SHORT",
+    /**
+     * Passphrase contains common password or dictionary word.
+     */
+    COMMON_WORD = "COMMON_WORD",
+    /**
+     * Passphrase contains sequence of adjacent keys on the keyboard.
+     */
+    KEYBOARD_PATTERN = "KEYBOARD_PATTERN",
+    /**
+     * Passphrase contains sequence of characters, like `abcd` or `1234`.
+     */
+    SEQUENCE = "SEQUENCE",
+    /**
+     * Passphrase contains repeating characters.
+     */
+    REPEATING_CHARS = "REPEATING_CHARS",
+    /**
+     * Passphrase uses low variety of characters.
+     */
+    LOW_VARIETY = "LOW_VARIETY"
+}
+
+/**
+ * Strength of passphrase evaluated from its estimated entropy.
+ */
+export enum PassphraseStrength {
+    VERY_WEAK = "VERY_WEAK",
+    WEAK = "WEAK",
+    MODERATE = "MODERATE",
+    STRONG = "STRONG",
+    VERY_STRONG = "VERY_STRONG"
+}
+
+/**
+ * Object representing a passphrase test result.
+ */
+export interface PassphraseTestResult {
+    /**
+     * Estimated entropy of passphrase in bits.
+     */
+    entropy: number
+    /**
+     * Strength of passphrase.
+     */
+    strength: PassphraseStrength
+    /**
+     * If `true` then you should warn user about weak passphrase.
+     */
+    shouldWarnUserAboutWeakPassphrase: boolean
+    /**
+     * List of all issues found during the test.
+     */
+    issues: PassphraseTestIssue[]
 }
 
 /**
@@ -77,4 +183,91 @@ export class PowerAuthPassphraseMeter {
             throw NativeWrapper.processException(error)
         }
     }
+
+    /**
+     * Test strength of alphanumeric passphrase. Supported on Android only.
+     * @param passphrase Passphrase to test. You can provide string or `PowerAuthPassword` object.
+     * @returns `PassphraseTestResult` object.
+     */
+    static async testPassphrase(passphrase: PasswordType): Promise<PassphraseTestResult> {
+        try {
+            return await NativePassphraseMeter.testPassphrase(await toRawPassword(passphrase))
+        } catch (error) {
+            throw NativeWrapper.processException(error)
+        }
+    }
+
+    /**
+     * Generate random PINs that are not reported as weak with the current PIN policy. Supported on Android only.
+     * @param length Length of PIN, in range 4 to 100.
+     * @param count Number of PINs to generate, in range 1 to 100.
+     * @returns Array with generated PINs.
+     */
+    static async suggestPins(length: number, count: number): Promise<string[]> {
+        try {
+            return await NativePassphraseMeter.suggestPins(length, count)
+        } catch (error) {
+            throw NativeWrapper.processException(error)
+        }
+    }
+
+    /**
+     * Set policy applied in the PIN strength test. Supported on Android only.
+     * @param policy Policy to apply, or `null` to restore the default policy.
+     */
+    static async setPinPolicy(policy: PinPolicy | null): Promise<void> {
+        try {
+            await NativePassphraseMeter.setPinPolicy(policy)
+        } catch (error) {
+            throw NativeWrapper.processException(error)
+        }
+    }
+
+    /**
+     * Load dictionary of breached PINs. PIN found in the dictionary is reported with `FREQUENTLY_USED` issue
+     * and with its `frequencyRank`. Supported on Android only.
+     * @param source Path or URI to the dictionary file. Use `asset:///name` to load the dictionary from application assets. The asset must be stored uncompressed.
+     */
+    static async loadPinDictionary(source: string): Promise<void> {
+        try {
+            await NativePassphraseMeter.loadPinDictionary(source)
+        } catch (error) {
+            throw NativeWrapper.processException(error)
+        }
+    }
+
+    /**
+     * Unload dictionary of breached PINs. Supported on Android only.
+     */
+    static async unloadPinDictionary(): Promise<void> {
+        try {
+            await NativePassphraseMeter.unloadPinDictionary()
+        } catch (error) {
+            throw NativeWrapper.processException(error)
+        }
+    }
+
+    /**
+     * Load dictionary of common passphrases and words, used instead of the built-in list. The dictionary file is UTF-8
+     * encoded text with one word per line, ordered from the most frequent word. Supported on Android only.
+     * @param source Path or URI to the dictionary file. Use `asset:///name` to load the dictionary from application assets.
+     */
+    static async loadPassphraseDictionary(source: string): Promise<void> {
+        try {
+            await NativePassphraseMeter.loadPassphraseDictionary(source)
+        } catch (error) {
+            throw NativeWrapper.processException(error)
+        }
+    }
+
+    /**
+     * Restore the built-in dictionary of common passphrases. Supported on Android only.
+     */
+    static async unloadPassphraseDictionary(): Promise<void> {
+        try {
+            await NativePassphraseMeter.unloadPassphraseDictionary()
+        } catch (error) {
+            throw NativeWrapper.processException(error)
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import { HostComponent, NativeSyntheticEvent, Platform, requireNativeComponent, ViewProps } from 'react-native'
+import { PinTestResult } from './PowerAuthPassphraseMeter'
+
+/**
+ * Data reported by the PIN pad when the password changes.
+ */
+export interface PowerAuthPinPadEventData {
+    /**
+     * Number of digits stored in the password.
+     */
+    length: number
+    /**
+     * Strength of the typed PIN. The value is available only if the PIN meter is attached
+     * to the password with `PowerAuthPassphraseMeter.attachPinMeter()` and the PIN is long
+     * enough to be tested.
+     */
+    strength?: PinTestResult | null
+}
+
+/**
+ * Properties of the native PIN pad.
+ */
+export interface PowerAuthPinPadProps extends ViewProps {
+    /**
+     * Identifier of the native password object that receives typed digits. You can get the
+     * identifier from `PowerAuthPassword.toRawPassword()`.
+     */
+    passwordObjectId: string
+    /**
+     * Maximum number of digits. If zero or not provided, then the length is not limited.
+     */
+    maxLength?: number
+    /**
+     * Called when the length of the password changed.
+     */
+    onLengthChange?: (event: NativeSyntheticEvent<PowerAuthPinPadEventData>) => void
+    /**
+     * Called when the password reached the maximum length.
+     */
+    onComplete?: (event: NativeSyntheticEvent<PowerAuthPinPadEventData>) => void
+}
+
+/**
+ * Native PIN pad that appends typed digits directly into the native password object, so the
+ * digits never appear in JavaScript memory. The component is available on Android only, on
+ * other platforms the value is `undefined`.
+ */
+export const PowerAuthPinPad: HostComponent<PowerAuthPinPadProps> | undefined =
+    Platform.OS === 'android' ? requireNativeComponent<PowerAuthPinPadProps>('PowerAuthPinPad') : undefined
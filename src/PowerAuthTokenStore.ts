@@ -72,7 +72,10 @@ export class PowerAuthTokenStore {
      * 
      * Note that the method is thread safe, but it's not recommended to request for the same token
      * name in parallel when the token is not created yet. You can use hasLocalToken() method
-     * to check, whether the token is already in the local database.
+     * to check, whether the token is already in the local database. On Android, parallel requests
+     * for the same token name with possession-only authentication are coalesced into one request
+     * to the server and all callers receive the same token. Requests authenticated with password
+     * or biometry are never coalesced.
      *
      * @param tokenName Name of requested token.
      * @param authentication An authentication instance specifying what factors should be used for token creation.
@@ -105,6 +108,52 @@ export class PowerAuthTokenStore {
     generateHeaderForToken(tokenName: string): Promise<PowerAuthAuthorizationHttpHeader> {
         return NativeWrapper.thisCall("generateHeaderForToken", this.instanceId, tokenName ?? "");
     }
+
+    /**
+     * Add rule that attaches the header generated for the token to the matching HTTP requests. The header
+     * is generated natively by the interceptor installed to the React Native networking, so you don't need
+     * to call `generateHeaderForToken()` before each `fetch()`. The function is supported on Android only
+     * and the application must install `PowerAuthTokenHeaderInterceptor` in its native code.
+     * 
+     * @param tokenName Name of token in the local storage that will be used for generating the header.
+     * @param rule Rule that determines which requests receive the header.
+     */
+    addTokenHeaderRule(tokenName: string, rule: PowerAuthTokenHeaderRule): Promise<void> {
+        return NativeWrapper.thisCall("addTokenHeaderRule", this.instanceId, tokenName, rule);
+    }
+
+    /**
+     * Remove all rules added with `addTokenHeaderRule()` for this PowerAuth instance. The function is
+     * supported on Android only.
+     */
+    removeTokenHeaderRules(): Promise<void> {
+        return NativeWrapper.thisCall("removeTokenHeaderRules", this.instanceId);
+    }
+}
+
+/**
+ * Rule that determines which HTTP requests receive the token header.
+ */
+export interface PowerAuthTokenHeaderRule {
+    /**
+     * Host name that must match the host of the request.
+     */
+    host: string
+    /**
+     * Optional port that must match the port of the request. If not provided, then only the default port
+     * of the request's scheme matches, so the rule for `api.example.com` doesn't match `https://api.example.com:8443`.
+     */
+    port?: number
+    /**
+     * Optional path prefix. The prefix must match whole path segments, so `/api` matches `/api/accounts`
+     * but not `/apis`. If not provided, then all paths on the host match.
+     */
+    pathPrefix?: string
+    /**
+     * If `true`, then the header is attached also to plain HTTP requests, for example, to a local
+     * development server. By default, the header is attached only to HTTPS requests.
+     */
+    allowInsecure?: boolean
 }
 
 export interface PowerAuthToken {
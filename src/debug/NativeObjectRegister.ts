@@ -61,6 +61,52 @@ export interface NativeObjectCmdData {
  */
 export type NativeObjectCmdResult = boolean | string | undefined
 
+/**
+ * Phase of the native call measured in the latency metrics.
+ */
+export type NativeLatencyPhase = 'queue' | 'lookup' | 'work' | 'resolve' | 'bridge'
+
+/**
+ * Latency histogram of one native method in one phase.
+ */
+export interface NativeLatencyHistogram {
+    method: string              // name of native method
+    instanceId?: string         // PowerAuth instance identifier, if method is called for the instance
+    phase: NativeLatencyPhase   // measured phase
+    count: number               // number of recorded calls
+    sumMicros: number           // sum of recorded times in microseconds
+    buckets: number[]           // number of calls in each bucket
+}
+
+/**
+ * Latency metrics collected in the native code.
+ */
+export interface NativeLatencyMetrics {
+    enabled: boolean                    // whether the metrics are collected
+    bucketUpperBoundsMicros: number[]   // upper bound of each histogram bucket in microseconds
+    histograms: NativeLatencyHistogram[]
+}
+
+/**
+ * Trace backend type:
+ * - `system` - trace sections are recorded with the system tracer.
+ * - `none` - trace sections are not recorded.
+ * - `ringBuffer` - trace sections are recorded into ring buffer that can be read with `dumpTrace()`.
+ * - `default` - `system` in debug build of the library, otherwise `none`.
+ */
+export type NativeTraceBackendType = 'system' | 'none' | 'ringBuffer' | 'default'
+
+/**
+ * Trace event in Trace Event Format.
+ */
+export interface NativeTraceEvent {
+    ph: 'B' | 'E'       // begin or end of section
+    name?: string       // section name, present in begin event
+    pid: number         // process identifier
+    tid: number         // thread identifier
+    ts: number          // timestamp in microseconds
+}
+
 /**
  * Debug interface exposed by native object register.
  */
@@ -78,6 +124,31 @@ export interface NativeObjectRegisterIfc {
      * @returns Command result.
      */
     debugCommand(command: NativeObjectCmd, data: NativeObjectCmdData): Promise<NativeObjectCmdResult>
+    /**
+     * Get latency metrics collected in the native code.
+     * @param reset If `true`, then the metrics are cleared after the snapshot is created.
+     * @returns Collected metrics.
+     */
+    getLatencyMetrics(reset: boolean): Promise<NativeLatencyMetrics>
+    /**
+     * Record time when the native method was called in JavaScript. The function has no effect on iOS.
+     * @param method Name of native method.
+     * @param instanceId PowerAuth instance identifier.
+     * @param callTime Time of the call in milliseconds since the epoch.
+     */
+    recordBridgeLatency(method: string, instanceId: string | undefined, callTime: number): void
+    /**
+     * Change backend that records trace sections.
+     * @param type Type of backend.
+     * @param capacity Capacity of ring buffer, used only for `ringBuffer` type.
+     */
+    setTraceBackend(type: NativeTraceBackendType, capacity: number): Promise<void>
+    /**
+     * Get events recorded in the ring buffer trace backend.
+     * @param clear If `true`, then the buffer is cleared.
+     * @returns Recorded events.
+     */
+    dumpTrace(clear: boolean): Promise<NativeTraceEvent[]>
 }
 
 /**
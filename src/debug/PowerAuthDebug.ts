@@ -16,7 +16,7 @@
 
 import { PowerAuthError } from "../index";
 import { NativeWrapper } from "../internal/NativeWrapper";
-import { NativeObjectRegister } from "./NativeObjectRegister";
+import { NativeLatencyMetrics, NativeObjectRegister, NativeTraceBackendType, NativeTraceEvent } from "./NativeObjectRegister";
 
 /**
  * The `PowerAuthDebug` class provides a various functionality that can
@@ -35,6 +35,17 @@ export class PowerAuthDebug {
         }
     }
 
+    /**
+     * Enable or disable measurement of the time between the call in JavaScript and the start of
+     * the native method. The time is collected into the latency metrics in the "bridge" phase,
+     * so the native module must be compiled with the metrics enabled. Each call to the native
+     * code is accompanied with one more message while the measurement is enabled.
+     * @param enable If `true`, then the measurement is enabled.
+     */
+    static measureBridgeLatency(enable: boolean) {
+        NativeWrapper.bridgeLatencyEnabled = enable
+    }
+
     /**
      * Function prints debug information about all native objects registered in native module. Note that the function
      * is effective ony if native module is compiled in DEBUG mode and if global `__DEV__` constant is `true`.
@@ -64,7 +75,50 @@ export class PowerAuthDebug {
             console.log(']')
         }
     }
-        
+
+    /**
+     * Get latency histograms of native methods, per method, per PowerAuth instance and per phase of the call.
+     * The metrics are collected only if the native module is compiled with the metrics enabled, which is the default
+     * for the debug build. The "bridge" phase is recorded only while it's enabled with `PowerAuthDebug.measureBridgeLatency()`.
+     * Supported on Android only.
+     * @param reset If `true`, then the collected metrics are cleared.
+     * @returns Collected metrics.
+     */
+    static async getLatencyMetrics(reset: boolean = false): Promise<NativeLatencyMetrics> {
+        try {
+            return await NativeObjectRegister.getLatencyMetrics(reset)
+        } catch (error) {
+            throw NativeWrapper.processException(error)
+        }
+    }
+
+    /**
+     * Change backend that records trace sections of native methods. Supported on Android only.
+     * @param type Type of backend.
+     * @param capacity Maximum number of events kept in the ring buffer, in range 1 to 65536. Used only for `ringBuffer` type.
+     */
+    static async setTraceBackend(type: NativeTraceBackendType, capacity: number = 4096): Promise<void> {
+        try {
+            await NativeObjectRegister.setTraceBackend(type, capacity)
+        } catch (error) {
+            throw NativeWrapper.processException(error)
+        }
+    }
+
+    /**
+     * Get events recorded in the ring buffer trace backend, in Trace Event Format. Supported on Android only.
+     * @param clear If `true`, then the recorded events are cleared.
+     * @returns Recorded events.
+     * @throws `PowerAuthErrorCode.WRONG_PARAMETER` if ring buffer trace backend is not active.
+     */
+    static async dumpTrace(clear: boolean = false): Promise<NativeTraceEvent[]> {
+        try {
+            return await NativeObjectRegister.dumpTrace(clear)
+        } catch (error) {
+            throw NativeWrapper.processException(error)
+        }
+    }
+
     /**
      * Function converts any error into human readable string.
      * @param error Error to descrive.
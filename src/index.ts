@@ -20,10 +20,12 @@ export * from './PowerAuth';
 export * from './PowerAuthActivationCodeUtil';
 export * from './PowerAuthTokenStore';
 export * from './PowerAuthPassphraseMeter';
+export * from './PowerAuthPinPad';
 
 // Model objects
 
 export * from './model/PowerAuthActivation';
+export * from './model/PowerAuthActivationSnapshot';
 export * from './model/PowerAuthActivationState';
 export * from './model/PowerAuthActivationStatus';
 export * from './model/PowerAuthAuthentication';
@@ -43,6 +45,7 @@ export * from './model/PowerAuthRecoveryActivationData';
 export * from './model/PowerAuthPassword';
 export * from './model/PowerAuthEncryptor';
 export * from './model/PowerAuthDataFormat';
+export * from './model/PowerAuthNativeData';
 export * from './model/BaseNativeObject';
 
 // Debug features
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2022 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import { NativeModules } from "react-native"
+
+/**
+ * Native data interface implemented in the native code.
+ */
+export interface PowerAuthNativeDataIfc {
+    /**
+     * Store data in the native memory.
+     * @param data Data to store.
+     * @param format Data encoding. See `PowerAuthDataFormat` type for options.
+     * @param ownerId If specified, then native data will be destroyed together with owning PowerAuth instance.
+     * @returns Underlying native object identifier.
+     */
+    initialize(data: string, format: string | undefined, ownerId: string | undefined): Promise<string>
+
+    /**
+     * Encode stored data into the requested format.
+     * @param objectId Underlying object identifier.
+     * @param format Data encoding. See `PowerAuthDataFormat` type for options.
+     */
+    materialize(objectId: string, format: string | undefined): Promise<string>
+
+    /**
+     * Get number of stored bytes.
+     * @param objectId Underlying object identifier.
+     */
+    length(objectId: string): Promise<number>
+
+    /**
+     * Release native data object.
+     * @param objectId Underlying object identifier.
+     */
+    release(objectId: string): Promise<void>
+}
+
+export const NativeData = NativeModules.PowerAuthNativeData as PowerAuthNativeDataIfc
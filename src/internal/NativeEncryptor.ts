@@ -15,7 +15,7 @@
  */
 
 import { NativeModules } from "react-native"
-import { PowerAuthCryptogram } from "../model/PowerAuthEncryptor"
+import { PowerAuthCompression, PowerAuthCryptogram, PowerAuthEncryptedHttpRequest } from "../model/PowerAuthEncryptor"
 import { PowerAuthEncryptionHttpHeader } from "../model/PowerAuthEncryptionHttpHeader"
 
 /**
@@ -37,6 +37,47 @@ export interface EncryptedRequestData {
     decryptorId: string
 }
 
+/**
+ * Data returned from encryptRequests() function.
+ */
+export interface EncryptedRequestsData {
+    /**
+     * HTTP header indicating the encryption, shared by all requests.
+     */
+    header: PowerAuthEncryptionHttpHeader
+    /**
+     * Number of strings in `cryptograms` array for each encrypted body.
+     */
+    stride: number
+    /**
+     * Compression applied to all bodies, not present if data is not compressed.
+     */
+    compression?: PowerAuthCompression
+    /**
+     * Packed array with decryptorId, ephemeralPublicKey, encryptedData, mac and nonce for each encrypted body.
+     */
+    cryptograms: string[]
+}
+
+/**
+ * Data returned from encryptFile() function.
+ */
+export interface EncryptedFileData {
+    /**
+     * HTTP header indicating the encryption.
+     */
+    header: PowerAuthEncryptionHttpHeader
+    /**
+     * Identifier of newly created native object that is capable 
+     * to decrypt the response.
+     */
+    decryptorId: string
+    /**
+     * Compression applied to the file content, not present if data is not compressed.
+     */
+    compression?: PowerAuthCompression
+}
+
 /**
  * Encryptor interface implemented in the native code.
  */
@@ -83,6 +124,56 @@ export interface PowerAuthEncryptorIfc {
      * @param outputFormat Data encoding. See `PowerAuthDataFormat` type for options. 
      */
     decryptResponse(encryptorId: string, cryptogram: PowerAuthCryptogram, outputFormat: string | undefined): Promise<string>
+
+    /**
+     * Set compression applied to the request data before encryption.
+     * @param encryptorId Native object identifier.
+     * @param compression Compression or undefined to disable compression.
+     */
+    setCompression(encryptorId: string, compression: string | undefined): Promise<void>
+
+    /**
+     * Encrypt multiple request bodies at once.
+     * @param encryptorId Native object identifier.
+     * @param bodies Data to encrypt.
+     * @param format Data encoding. See `PowerAuthDataFormat` type for options. 
+     */
+    encryptRequests(encryptorId: string, bodies: Array<string | undefined>, format: string | undefined): Promise<EncryptedRequestsData>
+
+    /**
+     * Decrypt response cryptogram containing JSON and return only the selected values.
+     * @param encryptorId Native object identifier.
+     * @param cryptogram Cryptogram to decrypt.
+     * @param paths Paths to selected values.
+     * @returns Object where keys are paths and values are the selected values.
+     */
+    decryptResponseWithProjection(encryptorId: string, cryptogram: PowerAuthCryptogram, paths: string[]): Promise<{ [path: string]: any }>
+
+    /**
+     * Encrypt file and write JSON with the request cryptogram to the output file.
+     * @param encryptorId Native object identifier.
+     * @param inputUri Path or URI to file to encrypt.
+     * @param outputUri Path or URI to file with the request cryptogram.
+     */
+    encryptFile(encryptorId: string, inputUri: string, outputUri: string): Promise<EncryptedFileData>
+
+    /**
+     * Decrypt file with JSON containing the response cryptogram and write the decrypted data to the output file.
+     * @param encryptorId Native object identifier.
+     * @param inputUri Path or URI to file with the response cryptogram.
+     * @param outputUri Path or URI to file with the decrypted data.
+     * @returns Number of bytes written to the output file.
+     */
+    decryptFile(encryptorId: string, inputUri: string, outputUri: string): Promise<number>
+
+    /**
+     * Encrypt request data, send HTTP request and decrypt the response.
+     * @param scope Scope of the encryptor.
+     * @param ownerId Instance identifier of parent PowerAuth class.
+     * @param request Request to send.
+     * @returns Decrypted response in requested format.
+     */
+    encryptedRequest(scope: string, ownerId: string, request: PowerAuthEncryptedHttpRequest): Promise<any>
 }
 
 export const NativeEncryptor = NativeModules.PowerAuthEncryptor as PowerAuthEncryptorIfc
\ No newline at end of file
@@ -15,7 +15,7 @@
  */
 
 import { NativeModules } from "react-native"
-import { PinTestResult } from '../index'
+import { PassphraseTestResult, PinPolicy, PinTestResult } from '../index'
 import { RawPasswordType } from './NativeTypes';
 /**
  * Password interface implemented in the native code.
@@ -28,6 +28,67 @@ export interface PowerAuthPassphraseMeterIfc {
      * @throws `PowerAuthErrorCode.WRONG_PARAM` if PIN contains other characters than digits or length is less than 4.
      */
     testPin(pin: RawPasswordType): Promise<PinTestResult>
+
+    /**
+     * Test strength of alphanumeric passphrase.
+     * @param password Passphrase to test.
+     * @returns `PassphraseTestResult` object.
+     */
+    testPassphrase(password: RawPasswordType): Promise<PassphraseTestResult>
+
+    /**
+     * Generate PINs that pass the PIN strength test.
+     * @param length Length of PIN.
+     * @param count Number of PINs to generate.
+     */
+    suggestPins(length: number, count: number): Promise<string[]>
+
+    /**
+     * Set policy for the PIN strength test.
+     * @param policy Policy or `null` to restore the default policy.
+     */
+    setPinPolicy(policy: PinPolicy | null): Promise<void>
+
+    /**
+     * Load dictionary of breached PINs.
+     * @param source Path or URI to the dictionary file.
+     */
+    loadPinDictionary(source: string): Promise<void>
+
+    /**
+     * Unload dictionary of breached PINs.
+     */
+    unloadPinDictionary(): Promise<void>
+
+    /**
+     * Load dictionary of common passphrases and words.
+     * @param source Path or URI to the dictionary file.
+     */
+    loadPassphraseDictionary(source: string): Promise<void>
+
+    /**
+     * Restore the built-in dictionary of common passphrases.
+     */
+    unloadPassphraseDictionary(): Promise<void>
+
+    /**
+     * Attach PIN meter to the native password object.
+     * @param objectId Underlying password object identifier.
+     */
+    attachPinMeter(objectId: string): Promise<void>
+
+    /**
+     * Detach PIN meter from the native password object.
+     * @param objectId Underlying password object identifier.
+     */
+    detachPinMeter(objectId: string): Promise<void>
+
+    /**
+     * Get result from the PIN meter attached to the native password object.
+     * @param objectId Underlying password object identifier.
+     * @returns `PinTestResult` object or `null` if PIN is too short.
+     */
+    getPinMeterResult(objectId: string): Promise<PinTestResult | null>
 }
 
 export const NativePassphraseMeter = NativeModules.PowerAuthPassphraseMeter as PowerAuthPassphraseMeterIfc
\ No newline at end of file
@@ -15,6 +15,16 @@
  */
 
 import { NativeModules } from "react-native"
+import { PinTestResult } from "../index"
+
+/**
+ * Edit operation passed to the native password. The character is an Unicode Code Point.
+ */
+export interface NativePasswordEdit {
+    op: 'add' | 'insert' | 'remove' | 'removeLast' | 'clear'
+    character?: number
+    position?: number
+}
 
 /**
  * Password interface implemented in the native code.
@@ -82,6 +92,21 @@ export interface PowerAuthPasswordIfc {
      * @param objectId Underlying object identifier.
      */
     removeLastCharacter(objectId: string): Promise<number>
+
+    /**
+     * Apply batch of edit operations and return the number of stored characters.
+     * @param objectId Underlying object identifier.
+     * @param ops Edit operations.
+     */
+    applyEdits(objectId: string, ops: NativePasswordEdit[]): Promise<number>
+
+    /**
+     * Apply batch of edit operations and return the number of stored characters together
+     * with the result from the attached PIN meter.
+     * @param objectId Underlying object identifier.
+     * @param ops Edit operations.
+     */
+    applyEditsAndTestPin(objectId: string, ops: NativePasswordEdit[]): Promise<{ length: number, strength: PinTestResult | null }>
 }
 
 export const NativePassword = NativeModules.PowerAuthPassword as PowerAuthPasswordIfc
\ No newline at end of file
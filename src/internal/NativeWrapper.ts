@@ -27,12 +27,25 @@ interface ThisCallTrampoline {
     call<T>(name: string, instanceId: string, args: any[]): Promise<T>
 }
 
+/**
+ * Report the time of the call to the native latency metrics, if measurement of the bridge latency is enabled.
+ * @param name Name of function to call.
+ * @param instanceId PowerAuth instance identifier or null for static calls.
+ */
+function recordBridgeCall(name: string, instanceId: string | null) {
+    if (NativeWrapper.bridgeLatencyEnabled) {
+        // The message is queued before the call, so it waits in the same queue as the call itself.
+        NativeModules.PowerAuthObjectRegister?.recordBridgeLatency?.(name, instanceId, Date.now())
+    }
+}
+
 /**
  * The default `StaticCallTrampoline` implementation with no debug features supported.
  */
 class DefaultStaticCall implements StaticCallTrampoline {
     async call<T>(name: string, args: any[]): Promise<T> {
         try {
+            recordBridgeCall(name, null)
             return await ((NativeModules.PowerAuth[name] as Function).apply(null, args));
         } catch (e) {
             throw NativeWrapper.processException(e);
@@ -46,6 +59,7 @@ class DefaultStaticCall implements StaticCallTrampoline {
 class DefaultThisCall implements ThisCallTrampoline {
     async call<T>(name: string, instanceId: string, args: any[]): Promise<T> {
         try {
+            recordBridgeCall(name, instanceId)
             return await ((NativeModules.PowerAuth[name] as Function).apply(null, [instanceId, ...args]));
         } catch (e) {
             throw NativeWrapper.processException(e);
@@ -64,6 +78,7 @@ class DebugStaticCall implements StaticCallTrampoline {
             if (this.traceCall) {
                 console.log(`call ${msg}`)
             }
+            recordBridgeCall(name, null)
             const r = await ((NativeModules.PowerAuth[name] as Function).apply(null, args))
             if (this.traceCall) {
                 console.log(` ret ${msg} => ${JSON.stringify(r)}`)
@@ -90,6 +105,7 @@ class DebugThisCall implements ThisCallTrampoline {
             if (this.traceCall) {
                 console.log(`call ${msg}`)
             }
+            recordBridgeCall(name, instanceId)
             const r = await ((NativeModules.PowerAuth[name] as Function).apply(null, [instanceId, ...args]))
             if (this.traceCall) {
                 console.log(` ret ${msg} => ${JSON.stringify(r)}`)
@@ -113,6 +129,11 @@ export class NativeWrapper {
     private static staticTrampoline: StaticCallTrampoline = new DefaultStaticCall()
     private static thisTrampoline: ThisCallTrampoline = new DefaultThisCall()
 
+    /**
+     * If true, then each call reports its time to the native latency metrics.
+     */
+    static bridgeLatencyEnabled = false
+
     /**
      * Perform call to the native function with given name.
      * @param name Name of function to call.
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * The `PowerAuthActivationSnapshot` object contains the local activation state, returned in one call
+ * to the native code.
+ */
+export interface PowerAuthActivationSnapshot {
+    /**
+     * Contains `true` if there is a valid activation.
+     */
+    hasValidActivation: boolean
+    /**
+     * Contains `true` if it is possible to start an activation process.
+     */
+    canStartActivation: boolean
+    /**
+     * Contains `true` if there is a pending activation (activation in progress).
+     */
+    hasPendingActivation: boolean
+    /**
+     * Activation identifier or undefined if object has no valid activation.
+     */
+    activationIdentifier?: string
+    /**
+     * Fingerprint calculated from device's public key or undefined if object has no valid activation.
+     */
+    activationFingerprint?: string
+}
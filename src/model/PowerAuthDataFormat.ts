@@ -18,5 +18,11 @@
  * Input or output data format specification for the cryptographic operation:
  * - `UTF8` - data is formatted as a plain string that will be converted into UTF-8 encoded sequence of bytes before the operation.
  * - `BASE64` - binary data encoded into Base64 string.
+ * - `BASE64URL` - binary data encoded into Base64 string with URL safe alphabet and without padding. Supported on Android only.
+ * - `HEX` - binary data encoded into string with hexadecimal digits. Supported on Android only.
+ * - `HANDLE` - binary data kept in the native memory. The string is an identifier of `PowerAuthNativeData` object,
+ *   so the data never appears in JavaScript. Supported on Android only.
+ * - `JSON` - output only. Decrypted data is parsed natively and returned as an object, array or scalar value.
+ *   Supported on Android only.
  */
-export type PowerAuthDataFormat = 'UTF8' | 'BASE64'
+export type PowerAuthDataFormat = 'UTF8' | 'BASE64' | 'BASE64URL' | 'HEX' | 'HANDLE' | 'JSON'
@@ -26,6 +26,17 @@ import { NativeObject } from "../internal/NativeObject"
  */
 export type PowerAuthEncryptorScope = 'APPLICATION' | 'ACTIVATION'
 
+/**
+ * Compression of data encrypted or decrypted with the encryptor:
+ * - `NONE` - data is not compressed.
+ * - `DEFLATE` - data is compressed with raw DEFLATE algorithm.
+ * - `GZIP` - data is compressed in GZIP format.
+ * 
+ * The compression is carried in `X-PowerAuth-Compression` HTTP header. Be aware that compression of secret
+ * data together with data controlled by an attacker may reveal the secret data by the length of the cryptogram.
+ */
+export type PowerAuthCompression = 'NONE' | 'DEFLATE' | 'GZIP'
+
 /**
  * Interface representing encrypted data in request or response.
  */
@@ -46,6 +57,14 @@ export interface PowerAuthCryptogram {
      * Nonce, valid for encrypted request.
      */
     readonly nonce?: string
+    /**
+     * Compression of the encrypted data. In encrypted request, the value is present if the encryptor is configured
+     * with compression, and you should send it to the server in `X-PowerAuth-Compression` HTTP header. In response
+     * passed to `decryptResponse()`, set the value from `X-PowerAuth-Compression` header of the HTTP response.
+     * If not present in the response, then the response data is not compressed.
+     * Supported on Android only.
+     */
+    readonly compression?: PowerAuthCompression
 }
 
 /**
@@ -70,6 +89,62 @@ export interface PowerAuthEncryptedRequestData {
     readonly decryptor: PowerAuthDecryptor
 }
 
+/**
+ * Object returned from the `encryptFile()` function.
+ */
+export interface PowerAuthEncryptedFileData {
+    /**
+     * HTTP request header. You must include this header to your HTTP request 
+     * to properly decrypt the request data on the server.
+     */
+    readonly header: PowerAuthEncryptionHttpHeader
+    /**
+     * Object that can decrypt encrypted response received from the server.
+     */
+    readonly decryptor: PowerAuthDecryptor
+    /**
+     * Compression applied to the file content before encryption, not present if data is not compressed.
+     * You should send it to the server in `X-PowerAuth-Compression` HTTP header.
+     */
+    readonly compression?: PowerAuthCompression
+}
+
+/**
+ * HTTP request sent with `encryptedRequest()` function.
+ */
+export interface PowerAuthEncryptedHttpRequest {
+    /**
+     * URL of the request. Only HTTP and HTTPS URLs are accepted.
+     */
+    url: string
+    /**
+     * HTTP method. The method must allow the request body. If not provided, then `POST` is used.
+     */
+    method?: string
+    /**
+     * Additional HTTP request headers.
+     */
+    headers?: { [name: string]: string }
+    /**
+     * Request data to encrypt.
+     */
+    body?: string
+    /**
+     * Format of `body` property. If not provided, then `UTF8` is used.
+     */
+    bodyFormat?: PowerAuthDataFormat
+    /**
+     * Format of the decrypted response. If not provided, then `UTF8` is used. If `JSON` is used, then the response
+     * is parsed natively and returned as an object.
+     */
+    outputFormat?: PowerAuthDataFormat
+    /**
+     * Compression of the request data. If compression is used, then the request contains `X-PowerAuth-Compression`
+     * HTTP header. The response is decompressed according to the same header in the HTTP response.
+     */
+    compression?: PowerAuthCompression
+}
+
 /**
  * Interface that implements End-To-End encryption. Use `PowerAuth` class to get instnace 
  * of encryptor.
@@ -99,6 +174,38 @@ export interface PowerAuthEncryptor extends BaseReleasableObject {
      * @returns Object containing encrypted data, HTTP header and decryptor for the response decryption.
      */
     encryptRequest(body: string, bodyFormat: PowerAuthDataFormat): Promise<PowerAuthEncryptedRequestData>
+    /**
+     * Set compression applied to the request data before encryption. The compression is reported in the
+     * `compression` property of the request cryptogram. Supported on Android only.
+     * @param compression Compression to apply.
+     */
+    setCompression(compression: PowerAuthCompression): Promise<void>
+    /**
+     * Encrypt multiple request bodies at once. Each body gets its own cryptogram and decryptor, the HTTP header
+     * is the same for all requests. Supported on Android only.
+     * @param bodies Data to encrypt.
+     * @param bodyFormat Specify encoding of `bodies` parameter. The default value is `UTF8`.
+     * @returns Array with encrypted data, in the same order as `bodies`.
+     */
+    encryptRequests(bodies: string[], bodyFormat?: PowerAuthDataFormat): Promise<PowerAuthEncryptedRequestData[]>
+    /**
+     * Encrypt file and write JSON with the request cryptogram to the output file. The output file can be used
+     * directly as a body of HTTP request. If the encryptor is configured with compression, then the JSON also
+     * contains `compression` property. The size of the input file is limited to 16 MiB, because the whole
+     * content must be encrypted in the memory. If the function fails, then the output file is removed.
+     * Supported on Android only.
+     * @param inputUri Path or content URI of file to encrypt.
+     * @param outputUri Path or content URI of file for the request body.
+     * @returns Object containing HTTP header and decryptor for the response decryption.
+     */
+    encryptFile(inputUri: string, outputUri: string): Promise<PowerAuthEncryptedFileData>
+    /**
+     * Encrypt request data, send HTTP request and decrypt the response in the native code. The request
+     * and the response data don't pass through the JavaScript networking. Supported on Android only.
+     * @param request HTTP request to send.
+     * @returns Decrypted response in format specified in `outputFormat` property of the request.
+     */
+    encryptedRequest(request: PowerAuthEncryptedHttpRequest): Promise<any>
 }
 
 /**
@@ -133,6 +240,34 @@ export interface PowerAuthDecryptor extends BaseReleasableObject {
      * @returns Decrypted string.
      */
     decryptResponse(cryptogram: PowerAuthCryptogram): Promise<string>
+
+    /**
+     * Decrypt response containing JSON and return only the selected values. The values that are not selected
+     * are skipped by the native parser. The underlying native object is automatically released after this call.
+     * Supported on Android only.
+     * 
+     * Each path contains names of nested object members separated by dot, for example `data.account.balance`.
+     * If the member name contains dot or backslash, then such character must be escaped with backslash, so the path
+     * `rates.EUR\\.USD` selects member `EUR.USD` of `rates` object. Both parent and child paths can be selected, for
+     * example `data` and `data.id`, and the result then contains both values, each under its own path.
+     * 
+     * @param cryptogram Cryptogram containing encrypted response from the server.
+     * @param paths Paths to the selected values.
+     * @returns Object where keys are paths and values are the selected values. Paths that don't exist in the response are not present.
+     */
+    decryptResponseWithProjection(cryptogram: PowerAuthCryptogram, paths: string[]): Promise<{ [path: string]: any }>
+
+    /**
+     * Decrypt file with JSON containing the response cryptogram and write the decrypted data to the output file.
+     * The size of the decrypted data is limited to 16 MiB. If the function fails, then the output file is removed.
+     * The JSON may contain `compression` property with the compression of the encrypted data. If not present,
+     * then the data is not compressed.
+     * The underlying native object is automatically released after this call. Supported on Android only.
+     * @param inputUri Path or content URI of file with the response.
+     * @param outputUri Path or content URI of file for the decrypted data.
+     * @returns Number of bytes written to the output file.
+     */
+    decryptFile(inputUri: string, outputUri: string): Promise<number>
 }
 
 /**
@@ -160,6 +295,51 @@ export class PowerAuthEncryptorImpl extends BaseNativeObject implements PowerAut
         })
     }
 
+    setCompression(compression: PowerAuthCompression): Promise<void> {
+        return this.withObjectId(objectId => NativeEncryptor.setCompression(objectId, compression))
+    }
+
+    encryptRequests(bodies: string[], bodyFormat: PowerAuthDataFormat = 'UTF8'): Promise<PowerAuthEncryptedRequestData[]> {
+        return this.withObjectId(async (objectId) => {
+            const result = await NativeEncryptor.encryptRequests(objectId, bodies, bodyFormat)
+            const packed = result.cryptograms
+            const requests: PowerAuthEncryptedRequestData[] = []
+            for (let i = 0; i + result.stride <= packed.length; i += result.stride) {
+                requests.push({
+                    cryptogram: {
+                        ephemeralPublicKey: packed[i + 1],
+                        encryptedData: packed[i + 2],
+                        mac: packed[i + 3],
+                        nonce: packed[i + 4],
+                        compression: result.compression
+                    },
+                    header: result.header,
+                    decryptor: new PowerAuthDecryptorImpl(this.encryptorScope, packed[i])
+                })
+            }
+            return requests
+        })
+    }
+
+    encryptFile(inputUri: string, outputUri: string): Promise<PowerAuthEncryptedFileData> {
+        return this.withObjectId(async (objectId) => {
+            const result = await NativeEncryptor.encryptFile(objectId, inputUri, outputUri)
+            return {
+                header: result.header,
+                decryptor: new PowerAuthDecryptorImpl(this.encryptorScope, result.decryptorId),
+                compression: result.compression
+            }
+        })
+    }
+
+    async encryptedRequest(request: PowerAuthEncryptedHttpRequest): Promise<any> {
+        try {
+            return await NativeEncryptor.encryptedRequest(this.encryptorScope, this.powerAuthInstanceId, request)
+        } catch (error) {
+            throw NativeWrapper.processException(error)
+        }
+    }
+
     /**
      * Scope of this encryptor.
      */
@@ -217,6 +397,14 @@ class PowerAuthDecryptorImpl implements PowerAuthDecryptor {
         return this.withObjectId(objectId => NativeEncryptor.decryptResponse(objectId, cryptogram, outputDataFormat))
     }
 
+    decryptResponseWithProjection(cryptogram: PowerAuthCryptogram, paths: string[]): Promise<{ [path: string]: any }> {
+        return this.withObjectId(objectId => NativeEncryptor.decryptResponseWithProjection(objectId, cryptogram, paths))
+    }
+
+    decryptFile(inputUri: string, outputUri: string): Promise<number> {
+        return this.withObjectId(objectId => NativeEncryptor.decryptFile(objectId, inputUri, outputUri))
+    }
+
     release(): Promise<void> {
         return NativeEncryptor.release(this.objectId)
     }
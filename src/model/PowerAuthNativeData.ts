@@ -0,0 +1,96 @@
+/*
+ * Copyright 2022 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import { NativeData } from "../internal/NativeData"
+import { NativeWrapper } from "../internal/NativeWrapper"
+import { PowerAuthDataFormat } from "./PowerAuthDataFormat"
+
+/**
+ * The `PowerAuthNativeData` class represents binary data kept in the native memory. Pass the `handle`
+ * property together with `HANDLE` data format to the cryptographic functions, so the data doesn't need
+ * to cross the bridge. Functions that support `HANDLE` output format create a new native data object and
+ * return its handle, which can be wrapped with `PowerAuthNativeData.fromHandle()`.
+ * 
+ * The native data is released automatically after 5 minutes of inactivity, or when the owning `PowerAuth`
+ * instance is deconfigured. The stored bytes are zeroized once the data is released.
+ * 
+ * Supported on Android only.
+ */
+export class PowerAuthNativeData {
+
+    /**
+     * Store data in the native memory.
+     * @param data Data to store.
+     * @param format Format of `data` parameter. The `HANDLE` format is not allowed.
+     * @param powerAuthInstanceId If specified, then the native data is released together with `PowerAuth` instance with the same identifier.
+     * @returns New `PowerAuthNativeData` object.
+     */
+    static async create(data: string, format: PowerAuthDataFormat = 'BASE64', powerAuthInstanceId: string | undefined = undefined): Promise<PowerAuthNativeData> {
+        try {
+            return new PowerAuthNativeData(await NativeData.initialize(data, format, powerAuthInstanceId))
+        } catch (error) {
+            throw NativeWrapper.processException(error)
+        }
+    }
+
+    /**
+     * Wrap handle returned from a function that supports `HANDLE` output format.
+     * @param handle Identifier of native data object.
+     * @returns `PowerAuthNativeData` object.
+     */
+    static fromHandle(handle: string): PowerAuthNativeData {
+        return new PowerAuthNativeData(handle)
+    }
+
+    /**
+     * Encode the stored data into the requested format. Be aware that the data then appears in JavaScript.
+     * @param format Format of the returned data. If `HANDLE` is used, then the handle is returned after it's validated.
+     * @returns Data encoded in the requested format.
+     */
+    async materialize(format: PowerAuthDataFormat = 'BASE64'): Promise<string> {
+        try {
+            return await NativeData.materialize(this.handle, format)
+        } catch (error) {
+            throw NativeWrapper.processException(error)
+        }
+    }
+
+    /**
+     * Get number of stored bytes.
+     * @returns Number of stored bytes.
+     */
+    async length(): Promise<number> {
+        try {
+            return await NativeData.length(this.handle)
+        } catch (error) {
+            throw NativeWrapper.processException(error)
+        }
+    }
+
+    /**
+     * Release the native data and zeroize the stored bytes.
+     */
+    release(): Promise<void> {
+        return NativeData.release(this.handle)
+    }
+
+    /**
+     * Construct object with identifier of native data.
+     * @param handle Identifier of native data object.
+     */
+    private constructor(readonly handle: string) {
+    }
+}
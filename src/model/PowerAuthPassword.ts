@@ -17,7 +17,7 @@
 import { PinTestResult, PowerAuthError, PowerAuthErrorCode } from "../index"
 import { BaseNativeObject } from "./BaseNativeObject"
 import { NativePassphraseMeter } from "../internal/NativePassphraseMeter"
-import { NativePassword } from "../internal/NativePassword"
+import { NativePassword, NativePasswordEdit } from "../internal/NativePassword"
 import { RawPassword } from "../internal/NativeTypes"
 
 
@@ -34,6 +34,34 @@ export type PasswordType = PowerAuthPassword | string
  */
 export type CharacterType = string | number
 
+/**
+ * Edit operation applied to the password with `applyEdits()` or `applyEditsAndTestPin()` function:
+ * - `add` - add `character` at the end of password.
+ * - `insert` - insert `character` at `position`.
+ * - `remove` - remove character at `position`.
+ * - `removeLast` - remove last character.
+ * - `clear` - remove all characters.
+ */
+export interface PowerAuthPasswordEdit {
+    op: 'add' | 'insert' | 'remove' | 'removeLast' | 'clear'
+    character?: CharacterType
+    position?: number
+}
+
+/**
+ * Result from `applyEditsAndTestPin()` function.
+ */
+export interface PowerAuthPasswordEditResult {
+    /**
+     * Number of characters stored in the password.
+     */
+    length: number
+    /**
+     * Result from PIN meter attached to the password, or `null` if no meter is attached or PIN is not complete.
+     */
+    strength: PinTestResult | null
+}
+
 /**
  * The `PowerAuthPassword` class implements safe storage for users' passwords.
  * The class is using an underlying native object to store the user's password securely
@@ -159,6 +187,32 @@ export class PowerAuthPassword extends BaseNativeObject {
         return this.withObjectId(id => NativePassword.removeLastCharacter(id))
     }
 
+    /**
+     * Apply multiple edit operations in one native call. The operations are validated first, so
+     * the password is either modified with all operations or not modified at all. This method also
+     * extends the lifetime of the underlying native password. Supported on Android only.
+     * 
+     * @param edits Edit operations to apply.
+     * @returns Number of characters stored in the password.
+     */
+    applyEdits(edits: PowerAuthPasswordEdit[]): Promise<number> {
+        const ops = edits.map(toNativeEdit)
+        return this.withObjectId(id => NativePassword.applyEdits(id, ops))
+    }
+
+    /**
+     * Apply multiple edit operations in one native call and evaluate the PIN with the meter attached
+     * with `attachPinMeter()`. This method also extends the lifetime of
+     * the underlying native password. Supported on Android only.
+     * 
+     * @param edits Edit operations to apply.
+     * @returns Number of stored characters and result from the attached PIN meter.
+     */
+    applyEditsAndTestPin(edits: PowerAuthPasswordEdit[]): Promise<PowerAuthPasswordEditResult> {
+        const ops = edits.map(toNativeEdit)
+        return this.withObjectId(id => NativePassword.applyEditsAndTestPin(id, ops))
+    }
+
     /**
      * Compare two passwords. This method also extends the lifetime of the both underlying
      * native passwords.
@@ -180,6 +234,31 @@ export class PowerAuthPassword extends BaseNativeObject {
         return this.withObjectId(_ => NativePassphraseMeter.testPin(this.toRawObject()))
     }
 
+    /**
+     * Attach PIN meter to this password. The meter evaluates the PIN incrementally while the characters are
+     * added or removed, so the result is available immediately from `getPinMeterResult()` or `applyEditsAndTestPin()`.
+     * Supported on Android only.
+     */
+    attachPinMeter(): Promise<void> {
+        return this.withObjectId(id => NativePassphraseMeter.attachPinMeter(id))
+    }
+
+    /**
+     * Detach PIN meter from this password. Supported on Android only.
+     */
+    detachPinMeter(): Promise<void> {
+        return this.withObjectId(id => NativePassphraseMeter.detachPinMeter(id))
+    }
+
+    /**
+     * Get result from the PIN meter attached to this password. Supported on Android only.
+     * @returns `PinTestResult` object or `null` if PIN contains other characters than digits or its length is less than 4.
+     * @throws `PowerAuthErrorCode.INVALID_NATIVE_OBJECT` if PIN meter is not attached.
+     */
+    getPinMeterResult(): Promise<PinTestResult | null> {
+        return this.withObjectId(id => NativePassphraseMeter.getPinMeterResult(id))
+    }
+
     /**
      * Convert this password object into RawPassword object that can be passed safely to a native call.
      * @returns Frozen RawPassword object.
@@ -244,4 +323,17 @@ function getCodePoint(character: CharacterType): number {
         c = character
     }
     return c
+}
+
+/**
+ * Function translate edit operation into operation passed to the native code.
+ * @param edit Edit operation to translate.
+ * @returns Edit operation with character translated into Unicode Code Point.
+ */
+function toNativeEdit(edit: PowerAuthPasswordEdit): NativePasswordEdit {
+    return {
+        op: edit.op,
+        character: edit.character !== undefined ? getCodePoint(edit.character) : undefined,
+        position: edit.position
+    }
 }
\ No newline at end of file